@@ -0,0 +1,66 @@
+-- Substring search benchmark: LIKE '%x%' with and without pg_trgm GIN indexes on 1M listings.
+--
+--   createdb trgm_bench && psql -d trgm_bench -f benchmark/pg_trgm_search.sql
+--
+-- Runs in a throwaway database; the table mirrors the searchable columns of "properties".
+\timing on
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+DROP TABLE IF EXISTS properties_bench;
+
+CREATE TABLE properties_bench (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title        VARCHAR(255),
+    location     VARCHAR(255),
+    price        NUMERIC(38, 2),
+    area         DOUBLE PRECISION,
+    rooms        INTEGER,
+    type         VARCHAR(255),
+    listing_type VARCHAR(255),
+    status       VARCHAR(255)
+);
+
+INSERT INTO properties_bench (title, location, price, area, rooms, type, listing_type, status)
+SELECT (ARRAY['Maison', 'Villa', 'Appartement', 'Studio', 'Terrain', 'Loft', 'Duplex'])[1 + (i % 7)]
+           || ' ' || (ARRAY['lumineux', 'familial', 'renove', 'avec jardin', 'vue mer', 'calme'])[1 + (i % 6)]
+           || ' ' || md5(i::text),
+       (ARRAY['Paris', 'Lyon', 'Marseille', 'Toulouse', 'Nantes', 'Bordeaux', 'Lille', 'Rennes'])[1 + (i % 8)]
+           || ' ' || (1 + i % 20) || 'e',
+       round((50000 + random() * 950000)::numeric, 2),
+       20 + random() * 480,
+       1 + (i % 8),
+       CASE WHEN i % 5 = 0 THEN 'LAND' ELSE 'HOUSE' END,
+       CASE WHEN i % 3 = 0 THEN 'RENT' ELSE 'SALE' END,
+       CASE WHEN i % 10 = 0 THEN 'SOLD' ELSE 'ACTIVE' END
+FROM generate_series(1, 1000000) AS i;
+ANALYZE properties_bench;
+
+-- 1. Current findByCriteria query: case-sensitive LIKE, no usable index -> sequential scan
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM properties_bench p
+WHERE p.title LIKE '%avec jardin%' AND p.location LIKE '%Lyon 3e%' AND p.status = 'ACTIVE';
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM properties_bench p
+WHERE p.title ILIKE '%VUE MER%' AND p.status = 'ACTIVE';
+
+-- 2. Same queries once the V3 migration indexes exist
+CREATE INDEX idx_bench_title_trgm ON properties_bench USING gin (title gin_trgm_ops);
+CREATE INDEX idx_bench_location_trgm ON properties_bench USING gin (location gin_trgm_ops);
+ANALYZE properties_bench;
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM properties_bench p
+WHERE p.title LIKE '%avec jardin%' AND p.location LIKE '%Lyon 3e%' AND p.status = 'ACTIVE';
+
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM properties_bench p
+WHERE p.title ILIKE '%VUE MER%' AND p.status = 'ACTIVE';
+
+-- 3. TRIGRAM mode as issued by PropertyRepositoryImpl: ILIKE filter ranked by similarity
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM properties_bench p
+WHERE p.title ILIKE '%studio calme%' AND p.location ILIKE '%bordeaux%' AND p.status = 'ACTIVE'
+ORDER BY coalesce(similarity(p.title, 'studio calme'), 0) + coalesce(similarity(p.location, 'bordeaux'), 0) DESC, p.id;
+
+DROP TABLE properties_bench;
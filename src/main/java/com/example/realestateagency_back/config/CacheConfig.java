@@ -0,0 +1,13 @@
+package com.example.realestateagency_back.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Caffeine caches are configured through the spring.cache.* properties
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PROPERTY_DETAILS = "propertyDetails";
+    public static final String SEARCH_RESULTS = "searchResults";
+}
@@ -4,6 +4,7 @@ import com.example.realestateagency_back.security.JwtAuthFilter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -35,6 +36,9 @@ public class SecurityConfig {
                         .requestMatchers("/api/auth/**", "/api/annonces/public/**", "/api/users/register").permitAll()
                         .requestMatchers("/api/admin/setup/first-admin").permitAll()  // Add this line
                         .requestMatchers("/api/admin/**").hasAnyAuthority("ADMIN")
+                        .requestMatchers("/api/annonces/bulk/**").hasAnyAuthority("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/annonces/import").hasAnyAuthority("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/annonces/locations/backfill").hasAnyAuthority("ADMIN")
                         .requestMatchers("/api/photos/download/**").permitAll()
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,58 @@
+package com.example.realestateagency_back.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+
+/**
+ * Builds the validators used with {@link org.springframework.web.context.request.WebRequest#checkNotModified(String, long)}.
+ */
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    // Strong entity tag made of the given version components
+    static String etag(Object... parts) {
+        StringBuilder value = new StringBuilder();
+        for (Object part : parts) {
+            if (value.length() > 0) {
+                value.append('-');
+            }
+            value.append(part);
+        }
+        return "\"" + value + "\"";
+    }
+
+    // Strong entity tag for versions that include free-form input such as search criteria
+    static String hashedEtag(Object... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    // -1 disables the If-Modified-Since check when the version has no timestamp
+    static long lastModified(LocalDateTime updatedAt) {
+        return updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+
+    // Full resolution of the timestamp, two writes within the same millisecond differ
+    static String versionOf(LocalDateTime updatedAt) {
+        if (updatedAt == null) {
+            return "0";
+        }
+        Instant instant = updatedAt.atZone(ZoneId.systemDefault()).toInstant();
+        return instant.getEpochSecond() + "." + instant.getNano();
+    }
+}
@@ -18,8 +18,10 @@ public class FavoriteController {
     private final FavoriteService favoriteService;
 
     @GetMapping
-    public ResponseEntity<List<FavoriteDTO>> getAllFavorites() {
-        List<FavoriteDTO> favorites = favoriteService.getAllFavorites();
+    public ResponseEntity<List<?>> getAllFavorites(@RequestParam(required = false) String fields) {
+        List<?> favorites = fields == null
+                ? favoriteService.getAllFavorites()
+                : favoriteService.getFavoriteFields(null, null, fields);
         return ResponseEntity.ok(favorites);
     }
 
@@ -30,14 +32,22 @@ public class FavoriteController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<FavoriteDTO>> getFavoritesByUserId(@PathVariable Long userId) {
-        List<FavoriteDTO> favorites = favoriteService.getFavoritesByUserId(userId);
+    public ResponseEntity<List<?>> getFavoritesByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String fields) {
+        List<?> favorites = fields == null
+                ? favoriteService.getFavoritesByUserId(userId)
+                : favoriteService.getFavoriteFields(userId, null, fields);
         return ResponseEntity.ok(favorites);
     }
 
     @GetMapping("/property/{propertyId}")
-    public ResponseEntity<List<FavoriteDTO>> getFavoritesByPropertyId(@PathVariable Long propertyId) {
-        List<FavoriteDTO> favorites = favoriteService.getFavoritesByPropertyId(propertyId);
+    public ResponseEntity<List<?>> getFavoritesByPropertyId(
+            @PathVariable Long propertyId,
+            @RequestParam(required = false) String fields) {
+        List<?> favorites = fields == null
+                ? favoriteService.getFavoritesByPropertyId(propertyId)
+                : favoriteService.getFavoriteFields(null, propertyId, fields);
         return ResponseEntity.ok(favorites);
     }
 
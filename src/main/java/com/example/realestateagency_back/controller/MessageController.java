@@ -19,8 +19,10 @@ public class MessageController {
     private final MessageService messageService;
 
     @GetMapping
-    public ResponseEntity<List<MessageDTO>> getAllMessages() {
-        List<MessageDTO> messages = messageService.getAllMessages();
+    public ResponseEntity<List<?>> getAllMessages(@RequestParam(required = false) String fields) {
+        List<?> messages = fields == null
+                ? messageService.getAllMessages()
+                : messageService.getMessageFields(null, null, fields);
         return ResponseEntity.ok(messages);
     }
 
@@ -31,14 +33,22 @@ public class MessageController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<MessageDTO>> getMessagesByUserId(@PathVariable Long userId) {
-        List<MessageDTO> messages = messageService.getMessagesByUserId(userId);
+    public ResponseEntity<List<?>> getMessagesByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String fields) {
+        List<?> messages = fields == null
+                ? messageService.getMessagesByUserId(userId)
+                : messageService.getMessageFields(userId, null, fields);
         return ResponseEntity.ok(messages);
     }
 
     @GetMapping("/property/{propertyId}")
-    public ResponseEntity<List<MessageDTO>> getMessagesByPropertyId(@PathVariable Long propertyId) {
-        List<MessageDTO> messages = messageService.getMessagesByPropertyId(propertyId);
+    public ResponseEntity<List<?>> getMessagesByPropertyId(
+            @PathVariable Long propertyId,
+            @RequestParam(required = false) String fields) {
+        List<?> messages = fields == null
+                ? messageService.getMessagesByPropertyId(propertyId)
+                : messageService.getMessageFields(null, propertyId, fields);
         return ResponseEntity.ok(messages);
     }
 
@@ -55,10 +65,13 @@ public class MessageController {
     }
 
     @GetMapping("/user/{userId}/property/{propertyId}")
-    public ResponseEntity<List<MessageDTO>> getMessagesByUserAndPropertyId(
+    public ResponseEntity<List<?>> getMessagesByUserAndPropertyId(
             @PathVariable Long userId,
-            @PathVariable Long propertyId) {
-        List<MessageDTO> messages = messageService.getMessagesByUserAndPropertyId(userId, propertyId);
+            @PathVariable Long propertyId,
+            @RequestParam(required = false) String fields) {
+        List<?> messages = fields == null
+                ? messageService.getMessagesByUserAndPropertyId(userId, propertyId)
+                : messageService.getMessageFields(userId, propertyId, fields);
         return ResponseEntity.ok(messages);
     }
 }
\ No newline at end of file
@@ -11,11 +11,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.io.IOException;
 import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -34,13 +36,23 @@ public class PhotoController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<PhotoDTO> getPhotoById(@PathVariable Long id) {
+    public ResponseEntity<PhotoDTO> getPhotoById(@PathVariable Long id, WebRequest request) {
+        LocalDateTime version = photoService.getPhotoVersion(id);
+        String etag = ConditionalRequests.etag("photo", id, ConditionalRequests.versionOf(version));
+        if (request.checkNotModified(etag, ConditionalRequests.lastModified(version))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         PhotoDTO photo = photoService.getPhotoById(id);
         return ResponseEntity.ok(photo);
     }
 
     @GetMapping("/property/{propertyId}")
-    public ResponseEntity<List<PhotoDTO>> getPhotosByPropertyId(@PathVariable Long propertyId) {
+    public ResponseEntity<List<PhotoDTO>> getPhotosByPropertyId(@PathVariable Long propertyId, WebRequest request) {
+        LocalDateTime version = photoService.getPropertyPhotosVersion(propertyId);
+        String etag = ConditionalRequests.etag("photos", propertyId, ConditionalRequests.versionOf(version));
+        if (request.checkNotModified(etag, ConditionalRequests.lastModified(version))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
         List<PhotoDTO> photos = photoService.getPhotosByPropertyId(propertyId);
         return ResponseEntity.ok(photos);
     }
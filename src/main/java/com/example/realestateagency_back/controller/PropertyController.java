@@ -1,14 +1,42 @@
 package com.example.realestateagency_back.controller;
 
+import com.example.realestateagency_back.dto.BulkOperationResultDTO;
+import com.example.realestateagency_back.dto.BulkPropertyRequestDTO;
+import com.example.realestateagency_back.dto.CursorPageDTO;
+import com.example.realestateagency_back.dto.ImportReportDTO;
+import com.example.realestateagency_back.dto.LocationBackfillReportDTO;
+import com.example.realestateagency_back.dto.LocationSuggestionDTO;
+import com.example.realestateagency_back.dto.PropertyCardDTO;
 import com.example.realestateagency_back.dto.PropertyDTO;
+import com.example.realestateagency_back.dto.PropertyFacetsDTO;
 import com.example.realestateagency_back.dto.PropertySearchCriteriaDTO;
+import com.example.realestateagency_back.search.CatalogVersion;
+import com.example.realestateagency_back.search.GeoBoundingBox;
+import com.example.realestateagency_back.search.PropertySortField;
+import com.example.realestateagency_back.service.CatalogSnapshotService;
+import com.example.realestateagency_back.service.LocationBackfillService;
+import com.example.realestateagency_back.service.PropertyBulkService;
+import com.example.realestateagency_back.service.PropertyImportService;
 import com.example.realestateagency_back.service.PropertyService;
+import com.example.realestateagency_back.service.PropertyViewService;
+import com.example.realestateagency_back.service.TrendingService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -18,26 +46,243 @@ import java.util.List;
 public class PropertyController {
 
     private final PropertyService propertyService;
+    private final PropertyImportService propertyImportService;
+    private final PropertyBulkService propertyBulkService;
+    private final LocationBackfillService locationBackfillService;
+    private final PropertyViewService propertyViewService;
+    private final TrendingService trendingService;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersion catalogVersion;
+    private final CatalogSnapshotService catalogSnapshotService;
 
     // Publicly accessible endpoints
     @GetMapping("/public/all")
-    public ResponseEntity<List<PropertyDTO>> getAllProperties() {
-        List<PropertyDTO> properties = propertyService.getAllProperties();
-        return ResponseEntity.ok(properties);
+    public ResponseEntity<?> getAllProperties(@RequestParam(required = false) String fields,
+                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                              WebRequest request) {
+        if (fields != null) {
+            return ResponseEntity.ok(propertyService.getAllPropertyFields(fields));
+        }
+        CatalogSnapshotService.Snapshot snapshot = catalogSnapshotService.getAllProperties().orElse(null);
+        if (snapshot == null) {
+            // Too large to keep prebuilt, written as it is read instead of held in memory
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(streamAllPropertiesArray());
+        }
+        boolean gzipped = acceptsGzip(acceptEncoding);
+        if (request.checkNotModified(snapshot.etag(gzipped))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).varyBy(HttpHeaders.ACCEPT_ENCODING).build();
+        }
+        return snapshotResponse(snapshot, gzipped);
+    }
+
+    private StreamingResponseBody streamAllPropertiesArray() {
+        return outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                propertyService.streamAllProperties(chunk -> {
+                    try {
+                        for (PropertyDTO property : chunk) {
+                            objectMapper.writeValue(generator, property);
+                        }
+                        generator.flush();
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+    }
+
+    // NDJSON variant of /public/all, selected with "Accept: application/x-ndjson"
+    @GetMapping(value = "/public/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllProperties() {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                // One document per line, without the default space between root values
+                generator.setRootValueSeparator(null);
+                propertyService.streamAllProperties(chunk -> {
+                    try {
+                        for (PropertyDTO property : chunk) {
+                            objectMapper.writeValue(generator, property);
+                            generator.writeRaw('\n');
+                        }
+                        generator.flush();
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/public/{id}")
-    public ResponseEntity<PropertyDTO> getPropertyById(@PathVariable Long id) {
-        PropertyDTO property = propertyService.getPropertyById(id);
+    public ResponseEntity<PropertyDTO> getPropertyById(@PathVariable Long id, WebRequest request) {
+        // Answer revalidations from the version column alone; the view count is informational
+        // and would otherwise change the validator of a popular listing on every flush
+        LocalDateTime version = propertyService.getPropertyVersion(id);
+        String etag = ConditionalRequests.etag(id, ConditionalRequests.versionOf(version));
+        if (request.checkNotModified(etag, ConditionalRequests.lastModified(version))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        PropertyDTO property = propertyViewService.withViewCount(propertyService.getPropertyById(id));
+        // Only full responses are views, revalidations of a cached copy are not
+        propertyViewService.recordView(id);
         return ResponseEntity.ok(property);
     }
 
+    @GetMapping("/public/{id}/similar")
+    public ResponseEntity<List<PropertyCardDTO>> getSimilarProperties(@PathVariable Long id,
+                                                                      @RequestParam(defaultValue = "6") int limit) {
+        List<PropertyCardDTO> properties = propertyService.getSimilarProperties(id, limit);
+        return ResponseEntity.ok(properties);
+    }
+
     @PostMapping("/public/search")
-    public ResponseEntity<List<PropertyDTO>> searchProperties(@RequestBody PropertySearchCriteriaDTO criteria) {
-        List<PropertyDTO> properties = propertyService.searchProperties(criteria);
+    public ResponseEntity<?> searchProperties(@RequestBody PropertySearchCriteriaDTO criteria,
+                                              @RequestParam(required = false) String fields,
+                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        if (fields != null) {
+            return ResponseEntity.ok(propertyService.searchPropertyFields(criteria, fields));
+        }
+        return catalogSnapshotService.searchProperties(criteria)
+                .<ResponseEntity<?>>map(snapshot -> snapshotResponse(snapshot, acceptsGzip(acceptEncoding)))
+                .orElseGet(() -> ResponseEntity.ok(propertyService.searchProperties(criteria)));
+    }
+
+    // Writes the prebuilt bytes as they are, gzipped when the client accepts it
+    private static ResponseEntity<byte[]> snapshotResponse(CatalogSnapshotService.Snapshot snapshot, boolean gzipped) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(snapshot.etag(gzipped))
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzipped) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(snapshot.body(gzipped));
+    }
+
+    // An explicit gzip coding wins over "*", and q=0 refuses the coding
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            boolean accepted = true;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    accepted = !parameter.substring(2).trim().matches("0(\\.0{0,3})?");
+                }
+            }
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return accepted;
+            }
+            if (parts[0].trim().equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    @PostMapping("/public/search/nearby")
+    public ResponseEntity<List<PropertyCardDTO>> searchNearby(
+            @RequestBody(required = false) PropertySearchCriteriaDTO criteria,
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam double radiusKm,
+            @RequestParam(defaultValue = "100") int limit) {
+        List<PropertyCardDTO> properties = propertyService.searchNearby(criteria, lat, lon, radiusKm, limit);
+        return ResponseEntity.ok(properties);
+    }
+
+    @PostMapping("/public/search/bbox")
+    public ResponseEntity<List<PropertyCardDTO>> searchWithinBounds(
+            @RequestBody(required = false) PropertySearchCriteriaDTO criteria,
+            @RequestParam double minLat,
+            @RequestParam double minLon,
+            @RequestParam double maxLat,
+            @RequestParam double maxLon,
+            @RequestParam(defaultValue = "100") int limit) {
+        List<PropertyCardDTO> properties = propertyService.searchWithinBounds(
+                criteria, new GeoBoundingBox(minLat, minLon, maxLat, maxLon), limit);
         return ResponseEntity.ok(properties);
     }
 
+    @PostMapping("/public/search/page")
+    public ResponseEntity<CursorPageDTO<PropertyCardDTO>> searchPropertiesPage(
+            @RequestBody PropertySearchCriteriaDTO criteria,
+            @RequestParam(defaultValue = "publicationDate") String sort,
+            @RequestParam(defaultValue = "DESC") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean facets) {
+        return ResponseEntity.ok(searchPage(criteria, sort, direction, cursor, size, facets));
+    }
+
+    // Cacheable variant of the paged search, the criteria are taken from the query string
+    @GetMapping("/public/search/page")
+    public ResponseEntity<CursorPageDTO<PropertyCardDTO>> searchPropertiesPage(
+            @ModelAttribute PropertySearchCriteriaDTO criteria,
+            @RequestParam(defaultValue = "publicationDate") String sort,
+            @RequestParam(defaultValue = "DESC") String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean facets,
+            WebRequest request) {
+        // Any committed property write moves the catalog version, so pages stay valid until then
+        String etag = ConditionalRequests.hashedEtag(
+                catalogVersion.getInstanceId(), catalogVersion.getEpoch(),
+                criteria, sort, direction, cursor, size, facets);
+        if (request.checkNotModified(etag, catalogVersion.getLastModified().toEpochMilli())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok(searchPage(criteria, sort, direction, cursor, size, facets));
+    }
+
+    private CursorPageDTO<PropertyCardDTO> searchPage(PropertySearchCriteriaDTO criteria, String sort, String direction,
+                                                  String cursor, int size, boolean facets) {
+        return propertyService.searchPropertiesPage(
+                criteria,
+                PropertySortField.fromParam(sort),
+                Sort.Direction.fromString(direction),
+                cursor,
+                size,
+                facets);
+    }
+
+    @GetMapping("/public/locations/suggest")
+    public ResponseEntity<List<LocationSuggestionDTO>> suggestLocations(@RequestParam String q,
+                                                                        @RequestParam(defaultValue = "10") int limit) {
+        List<LocationSuggestionDTO> suggestions = propertyService.suggestLocations(q, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
+    @GetMapping("/public/trending")
+    public ResponseEntity<List<PropertyCardDTO>> getTrending(@RequestParam(defaultValue = "10") int limit) {
+        List<PropertyCardDTO> properties = trendingService.getTrending(limit);
+        return ResponseEntity.ok(properties);
+    }
+
+    @GetMapping("/public/most-favorited")
+    public ResponseEntity<List<PropertyCardDTO>> getMostFavorited(@RequestParam(defaultValue = "10") int limit) {
+        List<PropertyCardDTO> properties = trendingService.getMostFavorited(limit);
+        return ResponseEntity.ok(properties);
+    }
+
+    @PostMapping("/public/search/facets")
+    public ResponseEntity<PropertyFacetsDTO> getSearchFacets(@RequestBody PropertySearchCriteriaDTO criteria) {
+        PropertyFacetsDTO facets = propertyService.getSearchFacets(criteria);
+        return ResponseEntity.ok(facets);
+    }
+
     // Admin only endpoints
     @PostMapping
     public ResponseEntity<PropertyDTO> createProperty(@Valid @RequestBody PropertyDTO propertyDTO) {
@@ -45,6 +290,38 @@ public class PropertyController {
         return new ResponseEntity<>(createdProperty, HttpStatus.CREATED);
     }
 
+    // Bulk import, see PropertyImportService for the accepted formats
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<ImportReportDTO> importCsv(InputStream body) throws IOException {
+        ImportReportDTO report = propertyImportService.importCsv(body);
+        return ResponseEntity.ok(report);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ImportReportDTO> importJsonLines(InputStream body) throws IOException {
+        ImportReportDTO report = propertyImportService.importJsonLines(body);
+        return ResponseEntity.ok(report);
+    }
+
+    // Maps the locations of older listings to the location dimension, safe to repeat
+    @PostMapping("/locations/backfill")
+    public ResponseEntity<LocationBackfillReportDTO> backfillLocations() {
+        LocationBackfillReportDTO report = locationBackfillService.backfill();
+        return ResponseEntity.ok(report);
+    }
+
+    @PostMapping("/bulk/status")
+    public ResponseEntity<BulkOperationResultDTO> bulkUpdateStatus(@RequestBody BulkPropertyRequestDTO request) {
+        BulkOperationResultDTO result = propertyBulkService.updateStatus(request);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkOperationResultDTO> bulkDelete(@RequestBody BulkPropertyRequestDTO request) {
+        BulkOperationResultDTO result = propertyBulkService.delete(request);
+        return ResponseEntity.ok(result);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<PropertyDTO> updateProperty(
             @PathVariable Long id,
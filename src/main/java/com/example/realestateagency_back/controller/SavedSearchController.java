@@ -0,0 +1,54 @@
+package com.example.realestateagency_back.controller;
+
+import com.example.realestateagency_back.dto.SavedSearchDTO;
+import com.example.realestateagency_back.dto.SearchNotificationDTO;
+import com.example.realestateagency_back.service.SavedSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/saved-searches")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:4200")
+public class SavedSearchController {
+
+    private final SavedSearchService savedSearchService;
+
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<List<SavedSearchDTO>> getSavedSearchesByUserId(@PathVariable Long userId) {
+        List<SavedSearchDTO> savedSearches = savedSearchService.getSavedSearchesByUserId(userId);
+        return ResponseEntity.ok(savedSearches);
+    }
+
+    @PostMapping("/user/{userId}")
+    public ResponseEntity<SavedSearchDTO> createSavedSearch(
+            @PathVariable Long userId,
+            @RequestBody SavedSearchDTO savedSearchDTO) {
+        SavedSearchDTO savedSearch = savedSearchService.createSavedSearch(userId, savedSearchDTO);
+        return new ResponseEntity<>(savedSearch, HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deleteSavedSearch(@PathVariable Long id) {
+        savedSearchService.deleteSavedSearch(id);
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/user/{userId}/notifications")
+    public ResponseEntity<List<SearchNotificationDTO>> getNotifications(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "false") boolean unreadOnly) {
+        List<SearchNotificationDTO> notifications = savedSearchService.getNotifications(userId, unreadOnly);
+        return ResponseEntity.ok(notifications);
+    }
+
+    @PostMapping("/user/{userId}/notifications/read")
+    public ResponseEntity<Void> markNotificationsRead(@PathVariable Long userId) {
+        savedSearchService.markNotificationsRead(userId);
+        return ResponseEntity.noContent().build();
+    }
+}
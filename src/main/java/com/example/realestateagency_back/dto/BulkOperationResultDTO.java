@@ -0,0 +1,12 @@
+package com.example.realestateagency_back.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOperationResultDTO {
+    private int affected;
+    private int photoFiles; // Files removed from storage once the deletion committed
+}
@@ -0,0 +1,17 @@
+package com.example.realestateagency_back.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// Targets of a bulk admin operation: either explicit ids or search criteria, not both
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkPropertyRequestDTO {
+    private List<Long> ids;
+    private PropertySearchCriteriaDTO criteria;
+    private String currentStatus; // Only with criteria, restricts the targets to this status
+    private String status; // New status, bulk status change only
+}
@@ -0,0 +1,17 @@
+package com.example.realestateagency_back.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor; // Opaque, pass back as ?cursor= to get the following page
+    private PropertyFacetsDTO facets; // Only when requested
+}
@@ -0,0 +1,12 @@
+package com.example.realestateagency_back.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportErrorDTO {
+    private long row; // CSV line or JSON line number, 1-based
+    private String message;
+}
@@ -0,0 +1,18 @@
+package com.example.realestateagency_back.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReportDTO {
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private List<ImportErrorDTO> errors; // Capped, see errorsTruncated
+    private boolean errorsTruncated;
+    private long durationMillis;
+}
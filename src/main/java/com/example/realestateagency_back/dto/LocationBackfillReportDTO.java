@@ -0,0 +1,14 @@
+package com.example.realestateagency_back.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationBackfillReportDTO {
+    private int locations; // Distinct location strings examined
+    private int mappedProperties;
+    private int unmappedLocations; // Strings without any letter or digit, left without an id
+    private long durationMillis;
+}
@@ -0,0 +1,12 @@
+package com.example.realestateagency_back.dto;
+
+import lombok.*;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocationSuggestionDTO {
+    private String location;
+    private long count; // Active listings at this location
+}
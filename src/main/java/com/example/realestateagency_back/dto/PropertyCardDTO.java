@@ -0,0 +1,31 @@
+package com.example.realestateagency_back.dto;
+
+import com.example.realestateagency_back.entity.Property;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Slim listing representation for result lists, read from the listing_cards read model
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyCardDTO {
+    private Long id;
+    private String title;
+    private BigDecimal price;
+    private Double area;
+    private Integer rooms;
+    private String location;
+    private Double latitude;
+    private Double longitude;
+    private String status;
+    private Property.PropertyType type;
+    private Property.ListingType listingType;
+    private LocalDateTime publicationDate;
+    private String thumbnailUrl; // URL of the first photo
+    private String adminUsername;
+    private long favoriteCount;
+    private Double distanceKm; // Only set by radius searches
+}
@@ -9,7 +9,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class PropertyDTO {
@@ -18,6 +18,10 @@ public class PropertyDTO {
     private String title;
     private Integer rooms;
     private String location;
+    private Long locationId; // Set by the server from location
+    private Double latitude;
+    private Double longitude;
+    private Double distanceKm; // Only set by radius searches
     private BigDecimal price;
     private String description;
     private String contact;
@@ -30,4 +34,15 @@ public class PropertyDTO {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private List<PhotoDTO> photos; // For simplified photo representation
+    private Long viewCount; // Only set by the detail endpoint, as of the last counter flush
+
+    // Target of the constructor expressions of PropertyRepository, photos are attached afterwards
+    public PropertyDTO(Long id, Double area, String title, Integer rooms, String location, Long locationId,
+                       Double latitude, Double longitude, BigDecimal price, String description, String contact,
+                       String status, Property.PropertyType type, Property.ListingType listingType,
+                       Long adminId, String adminUsername, LocalDateTime publicationDate,
+                       LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, area, title, rooms, location, locationId, latitude, longitude, null, price, description, contact,
+                status, type, listingType, adminId, adminUsername, publicationDate, createdAt, updatedAt, null, null);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.example.realestateagency_back.dto;
+
+import com.example.realestateagency_back.entity.Property;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PropertyFacetsDTO {
+    private long total;
+    private Map<Property.PropertyType, Long> types;
+    private Map<Property.ListingType, Long> listingTypes;
+    private Map<String, Long> rooms; // "1" .. "5" and "6+"
+    private List<RangeFacetDTO> priceRanges;
+    private List<RangeFacetDTO> areaRanges;
+}
@@ -4,14 +4,18 @@ import com.example.realestateagency_back.entity.Property;
 import lombok.*;
 
 import java.math.BigDecimal;
+import java.util.Set;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class PropertySearchCriteriaDTO {
     private String title;
     private String location;
+    private String city; // Exact city of the location dimension, case-insensitive
+    private Set<Long> locationIds;
+    private String keywords; // Matched against title, location and description
     private BigDecimal minPrice;
     private BigDecimal maxPrice;
     private Double minArea;
@@ -20,4 +24,8 @@ public class PropertySearchCriteriaDTO {
     private Integer minRooms;
     private Property.PropertyType type;
     private Property.ListingType listingType;
+    // Multi-value filters, a row matches any of the values; combined with AND with the fields above
+    private Set<Property.PropertyType> types;
+    private Set<Property.ListingType> listingTypes;
+    private Set<Integer> roomCounts;
 }
\ No newline at end of file
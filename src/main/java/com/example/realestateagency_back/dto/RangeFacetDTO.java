@@ -0,0 +1,15 @@
+package com.example.realestateagency_back.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RangeFacetDTO {
+    private BigDecimal from; // Inclusive
+    private BigDecimal to; // Exclusive, null for the open-ended last bucket
+    private long count;
+}
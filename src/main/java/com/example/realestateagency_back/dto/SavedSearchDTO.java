@@ -0,0 +1,17 @@
+package com.example.realestateagency_back.dto;
+
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedSearchDTO {
+    private Long id;
+    private Long userId;
+    private String name;
+    private PropertySearchCriteriaDTO criteria;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,22 @@
+package com.example.realestateagency_back.dto;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchNotificationDTO {
+    private Long id;
+    private Long savedSearchId;
+    private String savedSearchName;
+    private Long propertyId;
+    private String propertyTitle;
+    private BigDecimal propertyPrice;
+    private String propertyLocation;
+    private LocalDateTime createdAt;
+    private LocalDateTime readAt;
+}
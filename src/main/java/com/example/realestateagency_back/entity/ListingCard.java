@@ -0,0 +1,53 @@
+package com.example.realestateagency_back.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Read model behind the result cards, written only by ListingCardService
+@Entity
+@Immutable
+@Table(name = "listing_cards")
+@Getter
+@NoArgsConstructor
+public class ListingCard {
+    @Id
+    @Column(name = "property_id")
+    private Long id;
+    private String title;
+    private BigDecimal price;
+    private Double area;
+    private Integer rooms;
+    private String location;
+
+    @Column(name = "location_id")
+    private Long locationId;
+
+    private Double latitude;
+    private Double longitude;
+    private String status;
+
+    @Enumerated(EnumType.STRING)
+    private Property.PropertyType type;
+
+    @Enumerated(EnumType.STRING)
+    private Property.ListingType listingType;
+
+    @Column(name = "publication_date")
+    private LocalDateTime publicationDate;
+
+    @Column(name = "thumbnail_url")
+    private String thumbnailUrl;
+
+    @Column(name = "admin_username")
+    private String adminUsername;
+
+    @Column(name = "favorite_count")
+    private long favoriteCount;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,28 @@
+package com.example.realestateagency_back.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "locations")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Location {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Canonical spelling, the first one seen for this normalized name
+    @Column(nullable = false)
+    private String name;
+
+    @Column(name = "normalized_name", nullable = false, unique = true)
+    private String normalizedName;
+
+    private String city;
+
+    private String district;
+}
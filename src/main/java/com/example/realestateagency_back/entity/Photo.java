@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 @Builder
 public class Photo {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "photos_seq")
+    @SequenceGenerator(name = "photos_seq", sequenceName = "photos_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "url")
@@ -17,11 +17,19 @@ import java.util.List;
 @Builder
 public class Property {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "properties_seq")
+    @SequenceGenerator(name = "properties_seq", sequenceName = "properties_seq", allocationSize = 50)
     private Long id;
     private Double area;
     private Integer rooms;
     private String location;
+
+    // Interned through LocationService, null until the location has been mapped
+    @Column(name = "location_id")
+    private Long locationId;
+
+    private Double latitude;
+    private Double longitude;
     private BigDecimal price;
     private String title;
 
@@ -39,7 +47,7 @@ public class Property {
     @Enumerated(EnumType.STRING)
     private ListingType listingType;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "admin_id")
     private Admin admin;
 
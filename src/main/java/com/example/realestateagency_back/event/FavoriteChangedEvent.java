@@ -0,0 +1,32 @@
+package com.example.realestateagency_back.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a favorite is added or removed. Removals carry the date the favorite was
+ * added, so time-decayed rankings can withdraw exactly what the addition contributed.
+ */
+@Getter
+@AllArgsConstructor
+public class FavoriteChangedEvent {
+
+    public enum ChangeType {
+        ADDED,
+        REMOVED
+    }
+
+    private final Long propertyId;
+    private final ChangeType changeType;
+    private final LocalDateTime dateAdded;
+
+    public static FavoriteChangedEvent added(Long propertyId, LocalDateTime dateAdded) {
+        return new FavoriteChangedEvent(propertyId, ChangeType.ADDED, dateAdded);
+    }
+
+    public static FavoriteChangedEvent removed(Long propertyId, LocalDateTime dateAdded) {
+        return new FavoriteChangedEvent(propertyId, ChangeType.REMOVED, dateAdded);
+    }
+}
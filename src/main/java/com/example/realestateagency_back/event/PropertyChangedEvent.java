@@ -0,0 +1,36 @@
+package com.example.realestateagency_back.event;
+
+import com.example.realestateagency_back.entity.Property;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Published by the write paths of the catalog. In-memory structures listen for it after the
+ * surrounding transaction commits, so they never observe changes that were rolled back.
+ */
+@Getter
+@AllArgsConstructor
+public class PropertyChangedEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Long propertyId;
+    private final ChangeType changeType;
+    private final Property property; // State after the change, null when deleted
+
+    public static PropertyChangedEvent created(Property property) {
+        return new PropertyChangedEvent(property.getId(), ChangeType.CREATED, property);
+    }
+
+    public static PropertyChangedEvent updated(Property property) {
+        return new PropertyChangedEvent(property.getId(), ChangeType.UPDATED, property);
+    }
+
+    public static PropertyChangedEvent deleted(Long propertyId) {
+        return new PropertyChangedEvent(propertyId, ChangeType.DELETED, null);
+    }
+}
@@ -1,9 +1,15 @@
 package com.example.realestateagency_back.repository;
 
+import com.example.realestateagency_back.dto.FavoriteDTO;
 import com.example.realestateagency_back.entity.Favorite;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,4 +23,37 @@ public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
 
     boolean existsByUserIdAndPropertyId(Long userId, Long propertyId);
 
+    // DTO projections for the list endpoints, only the columns of FavoriteDTO are read
+    String DTO_SELECT = "SELECT new com.example.realestateagency_back.dto.FavoriteDTO(" +
+            "f.id, u.id, u.username, p.id, p.location, f.dateAdded, f.createdAt) " +
+            "FROM Favorite f LEFT JOIN f.user u LEFT JOIN f.property p ";
+
+    // Listings whose favorite count changes when the user goes away
+    @Query("SELECT DISTINCT f.property.id FROM Favorite f WHERE f.user.id = :userId")
+    List<Long> findPropertyIdsByUserId(@Param("userId") Long userId);
+
+    // Rows (propertyId, dateAdded) loaded into the trending ranking at startup
+    @Query("SELECT f.property.id, f.dateAdded FROM Favorite f WHERE f.dateAdded >= :since")
+    List<Object[]> findAdditionsSince(@Param("since") LocalDateTime since);
+
+    // Rows (propertyId, dateAdded) withdrawn from the rankings when the user goes away
+    @Query("SELECT f.property.id, f.dateAdded FROM Favorite f WHERE f.user.id = :userId")
+    List<Object[]> findAdditionsByUserId(@Param("userId") Long userId);
+
+    // Rows (propertyId, count) loaded into the most favorited ranking at startup
+    @Query("SELECT f.property.id, COUNT(f) FROM Favorite f GROUP BY f.property.id")
+    List<Object[]> countByProperty();
+
+    @Query(DTO_SELECT + "ORDER BY f.id")
+    List<FavoriteDTO> findAllDTOs();
+
+    @Query(DTO_SELECT + "WHERE u.id = :userId ORDER BY f.id")
+    List<FavoriteDTO> findDTOsByUserId(@Param("userId") Long userId);
+
+    @Query(DTO_SELECT + "WHERE p.id = :propertyId ORDER BY f.id")
+    List<FavoriteDTO> findDTOsByPropertyId(@Param("propertyId") Long propertyId);
+
+    @Modifying
+    @Query("DELETE FROM Favorite f WHERE f.property.id IN :propertyIds")
+    int bulkDeleteByPropertyIdIn(@Param("propertyIds") Collection<Long> propertyIds);
 }
\ No newline at end of file
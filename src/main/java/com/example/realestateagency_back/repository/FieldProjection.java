@@ -0,0 +1,96 @@
+package com.example.realestateagency_back.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sparse fieldsets: list endpoints taking {@code fields=} select only the requested columns as
+ * a tuple query and return each row as a map of those fields, so neither the database nor the
+ * JSON carries the rest. Columns come as field -> attribute path such as {@code user.username};
+ * the association is left-joined only when one of its non-id attributes is requested.
+ */
+@Repository
+public class FieldProjection {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Rows of the entity whose paths equal the given values (null values are ignored), one map of the columns per row
+    public <E> List<Map<String, Object>> find(Class<E> entityType, Map<String, String> columns,
+                                              Map<String, Object> equal, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<E> root = query.from(entityType);
+        Map<String, Join<?, ?>> joins = new HashMap<>();
+
+        List<Predicate> predicates = new ArrayList<>();
+        equal.forEach((path, value) -> {
+            if (value != null) {
+                predicates.add(cb.equal(path(root, path, joins), value));
+            }
+        });
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            Path<?> path = path(root, order.getProperty(), joins);
+            orders.add(order.isAscending() ? cb.asc(path) : cb.desc(path));
+        }
+        query.multiselect(selections(root, columns, joins))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(orders);
+        return toMaps(entityManager.createQuery(query).getResultList(), columns.keySet());
+    }
+
+    // Only the given columns, each aliased by its field name
+    static List<Selection<?>> selections(From<?, ?> root, Map<String, String> columns, Map<String, Join<?, ?>> joins) {
+        List<Selection<?>> selections = new ArrayList<>(columns.size());
+        columns.forEach((field, path) -> selections.add(path(root, path, joins).alias(field)));
+        return selections;
+    }
+
+    // Keeps the requested order of the fields, and the nulls among them
+    static List<Map<String, Object>> toMaps(List<Tuple> tuples, Collection<String> fields) {
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (String field : fields) {
+                row.put(field, tuple.get(field));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // "a" or "association.attribute"; the foreign key is read without a join
+    private static Path<?> path(From<?, ?> root, String path, Map<String, Join<?, ?>> joins) {
+        int dot = path.indexOf('.');
+        if (dot < 0) {
+            return root.get(path);
+        }
+        String association = path.substring(0, dot);
+        String attribute = path.substring(dot + 1);
+        if ("id".equals(attribute)) {
+            return root.get(association).get(attribute);
+        }
+        return joins.computeIfAbsent(association, name -> root.join(name, JoinType.LEFT)).get(attribute);
+    }
+}
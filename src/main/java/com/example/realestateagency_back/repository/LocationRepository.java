@@ -0,0 +1,31 @@
+package com.example.realestateagency_back.repository;
+
+import com.example.realestateagency_back.entity.Location;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LocationRepository extends JpaRepository<Location, Long> {
+
+    // Id of the location, inserted unless present; the no-op update makes RETURNING see existing rows
+    @Query(value = "INSERT INTO locations (name, normalized_name, city, district) " +
+            "VALUES (:name, :normalizedName, :city, :district) " +
+            "ON CONFLICT (normalized_name) DO UPDATE SET normalized_name = EXCLUDED.normalized_name " +
+            "RETURNING id",
+            nativeQuery = true)
+    Long upsert(@Param("name") String name,
+                @Param("normalizedName") String normalizedName,
+                @Param("city") String city,
+                @Param("district") String district);
+
+    // Served by the trigram index, the fragment is already normalized so it holds no wildcards
+    @Query("SELECT l.id FROM Location l WHERE l.normalizedName LIKE CONCAT('%', :fragment, '%')")
+    List<Long> findIdsByNormalizedNameContaining(@Param("fragment") String fragment);
+
+    @Query("SELECT l.id FROM Location l WHERE LOWER(l.city) = LOWER(:city)")
+    List<Long> findIdsByCity(@Param("city") String city);
+}
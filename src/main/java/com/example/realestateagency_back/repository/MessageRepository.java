@@ -1,9 +1,14 @@
 package com.example.realestateagency_back.repository;
 
+import com.example.realestateagency_back.dto.MessageDTO;
 import com.example.realestateagency_back.entity.Message;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -17,4 +22,25 @@ public interface MessageRepository extends JpaRepository<Message, Long> {
     List<Message> findByPropertyIdOrderBySentDateDesc(Long propertyId);
 
     void deleteByUserIdAndPropertyId(Long userId, Long propertyId);
+
+    // DTO projections for the list endpoints, only the columns of MessageDTO are read
+    String DTO_SELECT = "SELECT new com.example.realestateagency_back.dto.MessageDTO(" +
+            "m.id, m.content, u.id, u.username, p.id, p.location, m.sentDate, m.createdAt) " +
+            "FROM Message m LEFT JOIN m.user u LEFT JOIN m.property p ";
+
+    @Query(DTO_SELECT + "ORDER BY m.id")
+    List<MessageDTO> findAllDTOs();
+
+    @Query(DTO_SELECT + "WHERE u.id = :userId ORDER BY m.id")
+    List<MessageDTO> findDTOsByUserId(@Param("userId") Long userId);
+
+    @Query(DTO_SELECT + "WHERE p.id = :propertyId ORDER BY m.sentDate DESC")
+    List<MessageDTO> findDTOsByPropertyIdOrderBySentDateDesc(@Param("propertyId") Long propertyId);
+
+    @Query(DTO_SELECT + "WHERE u.id = :userId AND p.id = :propertyId ORDER BY m.id")
+    List<MessageDTO> findDTOsByUserIdAndPropertyId(@Param("userId") Long userId, @Param("propertyId") Long propertyId);
+
+    @Modifying
+    @Query("DELETE FROM Message m WHERE m.property.id IN :propertyIds")
+    int bulkDeleteByPropertyIdIn(@Param("propertyIds") Collection<Long> propertyIds);
 }
\ No newline at end of file
@@ -1,10 +1,17 @@
 package com.example.realestateagency_back.repository;
 
+import com.example.realestateagency_back.dto.PhotoDTO;
 import com.example.realestateagency_back.entity.Photo;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface PhotoRepository extends JpaRepository<Photo, Long> {
@@ -12,5 +19,21 @@ public interface PhotoRepository extends JpaRepository<Photo, Long> {
 
     List<Photo> findByPropertyIdOrderByOrderAsc(Long propertyId);
 
+    // Photos of a whole result page in one query, projected so the owning properties are not re-loaded
+    @Query("SELECT new com.example.realestateagency_back.dto.PhotoDTO(ph.id, ph.url, ph.order, ph.property.id, ph.createdAt) " +
+            "FROM Photo ph WHERE ph.property.id IN :propertyIds ORDER BY ph.property.id, ph.order")
+    List<PhotoDTO> findDTOsByPropertyIdIn(@Param("propertyIds") Collection<Long> propertyIds);
+
+    // Photo changes bump the owning property's updatedAt, which therefore versions the photo too
+    @Query("SELECT ph.property.updatedAt FROM Photo ph WHERE ph.id = :id")
+    Optional<LocalDateTime> findPropertyUpdatedAtById(@Param("id") Long id);
+
     void deleteByPropertyId(Long propertyId);
+
+    @Query("SELECT ph.url FROM Photo ph WHERE ph.property.id IN :propertyIds")
+    List<String> findUrlsByPropertyIdIn(@Param("propertyIds") Collection<Long> propertyIds);
+
+    @Modifying
+    @Query("DELETE FROM Photo ph WHERE ph.property.id IN :propertyIds")
+    int bulkDeleteByPropertyIdIn(@Param("propertyIds") Collection<Long> propertyIds);
 }
\ No newline at end of file
@@ -0,0 +1,165 @@
+package com.example.realestateagency_back.repository;
+
+import com.example.realestateagency_back.dto.PropertySearchCriteriaDTO;
+import com.example.realestateagency_back.search.GeoBoundingBox;
+import com.example.realestateagency_back.search.PropertyQuery;
+import com.example.realestateagency_back.search.PropertyTextIndex;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Criteria API counterpart of the {@code findByCriteria} JPQL, shared by the dynamic queries
+ * of {@link PropertyRepositoryImpl}. Only the filters that are actually set end up in the SQL.
+ */
+final class PropertyPredicates {
+
+    private PropertyPredicates() {
+    }
+
+    static List<Predicate> build(HibernateCriteriaBuilder cb, Root<?> root, PropertyQuery query) {
+        PropertySearchCriteriaDTO criteria = query.getCriteria();
+        boolean ignoreCase = query.isCaseInsensitiveText();
+        boolean tokens = query.isTokenPrefixText();
+        String status = query.getStatus();
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (query.getIds() != null) {
+            predicates.add(root.get("id").in(query.getIds()));
+        }
+        if (criteria.getTitle() != null) {
+            predicates.add(tokens
+                    ? tokenPrefixes(cb, root, criteria.getTitle(), "title")
+                    : contains(cb, root.get("title"), criteria.getTitle(), ignoreCase));
+        }
+        if (query.getLocationIds() != null) {
+            Predicate resolved = query.getLocationIds().isEmpty()
+                    ? cb.disjunction()
+                    : root.get("locationId").in(query.getLocationIds());
+            Predicate unmapped = query.isUnmappedLocationFallback() ? unmappedLocation(cb, root, criteria, ignoreCase, tokens) : null;
+            predicates.add(unmapped == null ? resolved : cb.or(resolved, unmapped));
+        }
+        // Token matching keeps the location text on the rows, the ids then only carry city and explicit ids
+        if (criteria.getLocation() != null && (tokens || query.getLocationIds() == null)) {
+            predicates.add(tokens
+                    ? tokenPrefixes(cb, root, criteria.getLocation(), "location")
+                    : contains(cb, root.get("location"), criteria.getLocation(), ignoreCase));
+        }
+        if (criteria.getKeywords() != null) {
+            predicates.add(tokens
+                    ? tokenPrefixes(cb, root, criteria.getKeywords(), "title", "location", "description")
+                    : cb.or(
+                            contains(cb, root.get("title"), criteria.getKeywords(), ignoreCase),
+                            contains(cb, root.get("location"), criteria.getKeywords(), ignoreCase),
+                            contains(cb, root.get("description"), criteria.getKeywords(), ignoreCase)));
+        }
+        if (criteria.getMinPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("price"), criteria.getMinPrice()));
+        }
+        if (criteria.getMaxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("price"), criteria.getMaxPrice()));
+        }
+        if (criteria.getMinArea() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("area"), criteria.getMinArea()));
+        }
+        if (criteria.getMaxArea() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("area"), criteria.getMaxArea()));
+        }
+        if (criteria.getMinRooms() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("rooms"), criteria.getMinRooms()));
+        }
+        if (criteria.getMaxRooms() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("rooms"), criteria.getMaxRooms()));
+        }
+        if (criteria.getType() != null) {
+            predicates.add(cb.equal(root.get("type"), criteria.getType()));
+        }
+        if (criteria.getListingType() != null) {
+            predicates.add(cb.equal(root.get("listingType"), criteria.getListingType()));
+        }
+        if (isSet(criteria.getTypes())) {
+            predicates.add(root.get("type").in(criteria.getTypes()));
+        }
+        if (isSet(criteria.getListingTypes())) {
+            predicates.add(root.get("listingType").in(criteria.getListingTypes()));
+        }
+        if (isSet(criteria.getRoomCounts())) {
+            predicates.add(root.get("rooms").in(criteria.getRoomCounts()));
+        }
+        if (query.getBoundingBox() != null) {
+            GeoBoundingBox box = query.getBoundingBox();
+            predicates.add(cb.between(root.get("latitude"), box.getMinLatitude(), box.getMaxLatitude()));
+            predicates.add(cb.between(root.get("longitude"), box.getMinLongitude(), box.getMaxLongitude()));
+        }
+        if (status != null) {
+            predicates.add(cb.equal(root.get("status"), status));
+        }
+        return predicates;
+    }
+
+    /**
+     * Substring match of the location text for rows the backfill has not mapped to a location
+     * id, null when nothing but explicit location ids was requested since those rows have none.
+     */
+    private static Predicate unmappedLocation(HibernateCriteriaBuilder cb, Root<?> root,
+                                              PropertySearchCriteriaDTO criteria, boolean ignoreCase, boolean tokens) {
+        boolean hasText = !tokens && criteria.getLocation() != null && !criteria.getLocation().isBlank();
+        boolean hasCity = criteria.getCity() != null && !criteria.getCity().isBlank();
+        if (isSet(criteria.getLocationIds()) || !hasText && !hasCity) {
+            return null;
+        }
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.isNull(root.get("locationId")));
+        if (hasText) {
+            predicates.add(contains(cb, root.get("location"), criteria.getLocation(), ignoreCase));
+        }
+        if (hasCity) {
+            // Cities are resolved case-insensitively, the last part of "District, City"
+            predicates.add(contains(cb, root.get("location"), criteria.getCity().trim(), true));
+        }
+        return cb.and(predicates.toArray(new Predicate[0]));
+    }
+
+    // An empty value set does not restrict, like an unset field
+    private static boolean isSet(Collection<?> values) {
+        return values != null && !values.isEmpty();
+    }
+
+    /**
+     * Database form of the {@link PropertyTextIndex} match: every token of the value starts a
+     * word of one of the columns, ignoring case and accents. Each column is folded to its words
+     * behind a leading space, so a token prefixes a word when " token" occurs in it. The folding
+     * is the search_words() function of V11, whose trigram expression indexes serve the LIKE.
+     */
+    private static Predicate tokenPrefixes(HibernateCriteriaBuilder cb, Root<?> root, String value, String... attributes) {
+        List<Predicate> predicates = new ArrayList<>();
+        // Tokens hold only letters and digits, nothing to escape in the pattern
+        for (String token : new LinkedHashSet<>(PropertyTextIndex.tokenize(value))) {
+            List<Predicate> anyColumn = new ArrayList<>();
+            for (String attribute : attributes) {
+                anyColumn.add(cb.like(words(cb, root.get(attribute)), "% " + token + "%"));
+            }
+            predicates.add(cb.or(anyColumn.toArray(new Predicate[0])));
+        }
+        // No searchable token does not restrict, like a null result of the index
+        return cb.and(predicates.toArray(new Predicate[0]));
+    }
+
+    // Must stay the exact indexed expression, any other form of it falls back to a scan
+    private static Expression<String> words(HibernateCriteriaBuilder cb, Expression<String> column) {
+        return cb.function("search_words", String.class, column);
+    }
+
+    // ILIKE on PostgreSQL, which the pg_trgm GIN indexes can serve just like LIKE
+    private static Predicate contains(HibernateCriteriaBuilder cb, Expression<String> column, String value, boolean ignoreCase) {
+        String escaped = value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        String pattern = "%" + escaped + "%";
+        return ignoreCase ? cb.ilike(column, pattern, '\\') : cb.like(column, pattern, '\\');
+    }
+}
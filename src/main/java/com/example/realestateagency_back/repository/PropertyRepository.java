@@ -1,21 +1,66 @@
 package com.example.realestateagency_back.repository;
 
+import com.example.realestateagency_back.dto.PropertyDTO;
 import com.example.realestateagency_back.entity.Property;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface PropertyRepository extends JpaRepository<Property, Long> {
+public interface PropertyRepository extends JpaRepository<Property, Long>, PropertyRepositoryCustom {
 
-    // Find by admin
-    List<Property> findByAdminId(Long adminId);
+    // DTO projections for the list views, the entities and their admin are never hydrated
+    String DTO_SELECT = "SELECT new com.example.realestateagency_back.dto.PropertyDTO(" +
+            "p.id, p.area, p.title, p.rooms, p.location, p.locationId, p.latitude, p.longitude, p.price, " +
+            "p.description, p.contact, p.status, p.type, p.listingType, a.id, a.username, " +
+            "p.publicationDate, p.createdAt, p.updatedAt) " +
+            "FROM Property p LEFT JOIN p.admin a ";
+
+    @Query(DTO_SELECT + "ORDER BY p.id")
+    List<PropertyDTO> findAllDTOs();
+
+    @Query(DTO_SELECT + "WHERE p.admin.id = :adminId ORDER BY p.id")
+    List<PropertyDTO> findDTOsByAdminId(@Param("adminId") Long adminId);
+
+    // Walks the whole table in id order, used to load the in-memory indexes
+    List<Property> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    // Version lookup for conditional requests, avoids loading the entity
+    @Query("SELECT p.updatedAt FROM Property p WHERE p.id = :id")
+    Optional<LocalDateTime> findUpdatedAtById(@Param("id") Long id);
+
+    // Set-based admin operations, they bypass the persistence context
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Property p SET p.status = :status, p.updatedAt = :updatedAt WHERE p.id IN :ids")
+    int bulkUpdateStatus(@Param("ids") Collection<Long> ids,
+                         @Param("status") String status,
+                         @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Property p WHERE p.id IN :ids")
+    int bulkDelete(@Param("ids") Collection<Long> ids);
+
+    // Server-side cursor over the whole table, must be consumed inside a transaction
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(DTO_SELECT + "ORDER BY p.id")
+    Stream<PropertyDTO> streamAllDTOs();
 
     // Combined search criteria
     @Query("SELECT p FROM Property p WHERE " +
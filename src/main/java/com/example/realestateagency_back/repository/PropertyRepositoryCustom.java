@@ -0,0 +1,32 @@
+package com.example.realestateagency_back.repository;
+
+import com.example.realestateagency_back.dto.PropertyCardDTO;
+import com.example.realestateagency_back.dto.PropertyFacetsDTO;
+import com.example.realestateagency_back.dto.PropertyDTO;
+import com.example.realestateagency_back.search.KeysetPageRequest;
+import com.example.realestateagency_back.search.PropertyQuery;
+
+import java.util.List;
+import java.util.Map;
+
+public interface PropertyRepositoryCustom {
+
+    // Unpaged search, projected to DTOs without photos
+    List<PropertyDTO> searchDTOsByCriteria(PropertyQuery query);
+
+    // Sparse variant of searchDTOsByCriteria: only the given columns (field -> attribute path), one map per row
+    List<Map<String, Object>> searchFieldsByCriteria(PropertyQuery query, Map<String, String> columns);
+
+    // Facet counts of all rows matching the query, computed in a single aggregate pass
+    PropertyFacetsDTO countFacets(PropertyQuery query);
+
+    // Ids of the rows matching the query in id order, at most limit of them
+    List<Long> findIdsByCriteria(PropertyQuery query, int limit);
+
+    // Keyset (seek) pagination: returns at most pageRequest.size rows strictly after the cursor,
+    // read as cards from the listing_cards read model
+    List<PropertyCardDTO> findPageByCriteria(PropertyQuery query, KeysetPageRequest pageRequest);
+
+    // Cards of the given properties in the order of the ids, missing ones are skipped
+    List<PropertyCardDTO> findCardsByIds(List<Long> ids);
+}
@@ -0,0 +1,433 @@
+package com.example.realestateagency_back.repository;
+
+import com.example.realestateagency_back.dto.PropertyCardDTO;
+import com.example.realestateagency_back.dto.PropertyDTO;
+import com.example.realestateagency_back.dto.PropertyFacetsDTO;
+import com.example.realestateagency_back.dto.PropertySearchCriteriaDTO;
+import com.example.realestateagency_back.dto.RangeFacetDTO;
+import com.example.realestateagency_back.entity.Admin;
+import com.example.realestateagency_back.entity.ListingCard;
+import com.example.realestateagency_back.entity.Property;
+import com.example.realestateagency_back.search.KeysetPageRequest;
+import com.example.realestateagency_back.search.PropertyFacets;
+import com.example.realestateagency_back.search.PropertyQuery;
+import com.example.realestateagency_back.search.SearchCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+public class PropertyRepositoryImpl implements PropertyRepositoryCustom {
+
+    // Keeps IN lists well below the bind parameter limit of the driver
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<PropertyDTO> searchDTOsByCriteria(PropertyQuery query) {
+        if (query.getIds() == null) {
+            return searchChunk(query);
+        }
+        List<Long> ids = new ArrayList<>(query.getIds());
+        List<PropertyDTO> results = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            Collection<Long> chunk = ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()));
+            results.addAll(searchChunk(query.toBuilder().ids(chunk).build()));
+        }
+        return results;
+    }
+
+    private List<PropertyDTO> searchChunk(PropertyQuery propertyQuery) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<PropertyDTO> query = cb.createQuery(PropertyDTO.class);
+        Root<Property> root = query.from(Property.class);
+        query.select(dtoSelection(cb, root))
+                .where(PropertyPredicates.build(cb, root, propertyQuery).toArray(new Predicate[0]));
+
+        Expression<Double> similarity = propertyQuery.isRankBySimilarity()
+                ? similarity(cb, root, propertyQuery.getCriteria())
+                : null;
+        if (similarity != null) {
+            query.orderBy(cb.desc(similarity), cb.asc(root.get("id")));
+        }
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<Map<String, Object>> searchFieldsByCriteria(PropertyQuery query, Map<String, String> columns) {
+        if (query.getIds() == null) {
+            return searchFieldsChunk(query, columns);
+        }
+        List<Long> ids = new ArrayList<>(query.getIds());
+        List<Map<String, Object>> results = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            Collection<Long> chunk = ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()));
+            results.addAll(searchFieldsChunk(query.toBuilder().ids(chunk).build(), columns));
+        }
+        return results;
+    }
+
+    private List<Map<String, Object>> searchFieldsChunk(PropertyQuery propertyQuery, Map<String, String> columns) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Property> root = query.from(Property.class);
+        query.multiselect(FieldProjection.selections(root, columns, new HashMap<>()))
+                .where(PropertyPredicates.build(cb, root, propertyQuery).toArray(new Predicate[0]));
+
+        Expression<Double> similarity = propertyQuery.isRankBySimilarity()
+                ? similarity(cb, root, propertyQuery.getCriteria())
+                : null;
+        query.orderBy(similarity != null
+                ? List.of(cb.desc(similarity), cb.asc(root.get("id")))
+                : List.of(cb.asc(root.get("id"))));
+        return FieldProjection.toMaps(entityManager.createQuery(query).getResultList(), columns.keySet());
+    }
+
+    @Override
+    public List<Long> findIdsByCriteria(PropertyQuery query, int limit) {
+        if (query.getIds() == null) {
+            return findIdsChunk(query, limit);
+        }
+        // Chunks are read in id order, so the first limit matches are the same as in one query
+        List<Long> ids = new ArrayList<>(query.getIds());
+        ids.sort(null);
+        List<Long> results = new ArrayList<>();
+        for (int from = 0; from < ids.size() && results.size() < limit; from += ID_CHUNK_SIZE) {
+            Collection<Long> chunk = ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()));
+            results.addAll(findIdsChunk(query.toBuilder().ids(chunk).build(), limit - results.size()));
+        }
+        return results;
+    }
+
+    private List<Long> findIdsChunk(PropertyQuery propertyQuery, int limit) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Property> root = query.from(Property.class);
+        Path<Long> idPath = root.get("id");
+        query.select(idPath)
+                .where(PropertyPredicates.build(cb, root, propertyQuery).toArray(new Predicate[0]))
+                .orderBy(cb.asc(idPath));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public PropertyFacetsDTO countFacets(PropertyQuery query) {
+        if (query.getIds() == null) {
+            return toFacets(countFacetChunk(query));
+        }
+        List<Long> ids = new ArrayList<>(query.getIds());
+        long[] counts = null;
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            Collection<Long> chunk = ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()));
+            long[] chunkCounts = countFacetChunk(query.toBuilder().ids(chunk).build());
+            if (counts == null) {
+                counts = chunkCounts;
+            } else {
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += chunkCounts[i];
+                }
+            }
+        }
+        return toFacets(counts != null ? counts : new long[facetColumnCount()]);
+    }
+
+    /**
+     * One aggregate row with a SUM(CASE WHEN bucket THEN 1 ELSE 0 END) column per facet bucket,
+     * so all facets come out of a single scan of the matching rows. Columns are laid out as
+     * total, types, listing types, rooms, price ranges, area ranges.
+     */
+    private long[] countFacetChunk(PropertyQuery propertyQuery) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Property> root = query.from(Property.class);
+
+        List<Predicate> buckets = new ArrayList<>();
+        for (Property.PropertyType type : Property.PropertyType.values()) {
+            buckets.add(cb.equal(root.get("type"), type));
+        }
+        for (Property.ListingType listingType : Property.ListingType.values()) {
+            buckets.add(cb.equal(root.get("listingType"), listingType));
+        }
+        Path<Integer> rooms = root.get("rooms");
+        for (int value = 1; value < PropertyFacets.MAX_ROOMS_BUCKET; value++) {
+            buckets.add(cb.equal(rooms, value));
+        }
+        buckets.add(cb.greaterThanOrEqualTo(rooms, PropertyFacets.MAX_ROOMS_BUCKET));
+        addRangeBuckets(cb, buckets, root.get("price"), PropertyFacets.PRICE_BOUNDARIES);
+        addRangeBuckets(cb, buckets, root.get("area"), PropertyFacets.AREA_BOUNDARIES);
+
+        List<Selection<?>> columns = new ArrayList<>();
+        columns.add(cb.count(root));
+        for (Predicate bucket : buckets) {
+            columns.add(cb.sumAsLong(cb.<Integer>selectCase().when(bucket, 1).otherwise(0)));
+        }
+        query.multiselect(columns)
+                .where(PropertyPredicates.build(cb, root, propertyQuery).toArray(new Predicate[0]));
+
+        Object[] row = entityManager.createQuery(query).getSingleResult();
+        long[] counts = new long[row.length];
+        for (int i = 0; i < row.length; i++) {
+            counts[i] = row[i] != null ? ((Number) row[i]).longValue() : 0;
+        }
+        return counts;
+    }
+
+    private static void addRangeBuckets(HibernateCriteriaBuilder cb, List<Predicate> buckets,
+                                        Path<Number> column, List<BigDecimal> boundaries) {
+        for (int i = 0; i < boundaries.size(); i++) {
+            Predicate lower = cb.ge(column, boundaries.get(i));
+            buckets.add(i + 1 < boundaries.size() ? cb.and(lower, cb.lt(column, boundaries.get(i + 1))) : lower);
+        }
+    }
+
+    private static int facetColumnCount() {
+        return 1 + Property.PropertyType.values().length + Property.ListingType.values().length
+                + PropertyFacets.MAX_ROOMS_BUCKET
+                + PropertyFacets.PRICE_BOUNDARIES.size() + PropertyFacets.AREA_BOUNDARIES.size();
+    }
+
+    private static PropertyFacetsDTO toFacets(long[] counts) {
+        int column = 1;
+        Map<Property.PropertyType, Long> types = new EnumMap<>(Property.PropertyType.class);
+        for (Property.PropertyType type : Property.PropertyType.values()) {
+            types.put(type, counts[column++]);
+        }
+        Map<Property.ListingType, Long> listingTypes = new EnumMap<>(Property.ListingType.class);
+        for (Property.ListingType listingType : Property.ListingType.values()) {
+            listingTypes.put(listingType, counts[column++]);
+        }
+        Map<String, Long> rooms = new LinkedHashMap<>();
+        for (int value = 1; value < PropertyFacets.MAX_ROOMS_BUCKET; value++) {
+            rooms.put(String.valueOf(value), counts[column++]);
+        }
+        rooms.put(PropertyFacets.MAX_ROOMS_BUCKET + "+", counts[column++]);
+        List<RangeFacetDTO> priceRanges = toRanges(counts, column, PropertyFacets.PRICE_BOUNDARIES);
+        column += PropertyFacets.PRICE_BOUNDARIES.size();
+        List<RangeFacetDTO> areaRanges = toRanges(counts, column, PropertyFacets.AREA_BOUNDARIES);
+
+        return PropertyFacetsDTO.builder()
+                .total(counts[0])
+                .types(types)
+                .listingTypes(listingTypes)
+                .rooms(rooms)
+                .priceRanges(priceRanges)
+                .areaRanges(areaRanges)
+                .build();
+    }
+
+    private static List<RangeFacetDTO> toRanges(long[] counts, int firstColumn, List<BigDecimal> boundaries) {
+        List<RangeFacetDTO> ranges = new ArrayList<>();
+        for (int i = 0; i < boundaries.size(); i++) {
+            ranges.add(RangeFacetDTO.builder()
+                    .from(boundaries.get(i))
+                    .to(i + 1 < boundaries.size() ? boundaries.get(i + 1) : null)
+                    .count(counts[firstColumn + i])
+                    .build());
+        }
+        return ranges;
+    }
+
+    /**
+     * Pages are read from the listing_cards read model, one index scan without joins. The
+     * description is not part of the cards, so keyword searches page over the properties and
+     * read the cards of the page by id.
+     */
+    @Override
+    public List<PropertyCardDTO> findPageByCriteria(PropertyQuery propertyQuery, KeysetPageRequest pageRequest) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        if (propertyQuery.getCriteria().getKeywords() == null) {
+            return findPage(cb, ListingCard.class, PropertyCardDTO.class, propertyQuery, pageRequest,
+                    root -> cardSelection(cb, root));
+        }
+
+        List<Long> ids = findPage(cb, Property.class, Long.class, propertyQuery, pageRequest, root -> root.get("id"));
+        return findCardsByIds(ids);
+    }
+
+    @Override
+    public List<PropertyCardDTO> findCardsByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<PropertyCardDTO> query = cb.createQuery(PropertyCardDTO.class);
+        Root<ListingCard> root = query.from(ListingCard.class);
+        query.select(cardSelection(cb, root)).where(root.get("id").in(ids));
+        Map<Long, PropertyCardDTO> cards = new HashMap<>();
+        for (PropertyCardDTO card : entityManager.createQuery(query).getResultList()) {
+            cards.put(card.getId(), card);
+        }
+        List<PropertyCardDTO> page = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            PropertyCardDTO card = cards.get(id);
+            if (card != null) {
+                page.add(card);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Reads a page in two phases: the rows with a sort value, then the trailing block of rows
+     * without one. Each phase is a single range of the (status, sort column, id) index, which an
+     * OR over both blocks with NULLS LAST ordering is not.
+     */
+    private <R> List<R> findPage(HibernateCriteriaBuilder cb, Class<?> from, Class<R> resultType,
+                                 PropertyQuery propertyQuery, KeysetPageRequest pageRequest,
+                                 Function<Root<?>, Selection<? extends R>> selection) {
+        SearchCursor after = pageRequest.getAfter();
+        boolean inNullBlock = after != null && after.getLastValue() == null;
+
+        List<R> page = new ArrayList<>(pageRequest.getSize());
+        if (!inNullBlock) {
+            page.addAll(findPagePhase(cb, from, resultType, propertyQuery, pageRequest, selection, false, pageRequest.getSize()));
+        }
+        int remaining = pageRequest.getSize() - page.size();
+        if (remaining > 0) {
+            page.addAll(findPagePhase(cb, from, resultType, propertyQuery, pageRequest, selection, true, remaining));
+        }
+        return page;
+    }
+
+    private <R> List<R> findPagePhase(HibernateCriteriaBuilder cb, Class<?> from, Class<R> resultType,
+                                      PropertyQuery propertyQuery, KeysetPageRequest pageRequest,
+                                      Function<Root<?>, Selection<? extends R>> selection,
+                                      boolean nullBlock, int limit) {
+        CriteriaQuery<R> query = cb.createQuery(resultType);
+        Root<?> root = query.from(from);
+
+        boolean ascending = pageRequest.getDirection().isAscending();
+        Path<Comparable<Object>> sortPath = root.get(pageRequest.getSortField().getAttribute());
+        Path<Long> idPath = root.get("id");
+
+        List<Predicate> predicates = PropertyPredicates.build(cb, root, propertyQuery);
+        predicates.add(nullBlock ? cb.isNull(sortPath) : cb.isNotNull(sortPath));
+        SearchCursor after = pageRequest.getAfter();
+        if (after != null && (after.getLastValue() != null) != nullBlock) {
+            predicates.addAll(seekPredicates(cb, sortPath, idPath, after, ascending));
+        }
+
+        query.select(selection.apply(root)).where(predicates.toArray(new Predicate[0]));
+        if (nullBlock) {
+            query.orderBy(ascending ? cb.asc(idPath) : cb.desc(idPath));
+        } else {
+            // Default null precedence, nulls are filtered out and the order matches a forward or backward index scan
+            query.orderBy(
+                    ascending ? cb.asc(sortPath) : cb.desc(sortPath),
+                    ascending ? cb.asc(idPath) : cb.desc(idPath));
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Same columns as PropertyRepository.DTO_SELECT
+    private static Selection<PropertyDTO> dtoSelection(HibernateCriteriaBuilder cb, Root<Property> root) {
+        Join<Property, Admin> admin = root.join("admin", JoinType.LEFT);
+        return cb.construct(PropertyDTO.class,
+                root.get("id"),
+                root.get("area"),
+                root.get("title"),
+                root.get("rooms"),
+                root.get("location"),
+                root.get("locationId"),
+                root.get("latitude"),
+                root.get("longitude"),
+                root.get("price"),
+                root.get("description"),
+                root.get("contact"),
+                root.get("status"),
+                root.get("type"),
+                root.get("listingType"),
+                admin.get("id"),
+                admin.get("username"),
+                root.get("publicationDate"),
+                root.get("createdAt"),
+                root.get("updatedAt"));
+    }
+
+    // Only the card columns are selected, the DTOs are never managed by the persistence context
+    private static Selection<PropertyCardDTO> cardSelection(HibernateCriteriaBuilder cb, Root<?> root) {
+        return cb.construct(PropertyCardDTO.class,
+                root.get("id"),
+                root.get("title"),
+                root.get("price"),
+                root.get("area"),
+                root.get("rooms"),
+                root.get("location"),
+                root.get("latitude"),
+                root.get("longitude"),
+                root.get("status"),
+                root.get("type"),
+                root.get("listingType"),
+                root.get("publicationDate"),
+                root.get("thumbnailUrl"),
+                root.get("adminUsername"),
+                root.get("favoriteCount"),
+                cb.nullLiteral(Double.class));
+    }
+
+    /**
+     * Seek past the cursor within its own phase: {@code (value, id) > (x, y)} among the rows with a
+     * value, or {@code id > y} inside the null block. The redundant {@code value >= x} bound gives
+     * the planner the start of the index range, the OR alone does not.
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Predicate> seekPredicates(HibernateCriteriaBuilder cb, Path<Comparable<Object>> sortPath,
+                                                  Path<Long> idPath, SearchCursor cursor, boolean ascending) {
+        Long lastId = cursor.getLastId();
+        Predicate idAfter = ascending ? cb.greaterThan(idPath, lastId) : cb.lessThan(idPath, lastId);
+        if (cursor.getLastValue() == null) {
+            return List.of(idAfter);
+        }
+
+        Comparable<Object> lastValue = (Comparable<Object>) cursor.getLastValue();
+        return List.of(
+                ascending ? cb.greaterThanOrEqualTo(sortPath, lastValue) : cb.lessThanOrEqualTo(sortPath, lastValue),
+                cb.or(
+                        ascending ? cb.greaterThan(sortPath, lastValue) : cb.lessThan(sortPath, lastValue),
+                        idAfter));
+    }
+
+    // Sum of the pg_trgm similarities of the text criteria, null when there is no text criterion
+    private Expression<Double> similarity(HibernateCriteriaBuilder cb, Root<Property> root, PropertySearchCriteriaDTO criteria) {
+        Expression<Double> score = null;
+        score = addSimilarity(cb, score, root.get("title"), criteria.getTitle());
+        score = addSimilarity(cb, score, root.get("location"), criteria.getLocation());
+        score = addSimilarity(cb, score, root.get("title"), criteria.getKeywords());
+        return score;
+    }
+
+    private Expression<Double> addSimilarity(HibernateCriteriaBuilder cb, Expression<Double> score,
+                                             Path<String> column, String text) {
+        if (text == null) {
+            return score;
+        }
+        Expression<Double> similarity = cb.coalesce(
+                cb.function("similarity", Double.class, column, cb.literal(text)), 0.0);
+        return score == null ? similarity : cb.sum(score, similarity);
+    }
+}
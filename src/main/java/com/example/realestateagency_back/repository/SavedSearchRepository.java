@@ -0,0 +1,22 @@
+package com.example.realestateagency_back.repository;
+
+import com.example.realestateagency_back.entity.SavedSearch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, Long> {
+
+    List<SavedSearch> findByUserIdOrderByIdAsc(Long userId);
+
+    @Query("SELECT s.id FROM SavedSearch s WHERE s.user.id = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+
+    // Everything the percolator needs, without loading the users
+    @Query("SELECT s.id, s.criteria FROM SavedSearch s ORDER BY s.id")
+    List<Object[]> findAllCriteria();
+}
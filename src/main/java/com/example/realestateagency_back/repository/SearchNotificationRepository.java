@@ -0,0 +1,30 @@
+package com.example.realestateagency_back.repository;
+
+import com.example.realestateagency_back.dto.SearchNotificationDTO;
+import com.example.realestateagency_back.entity.SearchNotification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SearchNotificationRepository extends JpaRepository<SearchNotification, Long> {
+
+    String DTO_SELECT = "SELECT new com.example.realestateagency_back.dto.SearchNotificationDTO(" +
+            "n.id, s.id, s.name, p.id, p.title, p.price, p.location, n.createdAt, n.readAt) " +
+            "FROM SearchNotification n JOIN n.savedSearch s JOIN n.property p ";
+
+    @Query(DTO_SELECT + "WHERE n.user.id = :userId ORDER BY n.createdAt DESC, n.id DESC")
+    List<SearchNotificationDTO> findDTOsByUserId(@Param("userId") Long userId);
+
+    @Query(DTO_SELECT + "WHERE n.user.id = :userId AND n.readAt IS NULL ORDER BY n.createdAt DESC, n.id DESC")
+    List<SearchNotificationDTO> findUnreadDTOsByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE SearchNotification n SET n.readAt = :readAt WHERE n.user.id = :userId AND n.readAt IS NULL")
+    int markAllRead(@Param("userId") Long userId, @Param("readAt") LocalDateTime readAt);
+}
@@ -0,0 +1,48 @@
+package com.example.realestateagency_back.search;
+
+import com.example.realestateagency_back.event.PropertyChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version of the catalog as a whole, bumped after every committed property write. Derived
+ * validators (ETags of search results, ...) combine it with a per-process nonce so versions
+ * handed out before a restart can never be mistaken for current ones.
+ */
+@Component
+@Slf4j
+public class CatalogVersion {
+
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong epoch = new AtomicLong();
+    private volatile Instant lastModified = Instant.now();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        long current = bump();
+        log.debug("Catalog version {} after change of property {}", current, event.getPropertyId());
+    }
+
+    // For committed changes of derived data that no property event covers
+    public long bump() {
+        lastModified = Instant.now();
+        return epoch.incrementAndGet();
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    public long getEpoch() {
+        return epoch.get();
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+}
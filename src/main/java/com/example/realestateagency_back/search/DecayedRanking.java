@@ -0,0 +1,126 @@
+package com.example.realestateagency_back.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.LongPredicate;
+
+/**
+ * Scores kept in a skip list ordered by score, so the top N are the first N entries. With a
+ * half-life, scores decay exponentially using forward decay: an event of weight w at time t
+ * adds w * 2^((t - landmark) / halfLife), which never has to be updated as time passes since
+ * every score shrinks by the same factor. The landmark is moved forward before the weights
+ * overflow, dropping the entries that have decayed to nothing. Writers are serialized, readers
+ * are lock-free.
+ */
+final class DecayedRanking {
+
+    // Rebase long before 2^exponent overflows a double
+    static final double MAX_EXPONENT = 64;
+    // Entries below this fraction of one fresh unit of weight are dropped when rebasing
+    static final double PRUNE_THRESHOLD = 1e-3;
+
+    private static final Comparator<Entry> BY_SCORE =
+            Comparator.comparingDouble((Entry entry) -> entry.score).reversed()
+                    .thenComparingLong(entry -> entry.propertyId);
+
+    private final long halfLifeMillis; // 0 for plain counters
+    private final ConcurrentSkipListSet<Entry> ranking = new ConcurrentSkipListSet<>(BY_SCORE);
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private long landmarkMillis;
+
+    DecayedRanking(long halfLifeMillis, long nowMillis) {
+        this.halfLifeMillis = halfLifeMillis;
+        this.landmarkMillis = nowMillis;
+    }
+
+    // A negative weight withdraws an earlier event of the same time, e.g. a removed favorite
+    synchronized void add(long propertyId, double weight, long atMillis) {
+        if (halfLifeMillis > 0 && exponent(atMillis) > MAX_EXPONENT) {
+            rebase(atMillis);
+        }
+        Entry previous = entries.get(propertyId);
+        double score = (previous != null ? previous.score : 0) + weight * decayWeight(atMillis);
+        if (previous != null) {
+            ranking.remove(previous);
+        }
+        if (score <= PRUNE_THRESHOLD * decayWeight(atMillis)) {
+            entries.remove(propertyId);
+            return;
+        }
+        Entry entry = new Entry(propertyId, score);
+        entries.put(propertyId, entry);
+        ranking.add(entry);
+    }
+
+    synchronized void remove(long propertyId) {
+        Entry entry = entries.remove(propertyId);
+        if (entry != null) {
+            ranking.remove(entry);
+        }
+    }
+
+    synchronized void clear() {
+        entries.clear();
+        ranking.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    // Walks the skip list from the top, O(limit) plus the skipped ineligible entries
+    List<Long> top(int limit, LongPredicate eligible) {
+        List<Long> top = new ArrayList<>(limit);
+        Set<Long> seen = new HashSet<>(); // A concurrent update can move an entry below the cursor
+        for (Entry entry : ranking) {
+            if (top.size() == limit) {
+                break;
+            }
+            if (eligible.test(entry.propertyId) && seen.add(entry.propertyId)) {
+                top.add(entry.propertyId);
+            }
+        }
+        return top;
+    }
+
+    // Score scaled to the given time, for counters the raw count
+    synchronized double score(long propertyId, long nowMillis) {
+        Entry entry = entries.get(propertyId);
+        return entry == null ? 0 : entry.score / decayWeight(nowMillis);
+    }
+
+    private double decayWeight(long atMillis) {
+        return halfLifeMillis > 0 ? Math.pow(2, exponent(atMillis)) : 1;
+    }
+
+    private double exponent(long atMillis) {
+        return (double) (atMillis - landmarkMillis) / halfLifeMillis;
+    }
+
+    // Scales every score to the new landmark, the order is unchanged. The rescaled entries are
+    // linked before the old ones go, so concurrent readers never see an empty ranking.
+    private void rebase(long nowMillis) {
+        double factor = Math.pow(2, -exponent(nowMillis));
+        List<Entry> previous = new ArrayList<>(entries.values());
+        entries.clear();
+        for (Entry entry : previous) {
+            double score = entry.score * factor;
+            if (score > PRUNE_THRESHOLD) {
+                Entry rebased = new Entry(entry.propertyId, score);
+                entries.put(entry.propertyId, rebased);
+                ranking.add(rebased);
+            }
+        }
+        previous.forEach(ranking::remove);
+        landmarkMillis = nowMillis;
+    }
+
+    private record Entry(long propertyId, double score) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.realestateagency_back.search;
+
+import lombok.Getter;
+
+/**
+ * Latitude/longitude rectangle in degrees. Boxes crossing the antimeridian are not supported.
+ */
+@Getter
+public class GeoBoundingBox {
+
+    private static final double KM_PER_DEGREE_LATITUDE = 111.32;
+
+    private final double minLatitude;
+    private final double minLongitude;
+    private final double maxLatitude;
+    private final double maxLongitude;
+
+    public GeoBoundingBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude) {
+        if (minLatitude < -90 || maxLatitude > 90 || minLongitude < -180 || maxLongitude > 180) {
+            throw new IllegalArgumentException("Coordinates out of range");
+        }
+        if (minLatitude > maxLatitude || minLongitude > maxLongitude) {
+            throw new IllegalArgumentException("Minimum coordinates must not exceed maximum coordinates");
+        }
+        this.minLatitude = minLatitude;
+        this.minLongitude = minLongitude;
+        this.maxLatitude = maxLatitude;
+        this.maxLongitude = maxLongitude;
+    }
+
+    // Smallest box containing the circle, clamped to valid coordinates
+    public static GeoBoundingBox around(double latitude, double longitude, double radiusKm) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Coordinates out of range");
+        }
+        double latDelta = radiusKm / KM_PER_DEGREE_LATITUDE;
+        double cos = Math.cos(Math.toRadians(latitude));
+        double lonDelta = cos < 1e-6 ? 180 : radiusKm / (KM_PER_DEGREE_LATITUDE * cos);
+        return new GeoBoundingBox(
+                Math.max(-90, latitude - latDelta),
+                Math.max(-180, longitude - lonDelta),
+                Math.min(90, latitude + latDelta),
+                Math.min(180, longitude + lonDelta));
+    }
+
+    public boolean contains(double latitude, double longitude) {
+        return latitude >= minLatitude && latitude <= maxLatitude
+                && longitude >= minLongitude && longitude <= maxLongitude;
+    }
+
+    // Great-circle distance using the haversine formula
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * 6371.0088 * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+}
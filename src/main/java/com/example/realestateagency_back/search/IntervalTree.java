@@ -0,0 +1,160 @@
+package com.example.realestateagency_back.search;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongConsumer;
+
+/**
+ * Dynamic interval tree: a treap ordered by (low, id) where every node also keeps the highest
+ * upper bound of its subtree. A stabbing query only descends into subtrees that can still hold
+ * an interval containing the point, O(log n + k) expected for k hits. Bounds are inclusive and
+ * may be infinite. Not thread-safe.
+ */
+final class IntervalTree {
+
+    private Node root;
+    private final Map<Long, Node> nodes = new HashMap<>();
+
+    // Replaces the interval previously stored under this id
+    void add(long id, double low, double high) {
+        remove(id);
+        Node node = new Node(id, low, high);
+        nodes.put(id, node);
+        root = insert(root, node);
+    }
+
+    void remove(long id) {
+        Node node = nodes.remove(id);
+        if (node != null) {
+            root = delete(root, node);
+        }
+    }
+
+    int size() {
+        return nodes.size();
+    }
+
+    // Ids of all intervals containing the point
+    void stab(double point, LongConsumer consumer) {
+        stab(root, point, consumer);
+    }
+
+    private static void stab(Node node, double point, LongConsumer consumer) {
+        while (node != null && node.maxHigh >= point) {
+            if (node.low <= point && node.high >= point) {
+                consumer.accept(node.id);
+            }
+            stab(node.left, point, consumer);
+            if (node.low > point) {
+                // Everything to the right starts even later
+                return;
+            }
+            node = node.right;
+        }
+    }
+
+    private static Node insert(Node root, Node node) {
+        if (root == null) {
+            return node;
+        }
+        if (node.compareTo(root) < 0) {
+            root.left = insert(root.left, node);
+            if (root.left.priority > root.priority) {
+                root = rotateRight(root);
+            }
+        } else {
+            root.right = insert(root.right, node);
+            if (root.right.priority > root.priority) {
+                root = rotateLeft(root);
+            }
+        }
+        root.update();
+        return root;
+    }
+
+    private static Node delete(Node root, Node node) {
+        if (root == null) {
+            return null;
+        }
+        if (root == node) {
+            return merge(root.left, root.right);
+        }
+        if (node.compareTo(root) < 0) {
+            root.left = delete(root.left, node);
+        } else {
+            root.right = delete(root.right, node);
+        }
+        root.update();
+        return root;
+    }
+
+    // Every key of left is smaller than every key of right
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        node.left = left.right;
+        left.right = node;
+        node.update();
+        left.update();
+        return left;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        node.right = right.left;
+        right.left = node;
+        node.update();
+        right.update();
+        return right;
+    }
+
+    private static final class Node implements Comparable<Node> {
+        private final long id;
+        private final double low;
+        private final double high;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private double maxHigh;
+        private Node left;
+        private Node right;
+
+        private Node(long id, double low, double high) {
+            this.id = id;
+            this.low = low;
+            this.high = high;
+            this.maxHigh = high;
+        }
+
+        private void update() {
+            maxHigh = high;
+            if (left != null) {
+                maxHigh = Math.max(maxHigh, left.maxHigh);
+            }
+            if (right != null) {
+                maxHigh = Math.max(maxHigh, right.maxHigh);
+            }
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            int byLow = Double.compare(low, other.low);
+            return byLow != 0 ? byLow : Long.compare(id, other.id);
+        }
+    }
+}
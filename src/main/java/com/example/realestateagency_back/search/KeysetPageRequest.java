@@ -0,0 +1,18 @@
+package com.example.realestateagency_back.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Keyset equivalent of a {@link org.springframework.data.domain.Pageable}: instead of an
+ * offset it carries the cursor of the last row already returned.
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetPageRequest {
+    private final PropertySortField sortField;
+    private final Sort.Direction direction;
+    private final SearchCursor after;
+    private final int size;
+}
@@ -0,0 +1,207 @@
+package com.example.realestateagency_back.search;
+
+import com.example.realestateagency_back.dto.LocationSuggestionDTO;
+import com.example.realestateagency_back.entity.Property;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix trie over the distinct locations of active listings, weighted by listing count. A
+ * location is reachable from its normalized text and from every later word ("saint etienne",
+ * "etienne"). Each node caches the {@value #TOP_K} heaviest locations of its subtree, so a
+ * suggestion is a walk down the prefix; a count change only recomputes the nodes on the paths
+ * of the location.
+ */
+@Component
+public class LocationSuggester implements PropertyIndex {
+
+    public static final int TOP_K = 10;
+    private static final Comparator<Location> BY_WEIGHT =
+            Comparator.comparingLong((Location location) -> location.count).reversed()
+                    .thenComparing(location -> location.key);
+
+    private final Node root = new Node();
+    private final Map<String, Location> locations = new HashMap<>(); // By normalized key
+    private final Map<Long, String> propertyLocations = new HashMap<>(); // Active listings only
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void index(Property property) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(property.getId());
+            if (!"ACTIVE".equals(property.getStatus()) || property.getLocation() == null) {
+                return;
+            }
+            String key = normalize(property.getLocation());
+            if (key.isEmpty()) {
+                return;
+            }
+            propertyLocations.put(property.getId(), key);
+            Location location = locations.computeIfAbsent(key, k -> new Location(k, property.getLocation().trim()));
+            location.count++;
+            update(location, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long propertyId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(propertyId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            root.children.clear();
+            root.terminals.clear();
+            root.top = List.of();
+            locations.clear();
+            propertyLocations.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<LocationSuggestionDTO> suggest(String query, int limit) {
+        String prefix = normalize(query);
+        if (prefix.isEmpty()) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            List<LocationSuggestionDTO> suggestions = new ArrayList<>();
+            if (node != null) {
+                for (Location location : node.top.subList(0, Math.max(0, Math.min(limit, node.top.size())))) {
+                    suggestions.add(LocationSuggestionDTO.builder()
+                            .location(location.display)
+                            .count(location.count)
+                            .build());
+                }
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeUnlocked(Long propertyId) {
+        String key = propertyLocations.remove(propertyId);
+        if (key == null) {
+            return;
+        }
+        Location location = locations.get(key);
+        location.count--;
+        if (location.count == 0) {
+            locations.remove(key);
+        }
+        update(location, false);
+    }
+
+    // Re-links the location under each of its keys and refreshes the caches along those paths
+    private void update(Location location, boolean increased) {
+        for (String key : keys(location.key)) {
+            List<Node> path = new ArrayList<>(key.length() + 1);
+            Node node = root;
+            path.add(node);
+            for (int i = 0; i < key.length(); i++) {
+                Node parent = node;
+                node = parent.children.computeIfAbsent(key.charAt(i), c -> new Node());
+                path.add(node);
+            }
+            if (location.count > 0) {
+                node.terminals.add(location);
+            } else {
+                node.terminals.remove(location);
+            }
+
+            for (int depth = path.size() - 1; depth >= 0; depth--) {
+                Node current = path.get(depth);
+                if (depth > 0 && current.terminals.isEmpty() && current.children.isEmpty()) {
+                    path.get(depth - 1).children.remove(key.charAt(depth - 1));
+                    continue;
+                }
+                if (increased) {
+                    current.promote(location);
+                } else {
+                    current.recomputeTop();
+                }
+            }
+        }
+    }
+
+    private static Set<String> keys(String normalized) {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(normalized);
+        for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+            keys.add(normalized.substring(i + 1));
+        }
+        return keys;
+    }
+
+    // Same folding as the text index: accents stripped, lower case, words separated by one space
+    public static String normalize(String text) {
+        return text == null ? "" : String.join(" ", PropertyTextIndex.tokenize(text));
+    }
+
+    private static final class Location {
+        private final String key;
+        private final String display;
+        private long count;
+
+        private Location(String key, String display) {
+            this.key = key;
+            this.display = display;
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final Set<Location> terminals = new LinkedHashSet<>();
+        private List<Location> top = List.of();
+
+        // A heavier location can only enter or move up in the list, no need to look at the children
+        private void promote(Location location) {
+            if (!top.contains(location) && top.size() == TOP_K && BY_WEIGHT.compare(location, top.get(TOP_K - 1)) > 0) {
+                return;
+            }
+            List<Location> sorted = new ArrayList<>(top);
+            if (!sorted.contains(location)) {
+                sorted.add(location);
+            }
+            sorted.sort(BY_WEIGHT);
+            top = List.copyOf(sorted.subList(0, Math.min(TOP_K, sorted.size())));
+        }
+
+        // Merges the cached lists of the children, which are already up to date
+        private void recomputeTop() {
+            Set<Location> candidates = new LinkedHashSet<>(terminals);
+            for (Node child : children.values()) {
+                candidates.addAll(child.top);
+            }
+            List<Location> sorted = new ArrayList<>(candidates);
+            sorted.sort(BY_WEIGHT);
+            top = List.copyOf(sorted.subList(0, Math.min(TOP_K, sorted.size())));
+        }
+    }
+}
@@ -0,0 +1,376 @@
+package com.example.realestateagency_back.search;
+
+import com.example.realestateagency_back.dto.PropertySearchCriteriaDTO;
+import com.example.realestateagency_back.entity.Property;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Columnar snapshot of the structured listing attributes, one primitive array per column and
+ * one slot per property. The low-cardinality columns (type, listing type, status, rooms) also
+ * have a compressed bitmap of slots per value: a filter intersects and unions those first and
+ * only checks the price and area columns of the slots left.
+ * <p>
+ * Values are stored with bounded precision (rooms saturate at {@link #MAX_ROOMS}), so a match
+ * may include a few rows outside the exact bounds but never misses one. Callers hydrate the
+ * ids with the original criteria, which removes them.
+ */
+@Component
+@ConditionalOnProperty(name = "search.columnar.enabled", havingValue = "true")
+public class PropertyColumnStore implements PropertyIndex {
+
+    static final int MAX_ROOMS = Byte.MAX_VALUE;
+    static final int MAX_STATUS_CODES = 32;
+    private static final long NULL_PRICE = Long.MIN_VALUE;
+    private static final BigDecimal MAX_CENTS = BigDecimal.valueOf(Long.MAX_VALUE);
+    private static final BigDecimal MIN_CENTS = BigDecimal.valueOf(NULL_PRICE + 1);
+    private static final byte NULL_CODE = -1;
+    private static final byte OTHER_STATUS = -2; // Statuses past the code limit, answered by the database
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private long[] ids = new long[INITIAL_CAPACITY]; // 0 marks a free slot
+    private long[] priceCents = new long[INITIAL_CAPACITY];
+    private double[] area = new double[INITIAL_CAPACITY]; // NaN when unknown
+    private byte[] rooms = new byte[INITIAL_CAPACITY];
+    private byte[] type = new byte[INITIAL_CAPACITY];
+    private byte[] listingType = new byte[INITIAL_CAPACITY];
+    private byte[] status = new byte[INITIAL_CAPACITY];
+
+    private final SlotBitmap live = new SlotBitmap();
+    private final SlotBitmap[] typeBitmaps = newBitmaps(Property.PropertyType.values().length);
+    private final SlotBitmap[] listingTypeBitmaps = newBitmaps(Property.ListingType.values().length);
+    private final SlotBitmap[] roomsBitmaps = newBitmaps(MAX_ROOMS + 1);
+    private final List<SlotBitmap> statusBitmaps = new ArrayList<>(); // Indexed by status code
+    private final SlotBitmap otherStatuses = new SlotBitmap();
+
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private final List<String> statusCodes = new ArrayList<>();
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int highWater;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Filters run concurrently under the read lock, each thread intersects in its own bitmaps
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    @Override
+    public void index(Property property) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.get(property.getId());
+            if (slot == null) {
+                slot = allocateSlot();
+                slots.put(property.getId(), slot);
+            } else {
+                unlink(slot);
+            }
+            ids[slot] = property.getId();
+            priceCents[slot] = property.getPrice() != null ? cents(property.getPrice(), RoundingMode.FLOOR) : NULL_PRICE;
+            area[slot] = property.getArea() != null ? property.getArea() : Double.NaN;
+            rooms[slot] = property.getRooms() != null ? (byte) Math.max(0, Math.min(MAX_ROOMS, property.getRooms())) : NULL_CODE;
+            type[slot] = property.getType() != null ? (byte) property.getType().ordinal() : NULL_CODE;
+            listingType[slot] = property.getListingType() != null ? (byte) property.getListingType().ordinal() : NULL_CODE;
+            status[slot] = statusCode(property.getStatus());
+            link(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long propertyId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slots.remove(propertyId);
+            if (slot != null) {
+                unlink(slot);
+                ids[slot] = 0;
+                if (freeCount == freeSlots.length) {
+                    freeSlots = Arrays.copyOf(freeSlots, freeSlots.length * 2);
+                }
+                freeSlots[freeCount++] = slot;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(ids, 0, highWater, 0);
+            slots.clear();
+            statusCodes.clear();
+            live.clear();
+            Arrays.stream(typeBitmaps).forEach(SlotBitmap::clear);
+            Arrays.stream(listingTypeBitmaps).forEach(SlotBitmap::clear);
+            Arrays.stream(roomsBitmaps).forEach(SlotBitmap::clear);
+            statusBitmaps.clear();
+            otherStatuses.clear();
+            freeCount = 0;
+            highWater = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slots.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the properties matching the numeric and enum part of the criteria; the text fields
+     * are ignored. Returns {@code null} when more than {@code limit} rows match, or when the
+     * required status is one of the few the store does not encode.
+     */
+    public long[] filter(PropertySearchCriteriaDTO criteria, String requiredStatus, int limit) {
+        long minPrice = criteria.getMinPrice() != null ? cents(criteria.getMinPrice(), RoundingMode.CEILING) : NULL_PRICE;
+        long maxPrice = criteria.getMaxPrice() != null ? cents(criteria.getMaxPrice(), RoundingMode.FLOOR) : Long.MAX_VALUE;
+        boolean priceFiltered = criteria.getMinPrice() != null || criteria.getMaxPrice() != null;
+        double minArea = criteria.getMinArea() != null ? criteria.getMinArea() : Double.NEGATIVE_INFINITY;
+        double maxArea = criteria.getMaxArea() != null ? criteria.getMaxArea() : Double.POSITIVE_INFINITY;
+        boolean areaFiltered = criteria.getMinArea() != null || criteria.getMaxArea() != null;
+
+        lock.readLock().lock();
+        try {
+            Scratch scratch = this.scratch.get();
+            scratch.start(live);
+            if (requiredStatus != null) {
+                int code = statusCodes.indexOf(requiredStatus);
+                if (code < 0) {
+                    return otherStatuses.cardinality() == 0 ? new long[0] : null;
+                }
+                scratch.start(statusBitmaps.get(code));
+            }
+            restrict(scratch, typeBitmaps, wanted(criteria.getType(), criteria.getTypes(),
+                    Property.PropertyType.class));
+            restrict(scratch, listingTypeBitmaps, wanted(criteria.getListingType(),
+                    criteria.getListingTypes(), Property.ListingType.class));
+            restrictRooms(scratch, criteria);
+            SlotBitmap candidates = scratch.candidates();
+
+            // Walks the containers in place and stops at the first match past the limit
+            long[] result = new long[Math.min(candidates.cardinality(), limit + 1)];
+            int[] count = {0};
+            boolean complete = candidates.forEachWhile(slot -> {
+                if (priceFiltered) {
+                    long price = priceCents[slot];
+                    if (price == NULL_PRICE || price < minPrice || price > maxPrice) {
+                        return true;
+                    }
+                }
+                if (areaFiltered) {
+                    // NaN fails both comparisons, like NULL in SQL
+                    double value = area[slot];
+                    if (!(value >= minArea && value <= maxArea)) {
+                        return true;
+                    }
+                }
+                if (count[0] == limit) {
+                    return false;
+                }
+                result[count[0]++] = ids[slot];
+                return true;
+            });
+            if (!complete) {
+                return null;
+            }
+            return count[0] == result.length ? result : Arrays.copyOf(result, count[0]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Single value and value set are combined with AND, null means unrestricted
+    private static <E extends Enum<E>> EnumSet<E> wanted(E single, Set<E> values, Class<E> type) {
+        EnumSet<E> wanted = null;
+        if (values != null && !values.isEmpty()) {
+            wanted = EnumSet.copyOf(values);
+        }
+        if (single != null) {
+            wanted = wanted == null ? EnumSet.of(single) : wanted;
+            wanted.retainAll(EnumSet.of(single));
+        }
+        return wanted;
+    }
+
+    private static void restrict(Scratch scratch, SlotBitmap[] bitmaps, EnumSet<? extends Enum<?>> wanted) {
+        if (wanted == null) {
+            return;
+        }
+        scratch.union.clear();
+        for (Enum<?> value : wanted) {
+            scratch.union.orInPlace(bitmaps[value.ordinal()]);
+        }
+        scratch.restrict(scratch.union);
+    }
+
+    private void restrictRooms(Scratch scratch, PropertySearchCriteriaDTO criteria) {
+        Set<Integer> counts = criteria.getRoomCounts() != null && !criteria.getRoomCounts().isEmpty()
+                ? criteria.getRoomCounts()
+                : null;
+        if (criteria.getMinRooms() == null && criteria.getMaxRooms() == null && counts == null) {
+            return;
+        }
+        // Bounds saturate like the stored values, so saturated rows stay candidates
+        int minRooms = criteria.getMinRooms() != null ? Math.min(MAX_ROOMS, criteria.getMinRooms()) : 0;
+        int maxRooms = criteria.getMaxRooms() != null ? Math.min(MAX_ROOMS, criteria.getMaxRooms()) : MAX_ROOMS;
+        boolean[] allowed = new boolean[MAX_ROOMS + 1];
+        if (counts != null) {
+            for (Integer value : counts) {
+                if (value != null) {
+                    allowed[Math.max(0, Math.min(MAX_ROOMS, value))] = true;
+                }
+            }
+        } else {
+            Arrays.fill(allowed, true);
+        }
+
+        scratch.union.clear();
+        for (int value = Math.max(0, minRooms); value <= maxRooms; value++) {
+            if (allowed[value]) {
+                scratch.union.orInPlace(roomsBitmaps[value]);
+            }
+        }
+        scratch.restrict(scratch.union);
+    }
+
+    private void link(int slot) {
+        live.add(slot);
+        if (type[slot] != NULL_CODE) {
+            typeBitmaps[type[slot]].add(slot);
+        }
+        if (listingType[slot] != NULL_CODE) {
+            listingTypeBitmaps[listingType[slot]].add(slot);
+        }
+        if (rooms[slot] != NULL_CODE) {
+            roomsBitmaps[rooms[slot]].add(slot);
+        }
+        if (status[slot] == OTHER_STATUS) {
+            otherStatuses.add(slot);
+        } else if (status[slot] != NULL_CODE) {
+            statusBitmaps.get(status[slot]).add(slot);
+        }
+    }
+
+    private void unlink(int slot) {
+        live.remove(slot);
+        if (type[slot] != NULL_CODE) {
+            typeBitmaps[type[slot]].remove(slot);
+        }
+        if (listingType[slot] != NULL_CODE) {
+            listingTypeBitmaps[listingType[slot]].remove(slot);
+        }
+        if (rooms[slot] != NULL_CODE) {
+            roomsBitmaps[rooms[slot]].remove(slot);
+        }
+        if (status[slot] == OTHER_STATUS) {
+            otherStatuses.remove(slot);
+        } else if (status[slot] != NULL_CODE) {
+            statusBitmaps.get(status[slot]).remove(slot);
+        }
+    }
+
+    private static SlotBitmap[] newBitmaps(int count) {
+        SlotBitmap[] bitmaps = new SlotBitmap[count];
+        for (int i = 0; i < count; i++) {
+            bitmaps[i] = new SlotBitmap();
+        }
+        return bitmaps;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (highWater == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            priceCents = Arrays.copyOf(priceCents, capacity);
+            area = Arrays.copyOf(area, capacity);
+            rooms = Arrays.copyOf(rooms, capacity);
+            type = Arrays.copyOf(type, capacity);
+            listingType = Arrays.copyOf(listingType, capacity);
+            status = Arrays.copyOf(status, capacity);
+        }
+        return highWater++;
+    }
+
+    /**
+     * Statuses are a handful of distinct strings, stored as their position in statusCodes. The
+     * column is free text though: past {@link #MAX_STATUS_CODES} values, new ones share a code
+     * that keeps the listing in unrestricted scans and sends filters on them to the database.
+     */
+    private byte statusCode(String value) {
+        if (value == null) {
+            return NULL_CODE;
+        }
+        int code = statusCodes.indexOf(value);
+        if (code < 0) {
+            if (statusCodes.size() == MAX_STATUS_CODES) {
+                return OTHER_STATUS;
+            }
+            statusCodes.add(value);
+            statusBitmaps.add(new SlotBitmap());
+            code = statusCodes.size() - 1;
+        }
+        return (byte) code;
+    }
+
+    // Saturates outside the long range, which again only widens a match
+    private static long cents(BigDecimal amount, RoundingMode rounding) {
+        BigDecimal value = amount.movePointRight(2).setScale(0, rounding);
+        if (value.compareTo(MAX_CENTS) > 0) {
+            return Long.MAX_VALUE;
+        }
+        if (value.compareTo(MIN_CENTS) < 0) {
+            return NULL_PRICE + 1;
+        }
+        return value.longValue();
+    }
+
+    /**
+     * Per-thread working bitmaps of a filter. The candidates stay a shared bitmap of the store
+     * until the first restriction copies them into {@code result}, which is then narrowed in place.
+     */
+    private static final class Scratch {
+        private final SlotBitmap result = new SlotBitmap();
+        private final SlotBitmap union = new SlotBitmap();
+        private SlotBitmap base;
+        private boolean owned;
+
+        private void start(SlotBitmap base) {
+            this.base = base;
+            this.owned = false;
+        }
+
+        private void restrict(SlotBitmap other) {
+            if (!owned) {
+                result.copyFrom(base);
+                owned = true;
+            }
+            result.andInPlace(other);
+        }
+
+        private SlotBitmap candidates() {
+            return owned ? result : base;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.realestateagency_back.search;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Bucket boundaries of the search facets. Each bucket is [boundary[i], boundary[i + 1]),
+ * the last one being open-ended.
+ */
+public final class PropertyFacets {
+
+    public static final List<BigDecimal> PRICE_BOUNDARIES = decimals(0, 50_000, 100_000, 200_000, 300_000, 500_000, 1_000_000);
+    public static final List<BigDecimal> AREA_BOUNDARIES = decimals(0, 50, 100, 150, 200, 500, 1_000);
+    // Room counts from 1 to MAX_ROOMS_BUCKET - 1 get their own bucket, the rest share "MAX_ROOMS_BUCKET+"
+    public static final int MAX_ROOMS_BUCKET = 6;
+
+    private PropertyFacets() {
+    }
+
+    private static List<BigDecimal> decimals(long... values) {
+        return Arrays.stream(values).mapToObj(BigDecimal::valueOf).toList();
+    }
+}
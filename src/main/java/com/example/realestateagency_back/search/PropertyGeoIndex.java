@@ -0,0 +1,152 @@
+package com.example.realestateagency_back.search;
+
+import com.example.realestateagency_back.entity.Property;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Fixed-size grid over latitude/longitude (a geohash with uniform cells), standing in for a
+ * PostGIS index. A bounding box is answered by visiting the cells it overlaps and checking
+ * the exact coordinates of the properties they hold.
+ */
+@Component
+public class PropertyGeoIndex implements PropertyIndex {
+
+    // About 5.5 km of latitude per cell
+    private static final double CELL_DEGREES = 0.05;
+    // Beyond this many cells a linear pass over all points is cheaper than the cell lookups
+    private static final long MAX_CELLS_PER_QUERY = 4096;
+
+    private final Map<Long, double[]> points = new HashMap<>();
+    private final Map<Long, Set<Long>> cells = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void index(Property property) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(property.getId());
+            if (property.getLatitude() == null || property.getLongitude() == null) {
+                return;
+            }
+            double latitude = property.getLatitude();
+            double longitude = property.getLongitude();
+            points.put(property.getId(), new double[]{latitude, longitude});
+            cells.computeIfAbsent(cellKey(latitude, longitude), key -> new HashSet<>()).add(property.getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long propertyId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(propertyId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            points.clear();
+            cells.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Set<Long> withinBoundingBox(GeoBoundingBox box) {
+        Set<Long> result = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            int minRow = row(box.getMinLatitude());
+            int maxRow = row(box.getMaxLatitude());
+            int minColumn = column(box.getMinLongitude());
+            int maxColumn = column(box.getMaxLongitude());
+            long cellCount = (long) (maxRow - minRow + 1) * (maxColumn - minColumn + 1);
+
+            if (cellCount > MAX_CELLS_PER_QUERY) {
+                points.forEach((id, point) -> {
+                    if (box.contains(point[0], point[1])) {
+                        result.add(id);
+                    }
+                });
+                return result;
+            }
+
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int column = minColumn; column <= maxColumn; column++) {
+                    Set<Long> ids = cells.get(key(row, column));
+                    if (ids == null) {
+                        continue;
+                    }
+                    for (Long id : ids) {
+                        double[] point = points.get(id);
+                        if (box.contains(point[0], point[1])) {
+                            result.add(id);
+                        }
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Set<Long> withinRadius(double latitude, double longitude, double radiusKm) {
+        Set<Long> result = withinBoundingBox(GeoBoundingBox.around(latitude, longitude, radiusKm));
+        lock.readLock().lock();
+        try {
+            // Drop the corners of the box that lie outside the circle
+            result.removeIf(id -> {
+                double[] point = points.get(id);
+                return point == null || GeoBoundingBox.distanceKm(latitude, longitude, point[0], point[1]) > radiusKm;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    private void removeUnlocked(Long propertyId) {
+        double[] previous = points.remove(propertyId);
+        if (previous == null) {
+            return;
+        }
+        long key = cellKey(previous[0], previous[1]);
+        Set<Long> ids = cells.get(key);
+        if (ids != null) {
+            ids.remove(propertyId);
+            if (ids.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    private static long cellKey(double latitude, double longitude) {
+        return key(row(latitude), column(longitude));
+    }
+
+    private static int row(double latitude) {
+        return (int) Math.floor((latitude + 90) / CELL_DEGREES);
+    }
+
+    private static int column(double longitude) {
+        return (int) Math.floor((longitude + 180) / CELL_DEGREES);
+    }
+
+    private static long key(int row, int column) {
+        return ((long) row << 32) | (column & 0xffffffffL);
+    }
+}
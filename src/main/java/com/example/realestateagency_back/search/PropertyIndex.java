@@ -0,0 +1,18 @@
+package com.example.realestateagency_back.search;
+
+import com.example.realestateagency_back.entity.Property;
+
+/**
+ * In-memory secondary index over the catalog. Implementations are discovered by
+ * {@link PropertyIndexMaintainer}, which bulk-loads them at startup and keeps them in sync
+ * with committed writes.
+ */
+public interface PropertyIndex {
+
+    // Insert or replace the entry of a property
+    void index(Property property);
+
+    void remove(Long propertyId);
+
+    void clear();
+}
@@ -0,0 +1,77 @@
+package com.example.realestateagency_back.search;
+
+import com.example.realestateagency_back.entity.Property;
+import com.example.realestateagency_back.event.PropertyChangedEvent;
+import com.example.realestateagency_back.repository.PropertyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.List;
+
+@Component
+@Slf4j
+public class PropertyIndexMaintainer {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final PropertyRepository propertyRepository;
+    private final List<PropertyIndex> indexes;
+    private volatile boolean ready;
+
+    public PropertyIndexMaintainer(PropertyRepository propertyRepository, List<PropertyIndex> indexes) {
+        this.propertyRepository = propertyRepository;
+        // The search epochs move last, so a search stamped with the new epoch reads updated indexes
+        this.indexes = indexes.stream()
+                .sorted(Comparator.comparing(index -> index instanceof SearchResultCache))
+                .toList();
+    }
+
+    // Callers must fall back to the database until the initial load has completed
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Rebuilding {} in-memory property indexes", indexes.size());
+        ready = false;
+        indexes.forEach(PropertyIndex::clear);
+
+        long lastId = 0;
+        long count = 0;
+        List<Property> batch;
+        do {
+            batch = propertyRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            for (Property property : batch) {
+                indexes.forEach(index -> index.index(property));
+                lastId = property.getId();
+            }
+            count += batch.size();
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        ready = true;
+        log.info("In-memory property indexes ready with {} properties", count);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        log.debug("Applying {} of property {} to in-memory indexes", event.getChangeType(), event.getPropertyId());
+        for (PropertyIndex index : indexes) {
+            try {
+                if (event.getChangeType() == PropertyChangedEvent.ChangeType.DELETED) {
+                    index.remove(event.getPropertyId());
+                } else {
+                    index.index(event.getProperty());
+                }
+            } catch (RuntimeException ex) {
+                log.error("Could not apply change of property {} to {}", event.getPropertyId(),
+                        index.getClass().getSimpleName(), ex);
+            }
+        }
+    }
+}
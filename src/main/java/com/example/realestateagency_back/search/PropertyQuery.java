@@ -0,0 +1,26 @@
+package com.example.realestateagency_back.search;
+
+import com.example.realestateagency_back.dto.PropertySearchCriteriaDTO;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.Collection;
+
+/**
+ * Everything the dynamic search queries of the property repository need besides paging:
+ * the user criteria plus the restrictions and options the service layer adds to them.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class PropertyQuery {
+    private final PropertySearchCriteriaDTO criteria;
+    private final String status;
+    private final Collection<Long> ids; // When not null, only these properties can match
+    private final Collection<Long> locationIds; // Resolved location filter, replaces the substring match
+    private final boolean unmappedLocationFallback; // Rows without a location id still match on the text
+    private final GeoBoundingBox boundingBox;
+    private final boolean caseInsensitiveText;
+    // Text predicates match like PropertyTextIndex; the location text then stays a row predicate
+    private final boolean tokenPrefixText;
+    private final boolean rankBySimilarity; // Orders unpaged results by pg_trgm similarity
+}
@@ -0,0 +1,106 @@
+package com.example.realestateagency_back.search;
+
+import com.example.realestateagency_back.entity.Property;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Home page rankings, maintained incrementally from favorite and view events: "trending" by
+ * time-decayed activity, "most favorited" by exact favorite count. As a {@link PropertyIndex}
+ * it only tracks which listings are active, the scores themselves are fed by the services and
+ * survive an index rebuild.
+ */
+@Component
+public class PropertyRankings implements PropertyIndex {
+
+    private final Duration halfLife;
+    private final double favoriteWeight;
+    private final double viewWeight;
+    private final DecayedRanking trending;
+    private final DecayedRanking favorites;
+    private final Set<Long> activeIds = ConcurrentHashMap.newKeySet();
+
+    public PropertyRankings(@Value("${trending.half-life-hours:24}") long halfLifeHours,
+                            @Value("${trending.favorite-weight:5}") double favoriteWeight,
+                            @Value("${trending.view-weight:1}") double viewWeight) {
+        this.halfLife = Duration.ofHours(halfLifeHours);
+        this.favoriteWeight = favoriteWeight;
+        this.viewWeight = viewWeight;
+        long now = System.currentTimeMillis();
+        this.trending = new DecayedRanking(halfLife.toMillis(), now);
+        this.favorites = new DecayedRanking(0, now);
+    }
+
+    public Duration getHalfLife() {
+        return halfLife;
+    }
+
+    @Override
+    public void index(Property property) {
+        if ("ACTIVE".equals(property.getStatus())) {
+            activeIds.add(property.getId());
+        } else {
+            activeIds.remove(property.getId());
+        }
+    }
+
+    @Override
+    public void remove(Long propertyId) {
+        activeIds.remove(propertyId);
+        trending.remove(propertyId);
+        favorites.remove(propertyId);
+    }
+
+    // Only the active set is rebuilt from the catalog
+    @Override
+    public void clear() {
+        activeIds.clear();
+    }
+
+    public void clearScores() {
+        trending.clear();
+        favorites.clear();
+    }
+
+    public void favoriteAdded(Long propertyId, LocalDateTime dateAdded) {
+        trending.add(propertyId, favoriteWeight, toMillis(dateAdded));
+        favorites.add(propertyId, 1, 0);
+    }
+
+    // Startup seeding, each ranking from its own query
+    public void trendingFavorite(Long propertyId, LocalDateTime dateAdded) {
+        trending.add(propertyId, favoriteWeight, toMillis(dateAdded));
+    }
+
+    public void favoriteCount(Long propertyId, long count) {
+        favorites.add(propertyId, count, 0);
+    }
+
+    public void favoriteRemoved(Long propertyId, LocalDateTime dateAdded) {
+        trending.add(propertyId, -favoriteWeight, toMillis(dateAdded));
+        favorites.add(propertyId, -1, 0);
+    }
+
+    public void viewed(Long propertyId, long views) {
+        trending.add(propertyId, viewWeight * views, System.currentTimeMillis());
+    }
+
+    public List<Long> topTrending(int limit) {
+        return trending.top(limit, activeIds::contains);
+    }
+
+    public List<Long> topFavorited(int limit) {
+        return favorites.top(limit, activeIds::contains);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.realestateagency_back.search;
+
+import com.example.realestateagency_back.dto.PropertyCardDTO;
+import com.example.realestateagency_back.entity.Property;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+
+/**
+ * Columns a property search page can be ordered by. Every sort is completed with the
+ * property id as a tie-breaker so that the (value, id) pair is unique and can be used
+ * as a keyset cursor.
+ */
+public enum PropertySortField {
+    PRICE("price", Property::getPrice, PropertyCardDTO::getPrice, BigDecimal::new),
+    AREA("area", Property::getArea, PropertyCardDTO::getArea, Double::valueOf),
+    ROOMS("rooms", Property::getRooms, PropertyCardDTO::getRooms, Integer::valueOf),
+    PUBLICATION_DATE("publicationDate", Property::getPublicationDate, PropertyCardDTO::getPublicationDate,
+            LocalDateTime::parse);
+
+    private final String attribute;
+    private final Function<Property, Comparable<?>> extractor;
+    private final Function<PropertyCardDTO, Comparable<?>> cardExtractor;
+    private final Function<String, Comparable<?>> parser;
+
+    PropertySortField(String attribute,
+                      Function<Property, Comparable<?>> extractor,
+                      Function<PropertyCardDTO, Comparable<?>> cardExtractor,
+                      Function<String, Comparable<?>> parser) {
+        this.attribute = attribute;
+        this.extractor = extractor;
+        this.cardExtractor = cardExtractor;
+        this.parser = parser;
+    }
+
+    public String getAttribute() {
+        return attribute;
+    }
+
+    public Comparable<?> valueOf(Property property) {
+        return extractor.apply(property);
+    }
+
+    public Comparable<?> valueOf(PropertyCardDTO card) {
+        return cardExtractor.apply(card);
+    }
+
+    Comparable<?> parse(String value) {
+        return parser.apply(value);
+    }
+
+    /**
+     * Accepts both the enum name ({@code PUBLICATION_DATE}) and the attribute name
+     * ({@code publicationDate}), case-insensitively.
+     */
+    public static PropertySortField fromParam(String param) {
+        for (PropertySortField field : values()) {
+            if (field.name().equalsIgnoreCase(param) || field.attribute.equalsIgnoreCase(param)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort field: " + param);
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.realestateagency_back.search;
+
+import com.example.realestateagency_back.entity.Property;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Inverted index over the free-text columns of the catalog. Terms are lower-cased and
+ * accent-folded, and every query term matches as a prefix of an indexed term, so
+ * "saint-et" finds "Saint-Étienne". All terms of a query must match (AND semantics).
+ */
+@Component
+public class PropertyTextIndex implements PropertyIndex {
+
+    public enum Field {
+        TITLE,
+        LOCATION,
+        DESCRIPTION
+    }
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+
+    // Term -> ids of the properties containing it, per field. Sorted to answer prefix lookups.
+    private final Map<Field, NavigableMap<String, Set<Long>>> postings = new EnumMap<>(Field.class);
+    // Property id -> indexed terms per field, needed to remove stale postings on update/delete
+    private final Map<Long, Map<Field, Set<String>>> forward = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public PropertyTextIndex() {
+        for (Field field : Field.values()) {
+            postings.put(field, new TreeMap<>());
+        }
+    }
+
+    @Override
+    public void index(Property property) {
+        Map<Field, Set<String>> terms = new EnumMap<>(Field.class);
+        terms.put(Field.TITLE, new HashSet<>(tokenize(property.getTitle())));
+        terms.put(Field.LOCATION, new HashSet<>(tokenize(property.getLocation())));
+        terms.put(Field.DESCRIPTION, new HashSet<>(tokenize(property.getDescription())));
+
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(property.getId());
+            for (Map.Entry<Field, Set<String>> entry : terms.entrySet()) {
+                NavigableMap<String, Set<Long>> fieldPostings = postings.get(entry.getKey());
+                for (String term : entry.getValue()) {
+                    fieldPostings.computeIfAbsent(term, t -> new HashSet<>()).add(property.getId());
+                }
+            }
+            forward.put(property.getId(), terms);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long propertyId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(propertyId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.values().forEach(Map::clear);
+            forward.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the properties whose given fields contain every term of the query, each term
+     * being allowed to match in any of the fields. Returns {@code null} when the query has
+     * no searchable term, meaning "no text restriction".
+     */
+    public Set<Long> search(String query, Field... fields) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<Long> result = null;
+            for (String term : new LinkedHashSet<>(terms)) {
+                Set<Long> matches = new HashSet<>();
+                for (Field field : fields) {
+                    // All terms sharing the prefix sit contiguously in the sorted map
+                    for (Set<Long> ids : postings.get(field).subMap(term, true, term + Character.MAX_VALUE, true).values()) {
+                        matches.addAll(ids);
+                    }
+                }
+                if (result == null) {
+                    result = matches;
+                } else {
+                    result.retainAll(matches);
+                }
+                if (result.isEmpty()) {
+                    return Collections.emptySet();
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(folded)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private void removeUnlocked(Long propertyId) {
+        Map<Field, Set<String>> previous = forward.remove(propertyId);
+        if (previous == null) {
+            return;
+        }
+        for (Map.Entry<Field, Set<String>> entry : previous.entrySet()) {
+            NavigableMap<String, Set<Long>> fieldPostings = postings.get(entry.getKey());
+            for (String term : entry.getValue()) {
+                Set<Long> ids = fieldPostings.get(term);
+                if (ids != null) {
+                    ids.remove(propertyId);
+                    if (ids.isEmpty()) {
+                        fieldPostings.remove(term);
+                    }
+                }
+            }
+        }
+    }
+}
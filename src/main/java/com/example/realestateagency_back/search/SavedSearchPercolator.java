@@ -0,0 +1,255 @@
+package com.example.realestateagency_back.search;
+
+import com.example.realestateagency_back.dto.PropertySearchCriteriaDTO;
+import com.example.realestateagency_back.entity.Property;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Saved searches indexed for the reverse question "which searches match this listing?". The
+ * searches are grouped by every (type, listing type) pair they accept, and inside a group their
+ * price, area and rooms bounds are intervals in one {@link IntervalTree} per column. A listing
+ * is stabbed into the trees of its own group; the few candidates that survive every stab are
+ * checked against the full criteria.
+ */
+@Component
+public class SavedSearchPercolator {
+
+    private final Map<Long, PropertySearchCriteriaDTO> searches = new HashMap<>();
+    private final Map<Group, GroupIndex> groups = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Replaces the criteria previously registered under this id
+    public void register(Long searchId, PropertySearchCriteriaDTO criteria) {
+        lock.writeLock().lock();
+        try {
+            unregisterUnlocked(searchId);
+            searches.put(searchId, criteria);
+            for (Group group : groupsOf(criteria)) {
+                groups.computeIfAbsent(group, g -> new GroupIndex()).add(searchId, criteria);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void unregister(Long searchId) {
+        lock.writeLock().lock();
+        try {
+            unregisterUnlocked(searchId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            searches.clear();
+            groups.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return searches.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the saved searches the listing matches. The city of the listing is only looked up
+     * when a candidate filters on it.
+     */
+    public List<Long> match(Property property, Supplier<String> city) {
+        if (property.getType() == null || property.getListingType() == null) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            GroupIndex index = groups.get(new Group(property.getType(), property.getListingType()));
+            if (index == null) {
+                return new ArrayList<>();
+            }
+            String[] resolvedCity = null;
+            List<Long> matches = new ArrayList<>();
+            for (Long searchId : index.candidates(property)) {
+                PropertySearchCriteriaDTO criteria = searches.get(searchId);
+                if (criteria.getCity() != null && resolvedCity == null) {
+                    resolvedCity = new String[]{city.get()};
+                }
+                if (matches(criteria, property, resolvedCity != null ? resolvedCity[0] : null)) {
+                    matches.add(searchId);
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void unregisterUnlocked(Long searchId) {
+        PropertySearchCriteriaDTO previous = searches.remove(searchId);
+        if (previous == null) {
+            return;
+        }
+        for (Group group : groupsOf(previous)) {
+            GroupIndex index = groups.get(group);
+            index.remove(searchId);
+            if (index.isEmpty()) {
+                groups.remove(group);
+            }
+        }
+    }
+
+    /**
+     * Same semantics as the database search, except that text criteria are matched on the
+     * folded text (case and accents ignored), like the in-memory text index.
+     */
+    static boolean matches(PropertySearchCriteriaDTO criteria, Property property, String city) {
+        return containsText(property.getTitle(), criteria.getTitle())
+                && containsText(property.getLocation(), criteria.getLocation())
+                && (criteria.getKeywords() == null
+                    || containsText(property.getTitle(), criteria.getKeywords())
+                    || containsText(property.getLocation(), criteria.getKeywords())
+                    || containsText(property.getDescription(), criteria.getKeywords()))
+                && (criteria.getCity() == null || criteria.getCity().trim().equalsIgnoreCase(city))
+                && (!isSet(criteria.getLocationIds()) || criteria.getLocationIds().contains(property.getLocationId()))
+                && atLeast(property.getPrice(), criteria.getMinPrice())
+                && atMost(property.getPrice(), criteria.getMaxPrice())
+                && atLeast(property.getArea(), criteria.getMinArea())
+                && atMost(property.getArea(), criteria.getMaxArea())
+                && atLeast(property.getRooms(), criteria.getMinRooms())
+                && atMost(property.getRooms(), criteria.getMaxRooms())
+                && (!isSet(criteria.getRoomCounts())
+                    || property.getRooms() != null && criteria.getRoomCounts().contains(property.getRooms()));
+    }
+
+    private static boolean containsText(String value, String text) {
+        if (text == null) {
+            return true;
+        }
+        return value != null && LocationSuggester.normalize(value).contains(LocationSuggester.normalize(text));
+    }
+
+    // An unknown value never satisfies a bound, as in SQL
+    private static <T extends Comparable<T>> boolean atLeast(T value, T bound) {
+        return bound == null || value != null && value.compareTo(bound) >= 0;
+    }
+
+    private static <T extends Comparable<T>> boolean atMost(T value, T bound) {
+        return bound == null || value != null && value.compareTo(bound) <= 0;
+    }
+
+    private static boolean isSet(Collection<?> values) {
+        return values != null && !values.isEmpty();
+    }
+
+    // Every (type, listing type) pair the criteria accept, empty when they accept none
+    private static List<Group> groupsOf(PropertySearchCriteriaDTO criteria) {
+        Set<Property.PropertyType> types = EnumSet.allOf(Property.PropertyType.class);
+        if (criteria.getType() != null) {
+            types.retainAll(Set.of(criteria.getType()));
+        }
+        if (isSet(criteria.getTypes())) {
+            types.retainAll(criteria.getTypes());
+        }
+        Set<Property.ListingType> listingTypes = EnumSet.allOf(Property.ListingType.class);
+        if (criteria.getListingType() != null) {
+            listingTypes.retainAll(Set.of(criteria.getListingType()));
+        }
+        if (isSet(criteria.getListingTypes())) {
+            listingTypes.retainAll(criteria.getListingTypes());
+        }
+        List<Group> groups = new ArrayList<>();
+        for (Property.PropertyType type : types) {
+            for (Property.ListingType listingType : listingTypes) {
+                groups.add(new Group(type, listingType));
+            }
+        }
+        return groups;
+    }
+
+    private record Group(Property.PropertyType type, Property.ListingType listingType) {
+    }
+
+    private static final class GroupIndex {
+        private final Set<Long> members = new HashSet<>();
+        private final IntervalTree price = new IntervalTree();
+        private final IntervalTree area = new IntervalTree();
+        private final IntervalTree rooms = new IntervalTree();
+
+        private void add(Long searchId, PropertySearchCriteriaDTO criteria) {
+            members.add(searchId);
+            price.add(searchId, lower(criteria.getMinPrice()), upper(criteria.getMaxPrice()));
+            area.add(searchId, lower(criteria.getMinArea()), upper(criteria.getMaxArea()));
+            double minRooms = lower(criteria.getMinRooms());
+            double maxRooms = upper(criteria.getMaxRooms());
+            if (isSet(criteria.getRoomCounts())) {
+                // The listed counts narrow the range to their own span
+                minRooms = Math.max(minRooms, criteria.getRoomCounts().stream().mapToInt(Integer::intValue).min().getAsInt());
+                maxRooms = Math.min(maxRooms, criteria.getRoomCounts().stream().mapToInt(Integer::intValue).max().getAsInt());
+            }
+            rooms.add(searchId, minRooms, maxRooms);
+        }
+
+        private void remove(Long searchId) {
+            members.remove(searchId);
+            price.remove(searchId);
+            area.remove(searchId);
+            rooms.remove(searchId);
+        }
+
+        private boolean isEmpty() {
+            return members.isEmpty();
+        }
+
+        /**
+         * Searches whose intervals contain every known value of the listing. An unknown value
+         * cannot be stabbed; it is left to the full check, which only lets unbounded searches pass.
+         */
+        private Set<Long> candidates(Property property) {
+            Set<Long> candidates = null;
+            candidates = stab(candidates, price, property.getPrice() != null ? property.getPrice().doubleValue() : null);
+            candidates = stab(candidates, area, property.getArea());
+            candidates = stab(candidates, rooms, property.getRooms() != null ? property.getRooms().doubleValue() : null);
+            return candidates != null ? candidates : members;
+        }
+
+        private static Set<Long> stab(Set<Long> candidates, IntervalTree tree, Double value) {
+            if (value == null || candidates != null && candidates.isEmpty()) {
+                return candidates;
+            }
+            Set<Long> hits = new HashSet<>();
+            tree.stab(value, id -> hits.add(id));
+            if (candidates != null) {
+                hits.retainAll(candidates);
+            }
+            return hits;
+        }
+
+        // BigDecimal to double is monotonic, so the rounding can only let extra candidates through
+        private static double lower(Number bound) {
+            return bound != null ? bound.doubleValue() : Double.NEGATIVE_INFINITY;
+        }
+
+        private static double upper(Number bound) {
+            return bound != null ? bound.doubleValue() : Double.POSITIVE_INFINITY;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.realestateagency_back.search;
+
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor pointing just after the last row of a search page. It carries the
+ * sort it was produced for, so a cursor cannot silently be replayed against another order.
+ */
+@Getter
+public class SearchCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final PropertySortField sortField;
+    private final Sort.Direction direction;
+    private final Comparable<?> lastValue;
+    private final Long lastId;
+
+    public SearchCursor(PropertySortField sortField, Sort.Direction direction, Comparable<?> lastValue, Long lastId) {
+        this.sortField = sortField;
+        this.direction = direction;
+        this.lastValue = lastValue;
+        this.lastId = lastId;
+    }
+
+    public String encode() {
+        String value = lastValue == null ? "" : lastValue instanceof BigDecimal decimal
+                ? decimal.toPlainString()
+                : lastValue.toString();
+        String raw = sortField.name() + SEPARATOR + direction.name() + SEPARATOR + value + SEPARATOR + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static SearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            PropertySortField sortField = PropertySortField.valueOf(parts[0]);
+            Sort.Direction direction = Sort.Direction.valueOf(parts[1]);
+            Comparable<?> value = parts[2].isEmpty() ? null : sortField.parse(parts[2]);
+            return new SearchCursor(sortField, direction, value, Long.valueOf(parts[3]));
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid search cursor", ex);
+        }
+    }
+}
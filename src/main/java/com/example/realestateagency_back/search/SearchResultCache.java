@@ -0,0 +1,170 @@
+package com.example.realestateagency_back.search;
+
+import com.example.realestateagency_back.config.CacheConfig;
+import com.example.realestateagency_back.dto.PropertySearchCriteriaDTO;
+import com.example.realestateagency_back.entity.Property;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Search results as id lists, keyed by the canonical form of the criteria. Entries are not
+ * evicted on writes; each carries the epochs it was computed under and is ignored once they
+ * moved. Searches restricted to property types depend only on the epochs of those types, so a
+ * write to a house leaves cached land searches valid; other searches use the global epoch,
+ * which every write moves. As a {@link PropertyIndex} it remembers the type of each property
+ * so that a type change moves the epochs of both types.
+ */
+@Component
+public class SearchResultCache implements PropertyIndex {
+
+    // Longer results are cheaper to recompute than to hydrate from an id list
+    public static final int MAX_CACHED_IDS = 1000;
+
+    private final Cache cache;
+    private final AtomicLong globalEpoch = new AtomicLong();
+    private final AtomicLongArray typeEpochs = new AtomicLongArray(Property.PropertyType.values().length);
+    private final Map<Long, Property.PropertyType> types = new ConcurrentHashMap<>();
+
+    public SearchResultCache(CacheManager cacheManager) {
+        this.cache = cacheManager.getCache(CacheConfig.SEARCH_RESULTS);
+    }
+
+    @Override
+    public void index(Property property) {
+        Property.PropertyType previous = property.getType() != null
+                ? types.put(property.getId(), property.getType())
+                : types.remove(property.getId());
+        globalEpoch.incrementAndGet();
+        bump(previous);
+        bump(property.getType());
+    }
+
+    @Override
+    public void remove(Long propertyId) {
+        globalEpoch.incrementAndGet();
+        bump(types.remove(propertyId));
+    }
+
+    @Override
+    public void clear() {
+        types.clear();
+        invalidateAll();
+    }
+
+    // For writes that bypass the property events, such as the location backfill
+    public void invalidateAll() {
+        globalEpoch.incrementAndGet();
+        for (Property.PropertyType type : Property.PropertyType.values()) {
+            bump(type);
+        }
+        cache.clear();
+    }
+
+    /**
+     * Epochs the result of the criteria depends on. Must be taken before the search runs, so a
+     * write committed meanwhile leaves the entry stale instead of hiding it.
+     */
+    public long[] stamp(PropertySearchCriteriaDTO criteria) {
+        Set<Property.PropertyType> restricted = restrictedTypes(criteria);
+        if (restricted == null) {
+            return new long[]{globalEpoch.get()};
+        }
+        long[] stamp = new long[restricted.size()];
+        int i = 0;
+        for (Property.PropertyType type : restricted) {
+            stamp[i++] = typeEpochs.get(type.ordinal());
+        }
+        return stamp;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, long[] stamp) {
+        Entry entry = cache.get(key, Entry.class);
+        return entry != null && Arrays.equals(entry.stamp(), stamp) ? (T) entry.value() : null;
+    }
+
+    public void put(String key, long[] stamp, Object value) {
+        cache.put(key, new Entry(stamp, value));
+    }
+
+    /**
+     * Canonical key of a search: fields in a fixed order, absent or empty ones left out, sets
+     * sorted and numbers without trailing zeros, so equivalent requests share an entry. Strings
+     * are kept verbatim since blank or differently cased text can match differently.
+     */
+    public static String key(String kind, PropertySearchCriteriaDTO criteria, Object... extra) {
+        StringBuilder key = new StringBuilder(kind);
+        append(key, "title", criteria.getTitle());
+        append(key, "location", criteria.getLocation());
+        append(key, "city", criteria.getCity());
+        append(key, "locationIds", criteria.getLocationIds());
+        append(key, "keywords", criteria.getKeywords());
+        append(key, "minPrice", criteria.getMinPrice());
+        append(key, "maxPrice", criteria.getMaxPrice());
+        append(key, "minArea", criteria.getMinArea());
+        append(key, "maxArea", criteria.getMaxArea());
+        append(key, "minRooms", criteria.getMinRooms());
+        append(key, "maxRooms", criteria.getMaxRooms());
+        append(key, "type", criteria.getType());
+        append(key, "listingType", criteria.getListingType());
+        append(key, "types", criteria.getTypes());
+        append(key, "listingTypes", criteria.getListingTypes());
+        append(key, "roomCounts", criteria.getRoomCounts());
+        for (int i = 0; i < extra.length; i++) {
+            append(key, Integer.toString(i), extra[i]);
+        }
+        return key.toString();
+    }
+
+    private static void append(StringBuilder key, String name, Object value) {
+        if (value == null || value instanceof Collection<?> values && values.isEmpty()) {
+            return;
+        }
+        String text;
+        if (value instanceof BigDecimal decimal) {
+            text = decimal.stripTrailingZeros().toPlainString();
+        } else if (value instanceof Collection<?> values) {
+            text = values.stream().map(String::valueOf).sorted().toList().toString();
+        } else {
+            text = value.toString();
+        }
+        // Length-prefixed, so no value can run into the next field
+        key.append('|').append(name).append('=').append(text.length()).append(':').append(text);
+    }
+
+    // Types a result can contain, null when the criteria do not restrict them
+    private static Set<Property.PropertyType> restrictedTypes(PropertySearchCriteriaDTO criteria) {
+        Set<Property.PropertyType> restricted = null;
+        if (criteria.getType() != null) {
+            restricted = EnumSet.of(criteria.getType());
+        }
+        if (criteria.getTypes() != null && !criteria.getTypes().isEmpty()) {
+            Set<Property.PropertyType> types = EnumSet.copyOf(criteria.getTypes());
+            if (restricted != null) {
+                types.retainAll(restricted);
+            }
+            restricted = types;
+        }
+        return restricted;
+    }
+
+    private void bump(Property.PropertyType type) {
+        if (type != null) {
+            typeEpochs.incrementAndGet(type.ordinal());
+        }
+    }
+
+    private record Entry(long[] stamp, Object value) {
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.realestateagency_back.search;
+
+import com.example.realestateagency_back.entity.Property;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * k-nearest-neighbour index behind "similar listings". Active listings are partitioned by
+ * type, listing type and whether they have coordinates, and placed in a feature space where
+ * one unit is a doubling of price or area, two rooms, or {@value #KM_PER_UNIT} km. Each
+ * partition is a {@link VantagePointTree} plus a small buffer of recent inserts and a set of
+ * tombstones; the tree is rebuilt once either grows past a fraction of its size.
+ */
+@Component
+public class SimilarityIndex implements PropertyIndex {
+
+    static final double KM_PER_UNIT = 10;
+    static final double ROOMS_PER_UNIT = 2;
+    // Rebuild when the buffer exceeds 1/8 of the tree or tombstones exceed 1/4 of it
+    static final int MIN_BUFFER = 64;
+    // Listings without coordinates are re-ranked by location among this many times k candidates
+    static final int LOCATION_CANDIDATES = 4;
+
+    private static final double LN_2 = Math.log(2);
+
+    private final Map<PartitionKey, Partition> partitions = new HashMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public void index(Property property) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(property.getId());
+            if (!"ACTIVE".equals(property.getStatus()) || property.getType() == null || property.getListingType() == null) {
+                return;
+            }
+            Entry entry = new Entry(PartitionKey.of(property), features(property), property.getLocationId());
+            entries.put(property.getId(), entry);
+            partitions.computeIfAbsent(entry.key, key -> new Partition()).insert(property.getId(), entry.features);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long propertyId) {
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(propertyId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            partitions.clear();
+            entries.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Nearest active listings of the same kind, closest first, the property itself excluded
+    public List<Long> similarTo(Property property, int limit) {
+        if (property.getType() == null || property.getListingType() == null) {
+            return new ArrayList<>();
+        }
+        PartitionKey key = PartitionKey.of(property);
+        double[] features = features(property);
+        boolean byLocation = !key.hasCoordinates && property.getLocationId() != null;
+        int k = byLocation ? limit * LOCATION_CANDIDATES : limit;
+
+        List<VantagePointTree.Neighbour> neighbours;
+        lock.readLock().lock();
+        try {
+            Partition partition = partitions.get(key);
+            if (partition == null) {
+                return new ArrayList<>();
+            }
+            neighbours = partition.nearest(features, k, property.getId());
+            if (byLocation) {
+                // Same location first, then by distance; the sort is stable
+                Long locationId = property.getLocationId();
+                neighbours = new ArrayList<>(neighbours);
+                neighbours.sort((a, b) -> Boolean.compare(
+                        !locationId.equals(entries.get(a.id()).locationId),
+                        !locationId.equals(entries.get(b.id()).locationId)));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Long> ids = new ArrayList<>(limit);
+        for (int i = 0; i < Math.min(limit, neighbours.size()); i++) {
+            ids.add(neighbours.get(i).id());
+        }
+        return ids;
+    }
+
+    private void removeUnlocked(Long propertyId) {
+        Entry entry = entries.remove(propertyId);
+        if (entry == null) {
+            return;
+        }
+        Partition partition = partitions.get(entry.key);
+        partition.delete(propertyId);
+        if (partition.isEmpty()) {
+            partitions.remove(entry.key);
+        }
+    }
+
+    static double[] features(Property property) {
+        double price = property.getPrice() != null ? Math.log1p(Math.max(0, property.getPrice().doubleValue())) / LN_2 : 0;
+        double area = property.getArea() != null ? Math.log1p(Math.max(0, property.getArea())) / LN_2 : 0;
+        double rooms = property.getRooms() != null ? property.getRooms() / ROOMS_PER_UNIT : 0;
+        if (property.getLatitude() == null || property.getLongitude() == null) {
+            return new double[]{price, area, rooms};
+        }
+        // Equirectangular projection, accurate enough at the scale of a neighbourhood
+        double y = property.getLatitude() * 110.574;
+        double x = property.getLongitude() * 111.320 * Math.cos(Math.toRadians(property.getLatitude()));
+        return new double[]{price, area, rooms, x / KM_PER_UNIT, y / KM_PER_UNIT};
+    }
+
+    private record PartitionKey(Property.PropertyType type, Property.ListingType listingType, boolean hasCoordinates) {
+        static PartitionKey of(Property property) {
+            return new PartitionKey(property.getType(), property.getListingType(),
+                    property.getLatitude() != null && property.getLongitude() != null);
+        }
+    }
+
+    private record Entry(PartitionKey key, double[] features, Long locationId) {
+    }
+
+    private static final class Partition {
+        private VantagePointTree tree = new VantagePointTree(new long[0], new double[0][]);
+        private final Map<Long, double[]> live = new HashMap<>();
+        private final Map<Long, double[]> buffer = new HashMap<>();
+        private Set<Long> treeIds = new HashSet<>();
+        private final Set<Long> tombstones = new HashSet<>(); // Ids still in the tree but deleted or moved
+
+        void insert(long id, double[] features) {
+            live.put(id, features);
+            buffer.put(id, features);
+            if (buffer.size() > Math.max(MIN_BUFFER, tree.size() / 8)) {
+                rebuild();
+            }
+        }
+
+        void delete(long id) {
+            live.remove(id);
+            buffer.remove(id);
+            if (treeIds.contains(id)) {
+                tombstones.add(id);
+            }
+            if (tombstones.size() > tree.size() / 4 && tombstones.size() > MIN_BUFFER) {
+                rebuild();
+            }
+        }
+
+        boolean isEmpty() {
+            return live.isEmpty();
+        }
+
+        List<VantagePointTree.Neighbour> nearest(double[] query, int k, Long exclude) {
+            VantagePointTree.Neighbours neighbours = new VantagePointTree.Neighbours(k);
+            tree.nearest(query, neighbours, id -> !tombstones.contains(id) && !Objects.equals(id, exclude));
+            for (Map.Entry<Long, double[]> entry : buffer.entrySet()) {
+                if (!entry.getKey().equals(exclude)) {
+                    neighbours.offer(entry.getKey(), VantagePointTree.distance(query, entry.getValue()));
+                }
+            }
+            return neighbours.sorted();
+        }
+
+        private void rebuild() {
+            long[] ids = new long[live.size()];
+            double[][] points = new double[live.size()][];
+            int i = 0;
+            for (Map.Entry<Long, double[]> entry : live.entrySet()) {
+                ids[i] = entry.getKey();
+                points[i++] = entry.getValue();
+            }
+            tree = new VantagePointTree(ids, points);
+            treeIds = new HashSet<>(live.keySet());
+            buffer.clear();
+            tombstones.clear();
+        }
+    }
+}
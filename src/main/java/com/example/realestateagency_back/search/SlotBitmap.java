@@ -0,0 +1,558 @@
+package com.example.realestateagency_back.search;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Compressed bitmap of non-negative ints in the Roaring layout: values are split by their
+ * high 16 bits into containers, each holding the low 16 bits either as a sorted array (sparse,
+ * up to {@value #ARRAY_LIMIT} values) or as a 65536-bit bitmap (dense). Not thread-safe.
+ * <p>
+ * The in-place operations reuse the containers the bitmap already holds, including the ones
+ * it dropped earlier, so a scratch bitmap stops allocating once it has seen its working set.
+ * They keep the kind of a container, a sparse bitmap container is still valid.
+ */
+final class SlotBitmap {
+
+    static final int ARRAY_LIMIT = 4096;
+
+    private char[] keys = new char[0];
+    private Container[] containers = new Container[0];
+    private int size;
+
+    void add(int value) {
+        char key = (char) (value >>> 16);
+        int index = find(key);
+        if (index < 0) {
+            index = -index - 1;
+            insert(index, key, new ArrayContainer());
+        }
+        containers[index] = containers[index].add((char) value);
+    }
+
+    void remove(int value) {
+        int index = find((char) (value >>> 16));
+        if (index < 0) {
+            return;
+        }
+        Container container = containers[index].remove((char) value);
+        if (container.cardinality() == 0) {
+            System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+            System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+            size--;
+        } else {
+            containers[index] = container;
+        }
+    }
+
+    boolean contains(int value) {
+        int index = find((char) (value >>> 16));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    void clear() {
+        keys = new char[0];
+        containers = new Container[0];
+        size = 0;
+    }
+
+    // Visits the values in ascending order
+    void forEach(IntConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, consumer);
+        }
+    }
+
+    // Visits the values in ascending order until the visitor returns false, false if it stopped
+    boolean forEachWhile(IntPredicate visitor) {
+        for (int i = 0; i < size; i++) {
+            if (!containers[i].forEachWhile(keys[i] << 16, visitor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int[] toArray() {
+        int[] values = new int[cardinality()];
+        int[] count = {0};
+        forEach(value -> values[count[0]++] = value);
+        return values;
+    }
+
+    static SlotBitmap and(SlotBitmap left, SlotBitmap right) {
+        SlotBitmap result = new SlotBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < left.size && j < right.size) {
+            if (left.keys[i] < right.keys[j]) {
+                i++;
+            } else if (left.keys[i] > right.keys[j]) {
+                j++;
+            } else {
+                Container container = left.containers[i].and(right.containers[j]);
+                if (container.cardinality() > 0) {
+                    result.append(left.keys[i], container);
+                }
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    static SlotBitmap or(List<SlotBitmap> bitmaps) {
+        SlotBitmap result = new SlotBitmap();
+        for (SlotBitmap bitmap : bitmaps) {
+            for (int i = 0; i < bitmap.size; i++) {
+                int index = result.find(bitmap.keys[i]);
+                if (index < 0) {
+                    result.insert(-index - 1, bitmap.keys[i], bitmap.containers[i].copy());
+                } else {
+                    result.containers[index] = result.containers[index].or(bitmap.containers[i]);
+                }
+            }
+        }
+        return result;
+    }
+
+    // Makes this bitmap a copy of the other one
+    void copyFrom(SlotBitmap other) {
+        ensureCapacity(other.size);
+        for (int i = 0; i < other.size; i++) {
+            keys[i] = other.keys[i];
+            containers[i] = other.containers[i].copyInto(containers[i]);
+        }
+        size = other.size;
+    }
+
+    // Keeps only the values also in the other bitmap
+    void andInPlace(SlotBitmap other) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            while (j < other.size && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j == other.size || other.keys[j] != keys[i]) {
+                continue;
+            }
+            Container container = containers[i].andInPlace(other.containers[j]);
+            if (container.cardinality() == 0) {
+                continue;
+            }
+            // Swapped rather than overwritten, the dropped container stays available for reuse
+            Container dropped = containers[kept];
+            containers[kept] = container;
+            if (kept != i) {
+                containers[i] = dropped;
+            }
+            keys[kept++] = keys[i];
+        }
+        size = kept;
+    }
+
+    // Adds the values of the other bitmap to this one
+    void orInPlace(SlotBitmap other) {
+        for (int j = 0; j < other.size; j++) {
+            int index = find(other.keys[j]);
+            if (index >= 0) {
+                containers[index] = containers[index].orInPlace(other.containers[j]);
+            } else {
+                Container spare = size < containers.length ? containers[size] : null;
+                insert(-index - 1, other.keys[j], other.containers[j].copyInto(spare));
+            }
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > keys.length) {
+            keys = Arrays.copyOf(keys, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+        }
+    }
+
+    private int find(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insert(int index, char key, Container container) {
+        if (size == keys.length) {
+            ensureCapacity(Math.max(4, size * 2));
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void append(char key, Container container) {
+        insert(size, key, container);
+    }
+
+    private abstract static class Container {
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        abstract void forEach(int high, IntConsumer consumer);
+
+        abstract boolean forEachWhile(int high, IntPredicate visitor);
+
+        abstract Container and(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container copy();
+
+        // Copy held in the target when it is of the same kind, a new one otherwise
+        abstract Container copyInto(Container target);
+
+        abstract Container andInPlace(Container other);
+
+        abstract Container orInPlace(Container other);
+    }
+
+    private static final class ArrayContainer extends Container {
+        private char[] values;
+        private int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_LIMIT) {
+                return toBitmap().add(value);
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, Math.max(4, values.length * 2)));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer consumer) {
+            for (int i = 0; i < cardinality; i++) {
+                consumer.accept(high | values[i]);
+            }
+        }
+
+        @Override
+        boolean forEachWhile(int high, IntPredicate visitor) {
+            for (int i = 0; i < cardinality; i++) {
+                if (!visitor.test(high | values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i])) {
+                    result[count++] = values[i];
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.copy().or(this);
+            }
+            Container result = copy();
+            ArrayContainer array = (ArrayContainer) other;
+            for (int i = 0; i < array.cardinality; i++) {
+                result = result.add(array.values[i]);
+            }
+            return result;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(4, cardinality)), cardinality);
+        }
+
+        @Override
+        Container copyInto(Container target) {
+            if (!(target instanceof ArrayContainer array)) {
+                return copy();
+            }
+            if (array.values.length < cardinality) {
+                array.values = new char[Math.max(4, cardinality)];
+            }
+            System.arraycopy(values, 0, array.values, 0, cardinality);
+            array.cardinality = cardinality;
+            return array;
+        }
+
+        @Override
+        Container andInPlace(Container other) {
+            int count = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i])) {
+                    values[count++] = values[i];
+                }
+            }
+            cardinality = count;
+            return this;
+        }
+
+        @Override
+        Container orInPlace(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.copy().orInPlace(this);
+            }
+            ArrayContainer array = (ArrayContainer) other;
+            int total = cardinality + array.cardinality;
+            if (total > ARRAY_LIMIT) {
+                return toBitmap().orInPlace(array);
+            }
+            if (values.length < total) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, Math.max(total, values.length * 2)));
+            }
+            // Merged from the end, so no value is overwritten before it is read
+            int i = cardinality - 1;
+            int j = array.cardinality - 1;
+            int k = total - 1;
+            while (j >= 0) {
+                if (i >= 0 && values[i] > array.values[j]) {
+                    values[k--] = values[i--];
+                } else if (i >= 0 && values[i] == array.values[j]) {
+                    values[k--] = values[i--];
+                    j--;
+                } else {
+                    values[k--] = array.values[j--];
+                }
+            }
+            // Duplicates left a gap at the front, which the merged run closes
+            int shift = k + 1 - (i + 1);
+            if (shift > 0) {
+                System.arraycopy(values, k + 1, values, i + 1, total - (k + 1));
+            }
+            cardinality = total - shift;
+            return this;
+        }
+
+        private BitmapContainer toBitmap() {
+            BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < cardinality; i++) {
+                bitmap.add(values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] words;
+        private int cardinality;
+
+        BitmapContainer() {
+            this(new long[1024], 0);
+        }
+
+        private BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) == 0) {
+                words[value >>> 6] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long bit = 1L << value;
+            if ((words[value >>> 6] & bit) != 0) {
+                words[value >>> 6] &= ~bit;
+                cardinality--;
+                if (cardinality <= ARRAY_LIMIT) {
+                    return toArray();
+                }
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        void forEach(int high, IntConsumer consumer) {
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    consumer.accept(high | (w << 6) + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        boolean forEachWhile(int high, IntPredicate visitor) {
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    if (!visitor.test(high | (w << 6) + Long.numberOfTrailingZeros(word))) {
+                        return false;
+                    }
+                    word &= word - 1;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            long[] result = new long[1024];
+            int count = 0;
+            for (int w = 0; w < result.length; w++) {
+                result[w] = words[w] & otherWords[w];
+                count += Long.bitCount(result[w]);
+            }
+            BitmapContainer bitmap = new BitmapContainer(result, count);
+            return count <= ARRAY_LIMIT ? bitmap.toArray() : bitmap;
+        }
+
+        // Mutates this container, callers pass a copy they own
+        @Override
+        Container or(Container other) {
+            if (other instanceof ArrayContainer array) {
+                for (int i = 0; i < array.cardinality; i++) {
+                    add(array.values[i]);
+                }
+                return this;
+            }
+            long[] otherWords = ((BitmapContainer) other).words;
+            int count = 0;
+            for (int w = 0; w < words.length; w++) {
+                words[w] |= otherWords[w];
+                count += Long.bitCount(words[w]);
+            }
+            cardinality = count;
+            return this;
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        Container copyInto(Container target) {
+            if (!(target instanceof BitmapContainer bitmap)) {
+                return copy();
+            }
+            System.arraycopy(words, 0, bitmap.words, 0, words.length);
+            bitmap.cardinality = cardinality;
+            return bitmap;
+        }
+
+        @Override
+        Container andInPlace(Container other) {
+            int count = 0;
+            if (other instanceof BitmapContainer bitmap) {
+                for (int w = 0; w < words.length; w++) {
+                    words[w] &= bitmap.words[w];
+                    count += Long.bitCount(words[w]);
+                }
+            } else {
+                // Walks the sorted values once, building the mask of each word
+                ArrayContainer array = (ArrayContainer) other;
+                int i = 0;
+                for (int w = 0; w < words.length; w++) {
+                    long mask = 0;
+                    while (i < array.cardinality && array.values[i] >>> 6 == w) {
+                        mask |= 1L << array.values[i++];
+                    }
+                    words[w] &= mask;
+                    count += Long.bitCount(words[w]);
+                }
+            }
+            cardinality = count;
+            return this;
+        }
+
+        @Override
+        Container orInPlace(Container other) {
+            return or(other);
+        }
+
+        private ArrayContainer toArray() {
+            char[] values = new char[Math.max(4, cardinality)];
+            int[] count = {0};
+            forEach(0, value -> values[count[0]++] = (char) value);
+            return new ArrayContainer(values, cardinality);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.realestateagency_back.search;
+
+/**
+ * How the free-text predicates of a search (title, location, keywords) are evaluated,
+ * selected with the {@code search.text-mode} property.
+ */
+public enum TextSearchMode {
+    // In-process inverted index, falling back to LIKE until it is loaded
+    INDEX,
+    // Case-insensitive ILIKE served by the pg_trgm GIN indexes, ranked by similarity
+    TRIGRAM,
+    // Plain case-sensitive LIKE, the historical behaviour
+    LIKE
+}
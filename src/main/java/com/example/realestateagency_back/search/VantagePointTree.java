@@ -0,0 +1,186 @@
+package com.example.realestateagency_back.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.function.LongPredicate;
+
+/**
+ * Static vantage-point tree over points in Euclidean space. Each node keeps a point and the
+ * median distance from it to the points below; a k-nearest-neighbour search only descends
+ * into the half that can still hold a point closer than the current k-th best. Built once,
+ * callers handle inserts and deletes around it. Not thread-safe.
+ */
+final class VantagePointTree {
+
+    private final long[] ids;
+    private final double[][] points;
+    // Node i covers the slots [i, end[i]): slot i is the vantage point, then the inside half
+    // up to split[i], then the outside half
+    private final int[] split;
+    private final int[] end;
+    private final double[] radius;
+
+    VantagePointTree(long[] ids, double[][] points) {
+        this.ids = ids.clone();
+        this.points = points.clone();
+        this.split = new int[ids.length];
+        this.end = new int[ids.length];
+        this.radius = new double[ids.length];
+        build(0, ids.length, new Random(ids.length), new double[ids.length]);
+    }
+
+    int size() {
+        return ids.length;
+    }
+
+    // Offers the accepted points closest to the query to the bounded max-heap of neighbours
+    void nearest(double[] query, Neighbours neighbours, LongPredicate accept) {
+        if (ids.length > 0) {
+            search(0, query, neighbours, accept);
+        }
+    }
+
+    static double distance(double[] a, double[] b) {
+        double sum = 0;
+        for (int i = 0; i < a.length; i++) {
+            double delta = a[i] - b[i];
+            sum += delta * delta;
+        }
+        return Math.sqrt(sum);
+    }
+
+    private void build(int from, int to, Random random, double[] distances) {
+        if (from >= to) {
+            return;
+        }
+        end[from] = to;
+        swap(from, from + random.nextInt(to - from));
+        int first = from + 1;
+        if (first == to) {
+            split[from] = to;
+            return;
+        }
+        for (int i = first; i < to; i++) {
+            distances[i] = distance(points[from], points[i]);
+        }
+        int median = first + (to - first) / 2;
+        select(first, to - 1, median, distances);
+        radius[from] = distances[median];
+        split[from] = median + 1;
+        build(first, median + 1, random, distances);
+        build(median + 1, to, random, distances);
+    }
+
+    private void search(int node, double[] query, Neighbours neighbours, LongPredicate accept) {
+        double d = distance(query, points[node]);
+        if (accept.test(ids[node])) {
+            neighbours.offer(ids[node], d);
+        }
+        boolean hasInside = node + 1 < split[node];
+        boolean hasOutside = split[node] < end[node];
+        // Visit the side of the query first, the other one only if the k-th best ball crosses it
+        if (d <= radius[node]) {
+            if (hasInside) {
+                search(node + 1, query, neighbours, accept);
+            }
+            if (hasOutside && d + neighbours.bound() > radius[node]) {
+                search(split[node], query, neighbours, accept);
+            }
+        } else {
+            if (hasOutside) {
+                search(split[node], query, neighbours, accept);
+            }
+            if (hasInside && d - neighbours.bound() <= radius[node]) {
+                search(node + 1, query, neighbours, accept);
+            }
+        }
+    }
+
+    // Quickselect on the distances, moving the ids and points along
+    private void select(int left, int right, int k, double[] distances) {
+        while (left < right) {
+            double pivot = distances[(left + right) >>> 1];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (distances[i] < pivot) {
+                    i++;
+                }
+                while (distances[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i, j, distances);
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int i, int j) {
+        long id = ids[i];
+        ids[i] = ids[j];
+        ids[j] = id;
+        double[] point = points[i];
+        points[i] = points[j];
+        points[j] = point;
+    }
+
+    private void swap(int i, int j, double[] distances) {
+        swap(i, j);
+        double distance = distances[i];
+        distances[i] = distances[j];
+        distances[j] = distance;
+    }
+
+    /**
+     * The k best neighbours seen so far, as a max-heap on distance so the worst one is evicted
+     * first.
+     */
+    static final class Neighbours {
+        private static final Comparator<Neighbour> NEAREST_FIRST =
+                Comparator.comparingDouble(Neighbour::distance).thenComparingLong(Neighbour::id);
+
+        private final int k;
+        private final PriorityQueue<Neighbour> heap;
+
+        Neighbours(int k) {
+            this.k = k;
+            this.heap = new PriorityQueue<>(k + 1, NEAREST_FIRST.reversed());
+        }
+
+        void offer(long id, double distance) {
+            if (heap.size() < k) {
+                heap.add(new Neighbour(id, distance));
+            } else if (distance < heap.peek().distance()) {
+                heap.poll();
+                heap.add(new Neighbour(id, distance));
+            }
+        }
+
+        // Distance a point must beat to enter, infinite until k points are held
+        double bound() {
+            return heap.size() < k ? Double.POSITIVE_INFINITY : heap.peek().distance();
+        }
+
+        List<Neighbour> sorted() {
+            List<Neighbour> sorted = new ArrayList<>(heap);
+            sorted.sort(NEAREST_FIRST);
+            return sorted;
+        }
+    }
+
+    record Neighbour(long id, double distance) {
+    }
+}
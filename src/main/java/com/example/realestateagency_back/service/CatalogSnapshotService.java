@@ -0,0 +1,242 @@
+package com.example.realestateagency_back.service;
+
+import com.example.realestateagency_back.dto.PropertyDTO;
+import com.example.realestateagency_back.dto.PropertySearchCriteriaDTO;
+import com.example.realestateagency_back.search.SearchResultCache;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Hot public catalog responses kept as ready-to-send bytes: the JSON and its gzip encoding,
+ * built once per catalog version instead of serialising and compressing on every request.
+ * A snapshot remembers the {@link SearchResultCache} epochs it was built under and is rebuilt
+ * on the first request after they move; concurrent rebuilds of one snapshot share a single
+ * run. The cache is bounded by the total size of the bytes it holds, and a body is serialised
+ * straight into a buffer that stops at that bound: the full catalog is streamed chunk by chunk,
+ * so an oversized catalog is abandoned without ever being held on the heap.
+ * <p>
+ * Callers serve the response the usual way when no snapshot is returned: for a search seen
+ * only once so far, or for a body that would not fit in the cache on its own.
+ */
+@Service
+@Slf4j
+public class CatalogSnapshotService {
+
+    // Snapshots are built on the request thread, where the best ratio is not worth its CPU
+    private static final int GZIP_LEVEL = Deflater.DEFAULT_COMPRESSION;
+    private static final int MAX_TRACKED_KEYS = 10_000;
+
+    private final PropertyService propertyService;
+    private final SearchResultCache searchResultCache;
+    private final SingleFlight singleFlight;
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+    private final Cache<String, Snapshot> snapshots;
+    private final Cache<String, Boolean> seenSearches; // Searches requested once, snapshotted on the next hit
+    private final Cache<String, long[]> oversized; // Epochs under which the body did not fit
+
+    public CatalogSnapshotService(PropertyService propertyService,
+                                  SearchResultCache searchResultCache,
+                                  SingleFlight singleFlight,
+                                  ObjectMapper objectMapper,
+                                  @Value("${snapshots.max-bytes:67108864}") long maxBytes) {
+        this.propertyService = propertyService;
+        this.searchResultCache = searchResultCache;
+        this.singleFlight = singleFlight;
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxBytes;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, Snapshot snapshot) -> snapshot.json().length + snapshot.gzip().length)
+                .recordStats()
+                .build();
+        this.seenSearches = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_KEYS)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .build();
+        this.oversized = Caffeine.newBuilder()
+                .maximumSize(MAX_TRACKED_KEYS)
+                .build();
+    }
+
+    public Optional<Snapshot> getAllProperties() {
+        // Unrestricted criteria depend on the global epoch, which every property write moves
+        return snapshot("all", new PropertySearchCriteriaDTO(), generator -> {
+            generator.writeStartArray();
+            propertyService.streamAllProperties(chunk -> {
+                try {
+                    for (PropertyDTO property : chunk) {
+                        objectMapper.writeValue(generator, property);
+                    }
+                } catch (IOException ex) {
+                    // Also ends the stream of the remaining chunks once the limit is hit
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            generator.writeEndArray();
+        });
+    }
+
+    public Optional<Snapshot> searchProperties(PropertySearchCriteriaDTO criteria) {
+        String key = SearchResultCache.key("search", criteria);
+        if (snapshots.getIfPresent(key) == null && seenSearches.asMap().putIfAbsent(key, Boolean.TRUE) == null) {
+            return Optional.empty();
+        }
+        return snapshot(key, criteria, generator -> objectMapper.writeValue(generator, propertyService.searchProperties(criteria)));
+    }
+
+    private Optional<Snapshot> snapshot(String key, PropertySearchCriteriaDTO criteria, JsonBody body) {
+        long[] stamp = searchResultCache.stamp(criteria);
+        Snapshot snapshot = snapshots.getIfPresent(key);
+        if (snapshot != null && Arrays.equals(snapshot.stamp(), stamp)) {
+            return Optional.of(snapshot);
+        }
+        // Known not to fit until the catalog changes, do not serialise it again for nothing
+        if (Arrays.equals(oversized.getIfPresent(key), stamp)) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(singleFlight.execute("catalogSnapshot", key, () -> {
+            // Taken before the data is read, so a write committed meanwhile leaves the snapshot stale
+            long[] current = searchResultCache.stamp(criteria);
+            Snapshot built = build(current, body);
+            if (built == null) {
+                log.warn("Catalog snapshot {} exceeds {} bytes, serving it without a snapshot", key, maxBytes);
+                oversized.put(key, current);
+                snapshots.invalidate(key);
+                return null;
+            }
+            oversized.invalidate(key);
+            snapshots.put(key, built);
+            log.debug("Built catalog snapshot {}: {} bytes of JSON, {} gzipped", key, built.json().length, built.gzip().length);
+            return built;
+        }));
+    }
+
+    // Null when the JSON and gzip bodies together would not fit in the cache
+    private Snapshot build(long[] stamp, JsonBody body) {
+        BoundedOutputStream json = new BoundedOutputStream(maxBytes);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(json)) {
+            body.writeTo(generator);
+        } catch (IOException | UncheckedIOException ex) {
+            if (exceedsLimit(ex)) {
+                return null;
+            }
+            throw ex instanceof UncheckedIOException unchecked ? unchecked : new UncheckedIOException((IOException) ex);
+        }
+        byte[] bytes = json.toByteArray();
+        byte[] gzip = gzip(bytes);
+        if ((long) bytes.length + gzip.length > maxBytes) {
+            return null;
+        }
+        return new Snapshot(stamp, bytes, gzip, etag(bytes));
+    }
+
+    // Jackson and the streaming sink may wrap the exception of the stream depending on where the write happened
+    private static boolean exceedsLimit(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof LimitExceededException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(64, json.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes) {
+            {
+                def.setLevel(GZIP_LEVEL);
+            }
+        }) {
+            gzip.write(json);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String etag(byte[] json) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    @FunctionalInterface
+    private interface JsonBody {
+        void writeTo(JsonGenerator generator) throws IOException;
+    }
+
+    /**
+     * Prebuilt bodies of one response. Each content coding is a different representation, so
+     * each gets its own strong entity tag.
+     */
+    public record Snapshot(long[] stamp, byte[] json, byte[] gzip, String hash) {
+
+        public byte[] body(boolean gzipped) {
+            return gzipped ? gzip : json;
+        }
+
+        public String etag(boolean gzipped) {
+            return "\"" + hash + (gzipped ? "-gz" : "") + "\"";
+        }
+    }
+
+    // Stops the serialisation as soon as the body outgrows the cache
+    private static final class BoundedOutputStream extends OutputStream {
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private final long limit;
+
+        private BoundedOutputStream(long limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            ensureCapacity(1);
+            buffer.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            ensureCapacity(len);
+            buffer.write(b, off, len);
+        }
+
+        private void ensureCapacity(int length) throws LimitExceededException {
+            if (buffer.size() + (long) length > limit) {
+                throw new LimitExceededException();
+            }
+        }
+
+        private byte[] toByteArray() {
+            return buffer.toByteArray();
+        }
+    }
+
+    private static final class LimitExceededException extends IOException {
+        private LimitExceededException() {
+            super("Snapshot size limit exceeded");
+        }
+    }
+}
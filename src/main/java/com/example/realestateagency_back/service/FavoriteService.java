@@ -4,18 +4,23 @@ import com.example.realestateagency_back.dto.FavoriteDTO;
 import com.example.realestateagency_back.entity.Favorite;
 import com.example.realestateagency_back.entity.Property;
 import com.example.realestateagency_back.entity.User;
+import com.example.realestateagency_back.event.FavoriteChangedEvent;
 import com.example.realestateagency_back.exception.ResourceNotFoundException;
 import com.example.realestateagency_back.repository.FavoriteRepository;
+import com.example.realestateagency_back.repository.FieldProjection;
 import com.example.realestateagency_back.repository.PropertyRepository;
 import com.example.realestateagency_back.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -25,26 +30,33 @@ public class FavoriteService {
     private final FavoriteRepository favoriteRepository;
     private final UserRepository userRepository;
     private final PropertyRepository propertyRepository;
+    private final ListingCardService listingCardService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FieldProjection fieldProjection;
 
     public List<FavoriteDTO> getAllFavorites() {
         log.info("Fetching all favorites");
-        return favoriteRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return favoriteRepository.findAllDTOs();
     }
 
     public List<FavoriteDTO> getFavoritesByUserId(Long userId) {
         log.info("Fetching favorites for user with id: {}", userId);
-        return favoriteRepository.findByUserId(userId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return favoriteRepository.findDTOsByUserId(userId);
     }
 
     public List<FavoriteDTO> getFavoritesByPropertyId(Long propertyId) {
         log.info("Fetching favorites for property with id: {}", propertyId);
-        return favoriteRepository.findByPropertyId(propertyId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return favoriteRepository.findDTOsByPropertyId(propertyId);
+    }
+
+    // Sparse variant of the list endpoints, filters left null are not applied
+    public List<Map<String, Object>> getFavoriteFields(Long userId, Long propertyId, String fields) {
+        log.info("Fetching fields {} of favorites for user: {} and property: {}", fields, userId, propertyId);
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("user.id", userId);
+        filters.put("property.id", propertyId);
+        return fieldProjection.find(Favorite.class,
+                SparseFieldset.FAVORITE.columns(SparseFieldset.FAVORITE.parse(fields)), filters, Sort.by("id"));
     }
 
     public FavoriteDTO getFavoriteById(Long id) {
@@ -85,6 +97,8 @@ public class FavoriteService {
                 .build();
 
         Favorite savedFavorite = favoriteRepository.save(favorite);
+        listingCardService.markDirty(List.of(propertyId));
+        eventPublisher.publishEvent(FavoriteChangedEvent.added(propertyId, savedFavorite.getDateAdded()));
         log.debug("Favorite added successfully with id: {}", savedFavorite.getId());
         return convertToDTO(savedFavorite);
     }
@@ -99,17 +113,22 @@ public class FavoriteService {
                 });
 
         favoriteRepository.delete(favorite);
+        listingCardService.markDirty(List.of(propertyId));
+        eventPublisher.publishEvent(FavoriteChangedEvent.removed(propertyId, favorite.getDateAdded()));
         log.debug("Favorite removed successfully for user: {} and property: {}", userId, propertyId);
     }
 
     @Transactional
     public void deleteFavorite(Long id) {
         log.info("Deleting favorite with id: {}", id);
-        if (!favoriteRepository.existsById(id)) {
-            log.error("Favorite not found with id: {}", id);
-            throw new ResourceNotFoundException("Favorite not found with id " + id);
-        }
-        favoriteRepository.deleteById(id);
+        Favorite favorite = favoriteRepository.findById(id)
+                .orElseThrow(() -> {
+                    log.error("Favorite not found with id: {}", id);
+                    return new ResourceNotFoundException("Favorite not found with id " + id);
+                });
+        favoriteRepository.delete(favorite);
+        listingCardService.markDirty(List.of(favorite.getProperty().getId()));
+        eventPublisher.publishEvent(FavoriteChangedEvent.removed(favorite.getProperty().getId(), favorite.getDateAdded()));
         log.debug("Favorite deleted successfully with id: {}", id);
     }
 
@@ -8,9 +8,11 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.Collection;
 import java.util.UUID;
 
 @Service
@@ -80,4 +82,23 @@ public class FileStorageService {
             throw new FileStorageException("Could not delete file " + fileName, ex);
         }
     }
-}
\ No newline at end of file
+
+    // Best effort removal of many files in one pass, failures are logged and skipped
+    public int deleteFiles(Collection<String> fileNames) {
+        log.info("Deleting {} files", fileNames.size());
+        int deleted = 0;
+        for (String fileName : fileNames) {
+            try {
+                if (Files.deleteIfExists(this.fileStorageLocation.resolve(fileName))) {
+                    deleted++;
+                } else {
+                    log.warn("File not found for deletion: {}", fileName);
+                }
+            } catch (IOException | InvalidPathException ex) {
+                log.error("Could not delete file: {}", fileName, ex);
+            }
+        }
+        log.debug("Deleted {} of {} files", deleted, fileNames.size());
+        return deleted;
+    }
+}
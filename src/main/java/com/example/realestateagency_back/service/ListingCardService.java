@@ -0,0 +1,116 @@
+package com.example.realestateagency_back.service;
+
+import com.example.realestateagency_back.event.PropertyChangedEvent;
+import com.example.realestateagency_back.search.CatalogVersion;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps the listing_cards read model in step with the write model. Writes only mark the
+ * affected properties; their cards are recomputed from the source tables with one upsert per
+ * chunk just before the surrounding transaction commits, so a card is never visible ahead of
+ * or behind the rows it was built from. Cards of deleted properties go with the FK cascade.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ListingCardService {
+
+    static final int REFRESH_CHUNK_SIZE = 1000;
+
+    private static final String UPSERT_CARDS = "INSERT INTO listing_cards (property_id, title, price, area, rooms, " +
+            "location, location_id, latitude, longitude, status, type, listing_type, publication_date, thumbnail_url, " +
+            "admin_username, favorite_count, updated_at) " +
+            "SELECT p.id, p.title, p.price, p.area, p.rooms, p.location, p.location_id, p.latitude, p.longitude, " +
+            "p.status, p.type, p.listing_type, p.publication_date, " +
+            "(SELECT ph.url FROM photos ph WHERE ph.property_id = p.id ORDER BY ph.order_num, ph.id LIMIT 1), " +
+            "a.username, " +
+            "(SELECT COUNT(*) FROM favorites f WHERE f.property_id = p.id), " +
+            "p.updated_at " +
+            "FROM properties p LEFT JOIN admins a ON a.id = p.admin_id WHERE p.id IN (:ids) " +
+            "ON CONFLICT (property_id) DO UPDATE SET title = EXCLUDED.title, price = EXCLUDED.price, " +
+            "area = EXCLUDED.area, rooms = EXCLUDED.rooms, location = EXCLUDED.location, " +
+            "location_id = EXCLUDED.location_id, latitude = EXCLUDED.latitude, longitude = EXCLUDED.longitude, " +
+            "status = EXCLUDED.status, type = EXCLUDED.type, listing_type = EXCLUDED.listing_type, " +
+            "publication_date = EXCLUDED.publication_date, thumbnail_url = EXCLUDED.thumbnail_url, " +
+            "admin_username = EXCLUDED.admin_username, favorite_count = EXCLUDED.favorite_count, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final CatalogVersion catalogVersion;
+
+    // Synchronous on purpose: the card is rebuilt inside the transaction of the write
+    @EventListener
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        if (event.getChangeType() != PropertyChangedEvent.ChangeType.DELETED) {
+            markDirty(List.of(event.getPropertyId()));
+        }
+    }
+
+    /**
+     * Schedules the cards of these properties for a rebuild before the current transaction
+     * commits, or rebuilds them right away when there is no transaction.
+     */
+    public void markDirty(Collection<Long> propertyIds) {
+        if (propertyIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            refresh(propertyIds);
+            catalogVersion.bump();
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<Long> dirty = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, dirty);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    // Pending entity changes must reach the tables the cards are built from
+                    entityManager.flush();
+                    refresh(dirty);
+                }
+
+                @Override
+                public void afterCommit() {
+                    // Cards carry favorite counts, which no property event covers
+                    catalogVersion.bump();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ListingCardService.this);
+                }
+            });
+            pending = dirty;
+        }
+        pending.addAll(propertyIds);
+    }
+
+    private void refresh(Collection<Long> propertyIds) {
+        List<Long> ids = new ArrayList<>(propertyIds);
+        int written = 0;
+        for (int from = 0; from < ids.size(); from += REFRESH_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + REFRESH_CHUNK_SIZE, ids.size()));
+            written += jdbcTemplate.update(UPSERT_CARDS, Map.of("ids", chunk));
+        }
+        log.debug("Rebuilt {} listing cards", written);
+    }
+}
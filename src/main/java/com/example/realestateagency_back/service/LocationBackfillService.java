@@ -0,0 +1,114 @@
+package com.example.realestateagency_back.service;
+
+import com.example.realestateagency_back.config.CacheConfig;
+import com.example.realestateagency_back.dto.LocationBackfillReportDTO;
+import com.example.realestateagency_back.search.SearchResultCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps the location strings of listings written before the location dimension existed to
+ * location ids. Walks the distinct pending strings in batches, keyset on the string itself,
+ * and sets {@code location_id} with one batched UPDATE per batch. Safe to run again: only
+ * rows without an id are touched.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LocationBackfillService {
+
+    static final int BACKFILL_BATCH_SIZE = 500;
+
+    private static final String SELECT_PENDING = "SELECT DISTINCT location FROM properties " +
+            "WHERE location_id IS NULL AND location IS NOT NULL AND location > ? ORDER BY location LIMIT ?";
+    private static final String UPDATE_PENDING =
+            "UPDATE properties SET location_id = ? WHERE location_id IS NULL AND location = ?";
+    private static final String ANY_PENDING =
+            "SELECT EXISTS (SELECT 1 FROM properties WHERE location_id IS NULL AND location IS NOT NULL)";
+    private static final String UPDATE_PENDING_CARDS =
+            "UPDATE listing_cards SET location_id = ? WHERE location_id IS NULL AND location = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LocationService locationService;
+    private final CacheManager cacheManager;
+    private final SearchResultCache searchResultCache;
+
+    // A no-op once everything is mapped, the pending rows have their own partial index
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        backfill();
+    }
+
+    public LocationBackfillReportDTO backfill() {
+        log.info("Backfilling property locations");
+        long start = System.nanoTime();
+        int locations = 0;
+        int mapped = 0;
+        int unmapped = 0;
+        String after = "";
+
+        while (true) {
+            List<String> pending = jdbcTemplate.queryForList(SELECT_PENDING, String.class, after, BACKFILL_BATCH_SIZE);
+            if (pending.isEmpty()) {
+                break;
+            }
+            after = pending.get(pending.size() - 1);
+            locations += pending.size();
+
+            Map<String, Long> ids = locationService.internAll(pending);
+            List<Object[]> updates = new ArrayList<>(ids.size());
+            for (String location : pending) {
+                Long id = ids.get(location);
+                if (id == null) {
+                    unmapped++;
+                } else {
+                    updates.add(new Object[]{id, location});
+                }
+            }
+            if (updates.isEmpty()) {
+                continue;
+            }
+            int[] counts = transactionTemplate.execute(status -> {
+                jdbcTemplate.batchUpdate(UPDATE_PENDING_CARDS, updates);
+                return jdbcTemplate.batchUpdate(UPDATE_PENDING, updates);
+            });
+            for (int count : counts) {
+                // Drivers may report SUCCESS_NO_INFO (-2) for rewritten batches
+                mapped += Math.max(count, 0);
+            }
+            log.debug("Mapped a batch of {} location strings", updates.size());
+        }
+
+        if (mapped > 0) {
+            // Cached details and city searches predate the location ids
+            Cache details = cacheManager.getCache(CacheConfig.PROPERTY_DETAILS);
+            if (details != null) {
+                details.clear();
+            }
+            searchResultCache.invalidateAll();
+        }
+        // Strings without any letter or digit stay unmapped, they keep the text fallback on
+        locationService.setUnmappedLocations(Boolean.TRUE.equals(jdbcTemplate.queryForObject(ANY_PENDING, Boolean.class)));
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Location backfill finished: {} locations, {} properties mapped, {} locations left unmapped in {} ms",
+                locations, mapped, unmapped, durationMillis);
+        return LocationBackfillReportDTO.builder()
+                .locations(locations)
+                .mappedProperties(mapped)
+                .unmappedLocations(unmapped)
+                .durationMillis(durationMillis)
+                .build();
+    }
+}
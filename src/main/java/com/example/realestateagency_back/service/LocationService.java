@@ -0,0 +1,143 @@
+package com.example.realestateagency_back.service;
+
+import com.example.realestateagency_back.dto.PropertySearchCriteriaDTO;
+import com.example.realestateagency_back.entity.Location;
+import com.example.realestateagency_back.repository.LocationRepository;
+import com.example.realestateagency_back.search.LocationSuggester;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Interns free-text locations into the {@code locations} dimension and turns location filters
+ * into sets of location ids. Interning joins the caller's transaction, so a listing write holds
+ * a single pooled connection; ids are only cached once that transaction has committed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LocationService {
+
+    private final LocationRepository locationRepository;
+    private final Map<String, Long> idsByNormalizedName = new ConcurrentHashMap<>();
+    // Until the backfill finds no row left without an id, location filters also match the raw text
+    private volatile boolean unmappedLocations = true;
+
+    public boolean hasUnmappedLocations() {
+        return unmappedLocations;
+    }
+
+    void setUnmappedLocations(boolean unmappedLocations) {
+        this.unmappedLocations = unmappedLocations;
+    }
+
+    // Null for a missing location or one without any letter or digit
+    @Transactional
+    public Long intern(String location) {
+        if (location == null) {
+            return null;
+        }
+        return internAll(List.of(location)).get(location);
+    }
+
+    // Keyed by the strings as given, strings that normalize to nothing are left out
+    @Transactional
+    public Map<String, Long> internAll(Collection<String> locations) {
+        Map<String, Long> ids = new HashMap<>();
+        // Upserted in name order, so concurrent writers lock shared rows in the same order
+        Map<String, List<String>> missing = new TreeMap<>();
+        for (String location : locations) {
+            String normalized = LocationSuggester.normalize(location);
+            if (normalized.isEmpty()) {
+                // Written without an id, so the text fallback is needed again
+                unmappedLocations = true;
+                continue;
+            }
+            Long id = idsByNormalizedName.get(normalized);
+            if (id != null) {
+                ids.put(location, id);
+            } else {
+                missing.computeIfAbsent(normalized, n -> new ArrayList<>()).add(location);
+            }
+        }
+        if (missing.isEmpty()) {
+            return ids;
+        }
+
+        log.debug("Interning {} new locations", missing.size());
+        Map<String, Long> interned = new HashMap<>();
+        for (Map.Entry<String, List<String>> entry : missing.entrySet()) {
+            Location location = parse(entry.getValue().get(0), entry.getKey());
+            Long id = locationRepository.upsert(location.getName(), location.getNormalizedName(),
+                    location.getCity(), location.getDistrict());
+            interned.put(entry.getKey(), id);
+            for (String raw : entry.getValue()) {
+                ids.put(raw, id);
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                idsByNormalizedName.putAll(interned);
+            }
+        });
+        return ids;
+    }
+
+    /**
+     * Location ids allowed by the location part of the criteria, {@code null} when it does not
+     * restrict. The free-text location matches any location whose normalized name contains it.
+     */
+    public Set<Long> resolveFilter(PropertySearchCriteriaDTO criteria) {
+        Set<Long> ids = null;
+        if (criteria.getLocationIds() != null && !criteria.getLocationIds().isEmpty()) {
+            ids = new HashSet<>(criteria.getLocationIds());
+        }
+        if (criteria.getCity() != null && !criteria.getCity().isBlank()) {
+            ids = intersect(ids, locationRepository.findIdsByCity(criteria.getCity().trim()));
+        }
+        String fragment = LocationSuggester.normalize(criteria.getLocation());
+        if (!fragment.isEmpty()) {
+            ids = intersect(ids, locationRepository.findIdsByNormalizedNameContaining(fragment));
+        }
+        if (ids != null) {
+            log.debug("Location filter resolved to {} locations", ids.size());
+        }
+        return ids;
+    }
+
+    private static Set<Long> intersect(Set<Long> ids, List<Long> matches) {
+        if (ids == null) {
+            return new HashSet<>(matches);
+        }
+        ids.retainAll(matches);
+        return ids;
+    }
+
+    // "District, City" splits into the hierarchy, a single part is taken as the city
+    static Location parse(String location, String normalizedName) {
+        String name = location.trim().replaceAll("\\s+", " ");
+        String[] parts = name.split("\\s*,\\s*");
+        String city = parts[parts.length - 1].isEmpty() ? null : parts[parts.length - 1];
+        String district = parts.length > 1 && !parts[0].isEmpty() ? parts[0] : null;
+        return Location.builder()
+                .name(name)
+                .normalizedName(normalizedName)
+                .city(city)
+                .district(district)
+                .build();
+    }
+}
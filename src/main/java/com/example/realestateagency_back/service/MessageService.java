@@ -5,17 +5,20 @@ import com.example.realestateagency_back.entity.Message;
 import com.example.realestateagency_back.entity.Property;
 import com.example.realestateagency_back.entity.User;
 import com.example.realestateagency_back.exception.ResourceNotFoundException;
+import com.example.realestateagency_back.repository.FieldProjection;
 import com.example.realestateagency_back.repository.MessageRepository;
 import com.example.realestateagency_back.repository.PropertyRepository;
 import com.example.realestateagency_back.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -25,12 +28,11 @@ public class MessageService {
     private final MessageRepository messageRepository;
     private final UserRepository userRepository;
     private final PropertyRepository propertyRepository;
+    private final FieldProjection fieldProjection;
 
     public List<MessageDTO> getAllMessages() {
         log.info("Fetching all messages");
-        return messageRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return messageRepository.findAllDTOs();
     }
 
     public MessageDTO getMessageById(Long id) {
@@ -43,18 +45,28 @@ public class MessageService {
         return convertToDTO(message);
     }
 
+    // Sparse variant of the list endpoints, filters left null are not applied
+    public List<Map<String, Object>> getMessageFields(Long userId, Long propertyId, String fields) {
+        log.info("Fetching fields {} of messages for user: {} and property: {}", fields, userId, propertyId);
+        // Same order as the full endpoints: a property's messages newest first, otherwise by id
+        Sort sort = userId == null && propertyId != null
+                ? Sort.by(Sort.Direction.DESC, "sentDate")
+                : Sort.by("id");
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("user.id", userId);
+        filters.put("property.id", propertyId);
+        return fieldProjection.find(Message.class,
+                SparseFieldset.MESSAGE.columns(SparseFieldset.MESSAGE.parse(fields)), filters, sort);
+    }
+
     public List<MessageDTO> getMessagesByUserId(Long userId) {
         log.info("Fetching messages for user with id: {}", userId);
-        return messageRepository.findByUserId(userId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return messageRepository.findDTOsByUserId(userId);
     }
 
     public List<MessageDTO> getMessagesByPropertyId(Long propertyId) {
         log.info("Fetching messages for property with id: {}", propertyId);
-        return messageRepository.findByPropertyIdOrderBySentDateDesc(propertyId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return messageRepository.findDTOsByPropertyIdOrderBySentDateDesc(propertyId);
     }
 
     @Transactional
@@ -111,8 +123,6 @@ public class MessageService {
 
     public List<MessageDTO> getMessagesByUserAndPropertyId(Long userId, Long propertyId) {
         log.info("Fetching messages for user: {} and property: {}", userId, propertyId);
-        return messageRepository.findByUserIdAndPropertyId(userId, propertyId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return messageRepository.findDTOsByUserIdAndPropertyId(userId, propertyId);
     }
 }
\ No newline at end of file
@@ -3,14 +3,17 @@ package com.example.realestateagency_back.service;
 import com.example.realestateagency_back.dto.PhotoDTO;
 import com.example.realestateagency_back.entity.Photo;
 import com.example.realestateagency_back.entity.Property;
+import com.example.realestateagency_back.event.PropertyChangedEvent;
 import com.example.realestateagency_back.exception.ResourceNotFoundException;
 import com.example.realestateagency_back.repository.PhotoRepository;
 import com.example.realestateagency_back.repository.PropertyRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,6 +24,7 @@ public class PhotoService {
 
     private final PhotoRepository photoRepository;
     private final PropertyRepository propertyRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<PhotoDTO> getAllPhotos() {
         log.info("Fetching all photos");
@@ -39,6 +43,22 @@ public class PhotoService {
         return convertToDTO(photo);
     }
 
+    public LocalDateTime getPhotoVersion(Long id) {
+        return photoRepository.findPropertyUpdatedAtById(id)
+                .orElseThrow(() -> {
+                    log.error("Photo not found with id: {}", id);
+                    return new ResourceNotFoundException("Photo not found with id " + id);
+                });
+    }
+
+    public LocalDateTime getPropertyPhotosVersion(Long propertyId) {
+        return propertyRepository.findUpdatedAtById(propertyId)
+                .orElseThrow(() -> {
+                    log.error("Property not found with id: {}", propertyId);
+                    return new ResourceNotFoundException("Property not found with id " + propertyId);
+                });
+    }
+
     public List<PhotoDTO> getPhotosByPropertyId(Long propertyId) {
         log.info("Fetching photos for property with id: {}", propertyId);
         return photoRepository.findByPropertyIdOrderByOrderAsc(propertyId).stream()
@@ -62,6 +82,9 @@ public class PhotoService {
                 .build();
 
         Photo savedPhoto = photoRepository.save(photo);
+        // Photos are part of the property representation
+        property.setUpdatedAt(LocalDateTime.now());
+        eventPublisher.publishEvent(PropertyChangedEvent.updated(property));
         log.debug("Photo created successfully with id: {}", savedPhoto.getId());
         return convertToDTO(savedPhoto);
     }
@@ -79,6 +102,8 @@ public class PhotoService {
         existingPhoto.setOrder(photoDTO.getOrder());
 
         Photo updatedPhoto = photoRepository.save(existingPhoto);
+        updatedPhoto.getProperty().setUpdatedAt(LocalDateTime.now());
+        eventPublisher.publishEvent(PropertyChangedEvent.updated(updatedPhoto.getProperty()));
         log.debug("Photo updated successfully with id: {}", updatedPhoto.getId());
         return convertToDTO(updatedPhoto);
     }
@@ -86,11 +111,14 @@ public class PhotoService {
     @Transactional
     public void deletePhoto(Long id) {
         log.info("Deleting photo with id: {}", id);
-        if (!photoRepository.existsById(id)) {
-            log.error("Photo not found with id: {}", id);
-            throw new ResourceNotFoundException("Photo not found with id " + id);
-        }
-        photoRepository.deleteById(id);
+        Photo photo = photoRepository.findById(id)
+                .orElseThrow(() -> {
+                    log.error("Photo not found with id: {}", id);
+                    return new ResourceNotFoundException("Photo not found with id " + id);
+                });
+        photoRepository.delete(photo);
+        photo.getProperty().setUpdatedAt(LocalDateTime.now());
+        eventPublisher.publishEvent(PropertyChangedEvent.updated(photo.getProperty()));
         log.debug("Photo deleted successfully with id: {}", id);
     }
 
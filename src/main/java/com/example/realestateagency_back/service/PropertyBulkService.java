@@ -0,0 +1,131 @@
+package com.example.realestateagency_back.service;
+
+import com.example.realestateagency_back.dto.BulkOperationResultDTO;
+import com.example.realestateagency_back.dto.BulkPropertyRequestDTO;
+import com.example.realestateagency_back.entity.Property;
+import com.example.realestateagency_back.event.PropertyChangedEvent;
+import com.example.realestateagency_back.repository.FavoriteRepository;
+import com.example.realestateagency_back.repository.MessageRepository;
+import com.example.realestateagency_back.repository.PhotoRepository;
+import com.example.realestateagency_back.repository.PropertyRepository;
+import com.example.realestateagency_back.search.PropertyQuery;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+/**
+ * Admin operations over many listings at once. Every step is a set-based statement over
+ * chunks of ids, so the statement count grows with the number of chunks, not of listings.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PropertyBulkService {
+
+    public static final int MAX_BULK_SIZE = 10_000;
+    // Keeps IN lists well below the bind parameter limit of the driver
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    private final PropertyRepository propertyRepository;
+    private final PhotoRepository photoRepository;
+    private final MessageRepository messageRepository;
+    private final FavoriteRepository favoriteRepository;
+    private final FileStorageService fileStorageService;
+    private final LocationService locationService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public BulkOperationResultDTO updateStatus(BulkPropertyRequestDTO request) {
+        if (request.getStatus() == null || request.getStatus().isBlank()) {
+            throw new IllegalArgumentException("status is required");
+        }
+        List<Long> ids = resolveTargets(request);
+        log.info("Changing status of {} properties to {}", ids.size(), request.getStatus());
+
+        LocalDateTime now = LocalDateTime.now();
+        int affected = 0;
+        for (List<Long> chunk : chunks(ids)) {
+            affected += propertyRepository.bulkUpdateStatus(chunk, request.getStatus(), now);
+            // Re-read in one query so the in-memory indexes receive the new state after commit
+            for (Property property : propertyRepository.findAllById(chunk)) {
+                eventPublisher.publishEvent(PropertyChangedEvent.updated(property));
+            }
+        }
+        log.debug("Status changed on {} properties", affected);
+        return BulkOperationResultDTO.builder().affected(affected).build();
+    }
+
+    @Transactional
+    public BulkOperationResultDTO delete(BulkPropertyRequestDTO request) {
+        List<Long> ids = resolveTargets(request);
+        log.info("Deleting {} properties", ids.size());
+
+        List<String> fileNames = new ArrayList<>();
+        int affected = 0;
+        for (List<Long> chunk : chunks(ids)) {
+            for (String url : photoRepository.findUrlsByPropertyIdIn(chunk)) {
+                fileNames.add(url.substring(url.lastIndexOf("/") + 1));
+            }
+            favoriteRepository.bulkDeleteByPropertyIdIn(chunk);
+            messageRepository.bulkDeleteByPropertyIdIn(chunk);
+            photoRepository.bulkDeleteByPropertyIdIn(chunk);
+            affected += propertyRepository.bulkDelete(chunk);
+            chunk.forEach(id -> eventPublisher.publishEvent(PropertyChangedEvent.deleted(id)));
+        }
+
+        // Files go only once the rows are gone for good, a rollback leaves both in place
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                fileStorageService.deleteFiles(fileNames);
+            }
+        });
+        log.debug("Deleted {} properties, {} photo files scheduled for removal", affected, fileNames.size());
+        return BulkOperationResultDTO.builder().affected(affected).photoFiles(fileNames.size()).build();
+    }
+
+    private List<Long> resolveTargets(BulkPropertyRequestDTO request) {
+        boolean byIds = request.getIds() != null;
+        if (byIds == (request.getCriteria() != null)) {
+            throw new IllegalArgumentException("Either ids or criteria must be given");
+        }
+        if (byIds) {
+            List<Long> ids = new ArrayList<>(new LinkedHashSet<>(request.getIds()));
+            ids.remove(null);
+            if (ids.size() > MAX_BULK_SIZE) {
+                throw new IllegalArgumentException("At most " + MAX_BULK_SIZE + " properties per bulk operation");
+            }
+            return ids;
+        }
+
+        // Text criteria are matched with LIKE, so the targets do not depend on the search index
+        PropertyQuery query = PropertyQuery.builder()
+                .criteria(request.getCriteria())
+                .locationIds(locationService.resolveFilter(request.getCriteria()))
+                .unmappedLocationFallback(locationService.hasUnmappedLocations())
+                .status(request.getCurrentStatus())
+                .build();
+        List<Long> ids = propertyRepository.findIdsByCriteria(query, MAX_BULK_SIZE + 1);
+        if (ids.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("Criteria match more than " + MAX_BULK_SIZE + " properties");
+        }
+        return ids;
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+            chunks.add(ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size())));
+        }
+        return chunks;
+    }
+}
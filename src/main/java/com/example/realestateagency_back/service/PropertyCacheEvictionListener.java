@@ -0,0 +1,31 @@
+package com.example.realestateagency_back.service;
+
+import com.example.realestateagency_back.config.CacheConfig;
+import com.example.realestateagency_back.event.PropertyChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts cached reads once a property or photo write has committed. Evicting after commit
+ * rather than inside the transaction keeps a concurrent reader from re-caching the old state.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PropertyCacheEvictionListener {
+
+    private final CacheManager cacheManager;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        log.debug("Evicting cached reads of property {}", event.getPropertyId());
+        Cache details = cacheManager.getCache(CacheConfig.PROPERTY_DETAILS);
+        if (details != null) {
+            details.evict(event.getPropertyId());
+        }
+    }
+}
@@ -0,0 +1,444 @@
+package com.example.realestateagency_back.service;
+
+import com.example.realestateagency_back.dto.ImportErrorDTO;
+import com.example.realestateagency_back.dto.ImportReportDTO;
+import com.example.realestateagency_back.dto.PhotoDTO;
+import com.example.realestateagency_back.dto.PropertyDTO;
+import com.example.realestateagency_back.entity.Property;
+import com.example.realestateagency_back.event.PropertyChangedEvent;
+import com.example.realestateagency_back.importer.CsvRecordReader;
+import com.example.realestateagency_back.repository.AdminRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bulk listing import. Rows are streamed from the request, validated one by one and written
+ * with JDBC batch inserts, one transaction per batch. Ids are taken from the same pooled
+ * sequences the entities use, a whole block per {@code nextval}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PropertyImportService {
+
+    static final int IMPORT_BATCH_SIZE = 1000;
+    static final int MAX_REPORTED_ERRORS = 1000;
+    // Must match INCREMENT BY of the sequences and allocationSize of the entities (pooled-lo)
+    static final int ID_BLOCK_SIZE = 50;
+    private static final int MAX_VARCHAR_LENGTH = 255;
+
+    static final List<String> CSV_COLUMNS = List.of(
+            "title", "price", "area", "rooms", "location", "latitude", "longitude",
+            "description", "contact", "status", "type", "listingType", "adminId", "photos");
+
+    private static final String INSERT_PROPERTY = "INSERT INTO properties (id, title, price, area, rooms, location, " +
+            "latitude, longitude, description, contact, status, type, listing_type, admin_id, created_at, " +
+            "publication_date, updated_at, location_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_PHOTO =
+            "INSERT INTO photos (id, url, order_num, property_id, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AdminRepository adminRepository;
+    private final LocationService locationService;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * CSV with a header row naming the columns (any order, see {@link #CSV_COLUMNS}). Photo URLs
+     * go in a single {@code photos} column separated by {@code |}, in display order.
+     */
+    public ImportReportDTO importCsv(InputStream input) throws IOException {
+        log.info("Importing properties from CSV");
+        CsvRecordReader reader = new CsvRecordReader(
+                new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV input is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).trim();
+            if (!CSV_COLUMNS.contains(column)) {
+                throw new IllegalArgumentException("Unknown CSV column: " + column);
+            }
+            columns.put(column, i);
+        }
+
+        return importRows(() -> {
+            long line = reader.getLine();
+            List<String> record = reader.next();
+            if (record == null) {
+                return null;
+            }
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                return ImportRow.skipped(line);
+            }
+            try {
+                return ImportRow.parsed(line, fromCsv(record, columns));
+            } catch (IllegalArgumentException ex) {
+                return ImportRow.invalid(line, ex.getMessage());
+            }
+        });
+    }
+
+    // One PropertyDTO JSON document per line, photos as [{"url": ..., "order": ...}]
+    public ImportReportDTO importJsonLines(InputStream input) throws IOException {
+        log.info("Importing properties from JSON lines");
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        long[] lineNumber = {0};
+
+        return importRows(() -> {
+            String line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            long row = ++lineNumber[0];
+            if (line.isBlank()) {
+                return ImportRow.skipped(row);
+            }
+            try {
+                return ImportRow.parsed(row, objectMapper.readValue(line, PropertyDTO.class));
+            } catch (JsonProcessingException ex) {
+                return ImportRow.invalid(row, "Invalid JSON: " + ex.getOriginalMessage());
+            }
+        });
+    }
+
+    private ImportReportDTO importRows(RowSource source) throws IOException {
+        long start = System.nanoTime();
+        ImportReport report = new ImportReport();
+        Map<Long, Boolean> knownAdmins = new HashMap<>();
+        List<ImportRow> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+
+        for (ImportRow row = source.next(); row != null; row = source.next()) {
+            if (row.property == null && row.error == null) {
+                continue;
+            }
+            report.total++;
+            String error = row.error != null ? row.error : validate(row.property, knownAdmins);
+            if (error != null) {
+                report.fail(row.row, error);
+                continue;
+            }
+            batch.add(row);
+            if (batch.size() == IMPORT_BATCH_SIZE) {
+                insertBatch(batch, report);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insertBatch(batch, report);
+        }
+
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Import finished: {} rows, {} imported, {} failed in {} ms",
+                report.total, report.imported, report.failed, durationMillis);
+        return ImportReportDTO.builder()
+                .totalRows(report.total)
+                .importedRows(report.imported)
+                .failedRows(report.failed)
+                .errors(report.errors)
+                .errorsTruncated(report.failed > report.errors.size())
+                .durationMillis(durationMillis)
+                .build();
+    }
+
+    private void insertBatch(List<ImportRow> batch, ImportReport report) {
+        try {
+            // Committed on its own, so a rejected batch leaves only unused location rows behind
+            Set<String> locations = new HashSet<>();
+            for (ImportRow row : batch) {
+                if (row.property.getLocation() != null) {
+                    locations.add(row.property.getLocation());
+                }
+            }
+            Map<String, Long> locationIds = locationService.internAll(locations);
+            for (ImportRow row : batch) {
+                row.locationId = locationIds.get(row.property.getLocation());
+            }
+
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                Timestamp timestamp = Timestamp.valueOf(now);
+
+                List<Long> propertyIds = allocateIds("properties_seq", batch.size());
+                List<Object[]> photoRows = new ArrayList<>();
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).id = propertyIds.get(i);
+                    List<PhotoDTO> photos = batch.get(i).property.getPhotos();
+                    if (photos != null) {
+                        for (int order = 0; order < photos.size(); order++) {
+                            PhotoDTO photo = photos.get(order);
+                            Integer photoOrder = photo.getOrder() != null ? photo.getOrder() : order;
+                            photoRows.add(new Object[]{photo.getUrl(), photoOrder, propertyIds.get(i)});
+                        }
+                    }
+                }
+                List<Long> photoIds = allocateIds("photos_seq", photoRows.size());
+
+                jdbcTemplate.batchUpdate(INSERT_PROPERTY, batch, batch.size(), (ps, row) -> {
+                    PropertyDTO p = row.property;
+                    ps.setLong(1, row.id);
+                    ps.setString(2, p.getTitle());
+                    ps.setBigDecimal(3, p.getPrice());
+                    ps.setObject(4, p.getArea(), Types.DOUBLE);
+                    ps.setObject(5, p.getRooms(), Types.INTEGER);
+                    ps.setString(6, p.getLocation());
+                    ps.setObject(7, p.getLatitude(), Types.DOUBLE);
+                    ps.setObject(8, p.getLongitude(), Types.DOUBLE);
+                    ps.setString(9, p.getDescription());
+                    ps.setString(10, p.getContact());
+                    ps.setString(11, statusOf(p));
+                    ps.setString(12, p.getType().name());
+                    ps.setString(13, p.getListingType().name());
+                    ps.setLong(14, p.getAdminId());
+                    ps.setTimestamp(15, timestamp);
+                    ps.setTimestamp(16, timestamp);
+                    ps.setTimestamp(17, timestamp);
+                    ps.setObject(18, row.locationId, Types.BIGINT);
+                });
+                if (!photoRows.isEmpty()) {
+                    int[] index = {0};
+                    jdbcTemplate.batchUpdate(INSERT_PHOTO, photoRows, IMPORT_BATCH_SIZE, (ps, photo) -> {
+                        ps.setLong(1, photoIds.get(index[0]++));
+                        ps.setString(2, (String) photo[0]);
+                        ps.setInt(3, (Integer) photo[1]);
+                        ps.setLong(4, (Long) photo[2]);
+                        ps.setTimestamp(5, timestamp);
+                    });
+                }
+
+                // Delivered after commit, keeps the search indexes and caches in step
+                for (ImportRow row : batch) {
+                    eventPublisher.publishEvent(PropertyChangedEvent.created(toEntity(row, now)));
+                }
+            });
+            report.imported += batch.size();
+            log.debug("Imported batch of {} properties", batch.size());
+        } catch (DataAccessException ex) {
+            String cause = NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+            log.error("Import batch of {} rows rejected by the database: {}", batch.size(), cause);
+            for (ImportRow row : batch) {
+                report.fail(row.row, "Batch rejected by the database: " + cause);
+            }
+        }
+    }
+
+    // Each nextval reserves ID_BLOCK_SIZE consecutive ids, all blocks are fetched in one round trip
+    private List<Long> allocateIds(String sequence, int count) {
+        List<Long> ids = new ArrayList<>(count);
+        if (count == 0) {
+            return ids;
+        }
+        int blocks = (count + ID_BLOCK_SIZE - 1) / ID_BLOCK_SIZE;
+        List<Long> blockStarts = jdbcTemplate.queryForList(
+                "SELECT nextval('" + sequence + "') FROM generate_series(1, ?)", Long.class, blocks);
+        for (Long blockStart : blockStarts) {
+            for (int i = 0; i < ID_BLOCK_SIZE && ids.size() < count; i++) {
+                ids.add(blockStart + i);
+            }
+        }
+        return ids;
+    }
+
+    // Mirrors the defaults and constraints of PropertyService.createProperty and the schema
+    private String validate(PropertyDTO property, Map<Long, Boolean> knownAdmins) {
+        if (property.getTitle() == null || property.getTitle().isBlank()) {
+            return "title is required";
+        }
+        if (property.getPrice() == null || property.getPrice().signum() < 0) {
+            return "price is required and must not be negative";
+        }
+        if (property.getArea() != null && property.getArea() < 0) {
+            return "area must not be negative";
+        }
+        if (property.getRooms() != null && property.getRooms() < 0) {
+            return "rooms must not be negative";
+        }
+        if (property.getType() == null) {
+            return "type is required";
+        }
+        if (property.getListingType() == null) {
+            return "listingType is required";
+        }
+        if ((property.getLatitude() == null) != (property.getLongitude() == null)) {
+            return "latitude and longitude must be given together";
+        }
+        if (property.getLatitude() != null
+                && (Math.abs(property.getLatitude()) > 90 || Math.abs(property.getLongitude()) > 180)) {
+            return "coordinates out of range";
+        }
+        if (tooLong(property.getTitle()) || tooLong(property.getLocation())
+                || tooLong(property.getContact()) || tooLong(statusOf(property))) {
+            return "title, location, contact and status are limited to " + MAX_VARCHAR_LENGTH + " characters";
+        }
+        if (property.getPhotos() != null) {
+            for (PhotoDTO photo : property.getPhotos()) {
+                if (photo.getUrl() == null || photo.getUrl().isBlank() || tooLong(photo.getUrl())) {
+                    return "photo url is required and limited to " + MAX_VARCHAR_LENGTH + " characters";
+                }
+            }
+        }
+        if (property.getAdminId() == null) {
+            return "adminId is required";
+        }
+        if (!knownAdmins.computeIfAbsent(property.getAdminId(), adminRepository::existsById)) {
+            return "Admin not found with id " + property.getAdminId();
+        }
+        return null;
+    }
+
+    private static boolean tooLong(String value) {
+        return value != null && value.length() > MAX_VARCHAR_LENGTH;
+    }
+
+    private static String statusOf(PropertyDTO property) {
+        return property.getStatus() != null ? property.getStatus() : "ACTIVE";
+    }
+
+    private PropertyDTO fromCsv(List<String> record, Map<String, Integer> columns) {
+        Function<String, String> value = column -> {
+            Integer index = columns.get(column);
+            if (index == null || index >= record.size()) {
+                return null;
+            }
+            String raw = record.get(index).trim();
+            return raw.isEmpty() ? null : raw;
+        };
+
+        List<PhotoDTO> photos = new ArrayList<>();
+        String photoUrls = value.apply("photos");
+        if (photoUrls != null) {
+            for (String url : photoUrls.split("\\|")) {
+                photos.add(PhotoDTO.builder().url(url.trim()).order(photos.size()).build());
+            }
+        }
+
+        return PropertyDTO.builder()
+                .title(value.apply("title"))
+                .price(parse(value, "price", BigDecimal::new))
+                .area(parse(value, "area", Double::valueOf))
+                .rooms(parse(value, "rooms", Integer::valueOf))
+                .location(value.apply("location"))
+                .latitude(parse(value, "latitude", Double::valueOf))
+                .longitude(parse(value, "longitude", Double::valueOf))
+                .description(value.apply("description"))
+                .contact(value.apply("contact"))
+                .status(value.apply("status"))
+                .type(parse(value, "type", v -> Property.PropertyType.valueOf(v.toUpperCase(Locale.ROOT))))
+                .listingType(parse(value, "listingType", v -> Property.ListingType.valueOf(v.toUpperCase(Locale.ROOT))))
+                .adminId(parse(value, "adminId", Long::valueOf))
+                .photos(photos)
+                .build();
+    }
+
+    private static <T> T parse(Function<String, String> value, String column, Function<String, T> parser) {
+        String raw = value.apply(column);
+        if (raw == null) {
+            return null;
+        }
+        try {
+            return parser.apply(raw);
+        } catch (IllegalArgumentException ex) {
+            // NumberFormatException included
+            throw new IllegalArgumentException("Invalid " + column + ": '" + raw + "'");
+        }
+    }
+
+    // Detached copy of the inserted row for the index and cache listeners
+    private static Property toEntity(ImportRow row, LocalDateTime now) {
+        PropertyDTO p = row.property;
+        return Property.builder()
+                .id(row.id)
+                .title(p.getTitle())
+                .price(p.getPrice())
+                .area(p.getArea())
+                .rooms(p.getRooms())
+                .location(p.getLocation())
+                .locationId(row.locationId)
+                .latitude(p.getLatitude())
+                .longitude(p.getLongitude())
+                .description(p.getDescription())
+                .contact(p.getContact())
+                .status(statusOf(p))
+                .type(p.getType())
+                .listingType(p.getListingType())
+                .createdAt(now)
+                .publicationDate(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        // null at the end of the input
+        ImportRow next() throws IOException;
+    }
+
+    private static final class ImportRow {
+        private final long row;
+        private final PropertyDTO property;
+        private final String error;
+        private Long id;
+        private Long locationId;
+
+        private ImportRow(long row, PropertyDTO property, String error) {
+            this.row = row;
+            this.property = property;
+            this.error = error;
+        }
+
+        static ImportRow parsed(long row, PropertyDTO property) {
+            return new ImportRow(row, property, null);
+        }
+
+        static ImportRow invalid(long row, String error) {
+            return new ImportRow(row, null, error);
+        }
+
+        static ImportRow skipped(long row) {
+            return new ImportRow(row, null, null);
+        }
+    }
+
+    private static final class ImportReport {
+        private long total;
+        private long imported;
+        private long failed;
+        private final List<ImportErrorDTO> errors = new ArrayList<>();
+
+        void fail(long row, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(ImportErrorDTO.builder().row(row).message(message).build());
+            }
+        }
+    }
+}
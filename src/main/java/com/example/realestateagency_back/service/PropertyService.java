@@ -1,7 +1,12 @@
 package com.example.realestateagency_back.service;
 
+import com.example.realestateagency_back.config.CacheConfig;
+import com.example.realestateagency_back.dto.CursorPageDTO;
+import com.example.realestateagency_back.dto.LocationSuggestionDTO;
 import com.example.realestateagency_back.dto.PhotoDTO;
+import com.example.realestateagency_back.dto.PropertyCardDTO;
 import com.example.realestateagency_back.dto.PropertyDTO;
+import com.example.realestateagency_back.dto.PropertyFacetsDTO;
 import com.example.realestateagency_back.dto.PropertySearchCriteriaDTO;
 import com.example.realestateagency_back.entity.Admin;
 import com.example.realestateagency_back.entity.Property;
@@ -10,49 +15,169 @@ import com.example.realestateagency_back.exception.ResourceNotFoundException;
 import com.example.realestateagency_back.repository.AdminRepository;
 import com.example.realestateagency_back.repository.PropertyRepository;
 import com.example.realestateagency_back.repository.PhotoRepository;
+import com.example.realestateagency_back.event.PropertyChangedEvent;
+import com.example.realestateagency_back.search.GeoBoundingBox;
+import com.example.realestateagency_back.search.PropertyColumnStore;
+import com.example.realestateagency_back.search.KeysetPageRequest;
+import com.example.realestateagency_back.search.LocationSuggester;
+import com.example.realestateagency_back.search.PropertyGeoIndex;
+import com.example.realestateagency_back.search.PropertyIndexMaintainer;
+import com.example.realestateagency_back.search.PropertyQuery;
+import com.example.realestateagency_back.search.PropertySortField;
+import com.example.realestateagency_back.search.PropertyTextIndex;
+import com.example.realestateagency_back.search.SearchCursor;
+import com.example.realestateagency_back.search.SearchResultCache;
+import com.example.realestateagency_back.search.SimilarityIndex;
+import com.example.realestateagency_back.search.TextSearchMode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PropertyService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+    // Upper bound for the IN lists issued while assembling DTOs
+    private static final int ASSEMBLY_BATCH_SIZE = 500;
+    // Above this many text matches a page query falls back to SQL LIKE predicates
+    private static final int MAX_PAGE_TEXT_CANDIDATES = 1000;
+    private static final double MAX_RADIUS_KM = 500;
+    // Upper bound for the results of the radius and bounding box searches
+    public static final int MAX_AREA_RESULTS = 500;
+    private static final int STREAM_CHUNK_SIZE = 500;
+    // Above this many snapshot matches hydrating by id costs more than letting the database scan
+    private static final int MAX_SNAPSHOT_CANDIDATES = 10_000;
+    public static final int MAX_SIMILAR = 50;
+    // Columns read to rank the candidates of a radius search
+    private static final Map<String, String> COORDINATE_COLUMNS =
+            SparseFieldset.PROPERTY.columns(Set.of("id", "latitude", "longitude"));
+
     private final PropertyRepository propertyRepository;
     private final AdminRepository adminRepository;
     private final PhotoRepository photoRepository;
     private final FileStorageService fileStorageService;
-
+    private final PropertyTextIndex textIndex;
+    private final PropertyGeoIndex geoIndex;
+    private final LocationService locationService;
+    private final LocationSuggester locationSuggester;
+    private final SimilarityIndex similarityIndex;
+    private final SearchResultCache searchResultCache;
+    private final SingleFlight singleFlight;
+    private final PropertyIndexMaintainer indexMaintainer;
+    private final ObjectProvider<PropertyColumnStore> columnStore;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${search.text-mode:INDEX}")
+    private TextSearchMode textSearchMode;
+
+    // Served through CatalogSnapshotService, which keeps the serialised result per catalog version
     public List<PropertyDTO> getAllProperties() {
         log.info("Fetching all properties");
-        List<PropertyDTO> properties = propertyRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<PropertyDTO> properties = withPhotos(propertyRepository.findAllDTOs());
         log.debug("Found {} properties", properties.size());
         return properties;
     }
 
+    // Sparse variant of getAllProperties, not cached: the projections differ per caller
+    public List<Map<String, Object>> getAllPropertyFields(String fields) {
+        log.info("Fetching fields {} of all properties", fields);
+        Set<String> selected = SparseFieldset.PROPERTY.parse(fields);
+        return findPropertyFields(PropertyQuery.builder().criteria(new PropertySearchCriteriaDTO()).build(), selected);
+    }
+
+    /**
+     * Walks the whole catalog through a server-side cursor and hands it to the sink chunk by
+     * chunk. Rows are read as DTOs, nothing piles up in the persistence context, so heap use
+     * does not grow with the row count.
+     */
+    @Transactional(readOnly = true)
+    public void streamAllProperties(Consumer<List<PropertyDTO>> sink) {
+        log.info("Streaming all properties");
+        long count = 0;
+        try (Stream<PropertyDTO> properties = propertyRepository.streamAllDTOs()) {
+            Iterator<PropertyDTO> iterator = properties.iterator();
+            List<PropertyDTO> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == STREAM_CHUNK_SIZE || !iterator.hasNext()) {
+                    sink.accept(withPhotos(chunk));
+                    count += chunk.size();
+                    chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+                }
+            }
+        }
+        log.debug("Streamed {} properties", count);
+    }
+
+    @Cacheable(cacheNames = CacheConfig.PROPERTY_DETAILS, key = "#id")
     public PropertyDTO getPropertyById(Long id) {
         log.info("Fetching property with id: {}", id);
+        // Cache misses of a listing that is suddenly popular share one load
+        return singleFlight.execute("getPropertyById", id, () -> {
+            Property property = propertyRepository.findById(id)
+                    .orElseThrow(() -> {
+                        log.error("Property not found with id: {}", id);
+                        return new ResourceNotFoundException("Property not found with id " + id);
+                    });
+            log.debug("Property found with id: {}", id);
+            return convertToDTO(property);
+        });
+    }
+
+    // Nearest active listings of the same type and listing type, empty until the indexes are loaded
+    public List<PropertyCardDTO> getSimilarProperties(Long id, int limit) {
+        log.info("Fetching properties similar to property with id: {}", id);
         Property property = propertyRepository.findById(id)
                 .orElseThrow(() -> {
                     log.error("Property not found with id: {}", id);
                     return new ResourceNotFoundException("Property not found with id " + id);
                 });
-        log.debug("Property found with id: {}", id);
-        return convertToDTO(property);
+        if (!indexMaintainer.isReady()) {
+            log.debug("Indexes still loading, no similar properties");
+            return new ArrayList<>();
+        }
+        List<Long> ids = similarityIndex.similarTo(property, Math.max(1, Math.min(limit, MAX_SIMILAR)));
+        log.debug("Found {} properties similar to property {}", ids.size(), id);
+        return propertyRepository.findCardsByIds(ids);
+    }
+
+    // Cheap version lookup backing ETag / Last-Modified, no DTO is built
+    public LocalDateTime getPropertyVersion(Long id) {
+        return singleFlight.execute("getPropertyVersion", id, () -> propertyRepository.findUpdatedAtById(id)
+                .orElseThrow(() -> {
+                    log.error("Property not found with id: {}", id);
+                    return new ResourceNotFoundException("Property not found with id " + id);
+                }));
     }
 
     @Transactional
     public PropertyDTO createProperty(PropertyDTO propertyDTO) {
         log.info("Creating new property with title: {}", propertyDTO.getTitle());
         Property property = convertToEntity(propertyDTO);
+        property.setLocationId(locationService.intern(propertyDTO.getLocation()));
 
         // Set publication date and status
         property.setPublicationDate(LocalDateTime.now());
@@ -85,6 +210,7 @@ public class PropertyService {
             log.debug("Photos added successfully to property: {}", savedProperty.getId());
         }
 
+        eventPublisher.publishEvent(PropertyChangedEvent.created(savedProperty));
         return convertToDTO(savedProperty);
     }
 
@@ -102,6 +228,9 @@ public class PropertyService {
         existingProperty.setArea(propertyDTO.getArea());
         existingProperty.setRooms(propertyDTO.getRooms());
         existingProperty.setLocation(propertyDTO.getLocation());
+        existingProperty.setLocationId(locationService.intern(propertyDTO.getLocation()));
+        existingProperty.setLatitude(propertyDTO.getLatitude());
+        existingProperty.setLongitude(propertyDTO.getLongitude());
         existingProperty.setPrice(propertyDTO.getPrice());
         existingProperty.setDescription(propertyDTO.getDescription());
         existingProperty.setContact(propertyDTO.getContact());
@@ -130,6 +259,7 @@ public class PropertyService {
             log.debug("New photos added for property with id: {}", id);
         }
 
+        eventPublisher.publishEvent(PropertyChangedEvent.updated(updatedProperty));
         log.info("Property updated successfully with id: {}", updatedProperty.getId());
         return convertToDTO(updatedProperty);
     }
@@ -158,14 +288,13 @@ public class PropertyService {
         // Delete the property
         log.debug("Deleting property record with id: {}", id);
         propertyRepository.deleteById(id);
+        eventPublisher.publishEvent(PropertyChangedEvent.deleted(id));
         log.info("Property deleted successfully with id: {}", id);
     }
 
     public List<PropertyDTO> getPropertiesByAdminId(Long adminId) {
         log.info("Fetching properties for admin with id: {}", adminId);
-        List<PropertyDTO> properties = propertyRepository.findByAdminId(adminId).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        List<PropertyDTO> properties = withPhotos(propertyRepository.findDTOsByAdminId(adminId));
         log.debug("Found {} properties for admin with id: {}", properties.size(), adminId);
         return properties;
     }
@@ -175,61 +304,394 @@ public class PropertyService {
                 criteria.getLocation(), criteria.getMinPrice(), criteria.getMaxPrice(),
                 criteria.getMinArea(), criteria.getMaxArea(), criteria.getMinRooms(), criteria.getMaxRooms());
 
-        List<PropertyDTO> results = propertyRepository.findByCriteria(
-                        criteria.getTitle(),
-                        criteria.getLocation(),
-                        criteria.getMinPrice(),
-                        criteria.getMaxPrice(),
-                        criteria.getMinArea(),
-                        criteria.getMaxArea(),
-                        criteria.getMinRooms(),
-                        criteria.getMaxRooms(),
-                        criteria.getType(),
-                        criteria.getListingType(),
-                        "ACTIVE"
-                ).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        // Identical concurrent searches share one run
+        String cacheKey = SearchResultCache.key("list", criteria);
+        return singleFlight.execute("searchProperties", cacheKey, () -> runSearch(criteria, cacheKey));
+    }
+
+    private List<PropertyDTO> runSearch(PropertySearchCriteriaDTO criteria, String cacheKey) {
+        long[] stamp = searchResultCache.stamp(criteria);
+        List<Long> cachedIds = searchResultCache.get(cacheKey, stamp);
+        if (cachedIds != null) {
+            log.debug("Search served {} ids from the result cache", cachedIds.size());
+            return withPhotos(findByIdsInOrder(cachedIds));
+        }
+
+        PropertyQuery query = hasText(criteria)
+                ? buildQuery(criteria, Integer.MAX_VALUE)
+                : scanSnapshot(criteria);
+        if (query.getIds() != null && query.getIds().isEmpty()) {
+            log.debug("In-memory index returned no candidates, skipping database search");
+            searchResultCache.put(cacheKey, stamp, List.of());
+            return new ArrayList<>();
+        }
+
+        List<PropertyDTO> properties = propertyRepository.searchDTOsByCriteria(query);
+        if (properties.size() <= SearchResultCache.MAX_CACHED_IDS) {
+            searchResultCache.put(cacheKey, stamp, properties.stream().map(PropertyDTO::getId).toList());
+        }
+        List<PropertyDTO> results = withPhotos(properties);
 
         log.debug("Search returned {} results", results.size());
         return results;
     }
 
-    private PropertyDTO convertToDTO(Property property) {
-        PropertyDTO dto = PropertyDTO.builder()
-                .id(property.getId())
-                .title(property.getTitle())
-                .area(property.getArea())
-                .rooms(property.getRooms())
-                .location(property.getLocation())
-                .price(property.getPrice())
-                .description(property.getDescription())
-                .contact(property.getContact())
-                .status(property.getStatus())
-                .type(property.getType())
-                .listingType(property.getListingType())
-                .adminId(property.getAdmin() != null ? property.getAdmin().getId() : null)
-                .adminUsername(property.getAdmin() != null ? property.getAdmin().getUsername() : null)
-                .publicationDate(property.getPublicationDate())
-                .createdAt(property.getCreatedAt())
-                .updatedAt(property.getUpdatedAt())
+    // Sparse variant of searchProperties, rows come back in id order unless ranked by similarity
+    public List<Map<String, Object>> searchPropertyFields(PropertySearchCriteriaDTO criteria, String fields) {
+        log.info("Searching fields {} of properties", fields);
+        Set<String> selected = SparseFieldset.PROPERTY.parse(fields);
+        PropertyQuery query = hasText(criteria)
+                ? buildQuery(criteria, Integer.MAX_VALUE)
+                : scanSnapshot(criteria);
+        if (query.getIds() != null && query.getIds().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return findPropertyFields(query, selected);
+    }
+
+    // Nearest first; only the coordinates of the candidates are read to rank them
+    public List<PropertyCardDTO> searchNearby(PropertySearchCriteriaDTO criteria, double latitude, double longitude,
+                                              double radiusKm, int limit) {
+        if (radiusKm <= 0 || radiusKm > MAX_RADIUS_KM) {
+            throw new IllegalArgumentException("Radius must be between 0 and " + MAX_RADIUS_KM + " km");
+        }
+        GeoBoundingBox box = GeoBoundingBox.around(latitude, longitude, radiusKm);
+        log.info("Searching properties within {} km of ({}, {})", radiusKm, latitude, longitude);
+        PropertyQuery query = areaQuery(criteria, box, () -> geoIndex.withinRadius(latitude, longitude, radiusKm));
+        if (query.getIds() != null && query.getIds().isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Double> distances = new HashMap<>();
+        for (Map<String, Object> row : propertyRepository.searchFieldsByCriteria(query, COORDINATE_COLUMNS)) {
+            Double lat = (Double) row.get("latitude");
+            Double lon = (Double) row.get("longitude");
+            if (lat == null || lon == null) {
+                continue;
+            }
+            double distance = GeoBoundingBox.distanceKm(latitude, longitude, lat, lon);
+            if (distance <= radiusKm) {
+                distances.put((Long) row.get("id"), distance);
+            }
+        }
+        List<Long> nearest = distances.keySet().stream()
+                .sorted(Comparator.<Long, Double>comparing(distances::get).thenComparing(Comparator.naturalOrder()))
+                .limit(Math.max(1, Math.min(limit, MAX_AREA_RESULTS)))
+                .toList();
+        List<PropertyCardDTO> cards = propertyRepository.findCardsByIds(nearest);
+        cards.forEach(card -> card.setDistanceKm(distances.get(card.getId())));
+        log.debug("Radius search returned {} of {} results", cards.size(), distances.size());
+        return cards;
+    }
+
+    // Cards rather than full DTOs: a map viewport can cover most of the catalog
+    public List<PropertyCardDTO> searchWithinBounds(PropertySearchCriteriaDTO criteria, GeoBoundingBox box, int limit) {
+        log.info("Searching properties within ({}, {}) - ({}, {})", box.getMinLatitude(), box.getMinLongitude(),
+                box.getMaxLatitude(), box.getMaxLongitude());
+        PropertyQuery query = areaQuery(criteria, box, () -> geoIndex.withinBoundingBox(box));
+        if (query.getIds() != null && query.getIds().isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> ids = propertyRepository.findIdsByCriteria(query, Math.max(1, Math.min(limit, MAX_AREA_RESULTS)));
+        log.debug("Bounding box search returned {} results", ids.size());
+        return propertyRepository.findCardsByIds(ids);
+    }
+
+    // Spatial candidates come from the in-memory grid when it is loaded, otherwise from a lat/lon range predicate
+    private PropertyQuery areaQuery(PropertySearchCriteriaDTO criteria, GeoBoundingBox box,
+                                    Supplier<Set<Long>> indexLookup) {
+        PropertyQuery query = buildQuery(criteria != null ? criteria : new PropertySearchCriteriaDTO(), Integer.MAX_VALUE);
+        if (indexMaintainer.isReady()) {
+            Set<Long> areaIds = indexLookup.get();
+            return query.toBuilder().ids(intersect(query.getIds() != null ? new HashSet<>(query.getIds()) : null, areaIds)).build();
+        }
+        return query.toBuilder().boundingBox(box).build();
+    }
+
+    public CursorPageDTO<PropertyCardDTO> searchPropertiesPage(PropertySearchCriteriaDTO criteria,
+                                                           PropertySortField sortField,
+                                                           Sort.Direction direction,
+                                                           String cursor,
+                                                           int size,
+                                                           boolean includeFacets) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        SearchCursor after = cursor != null && !cursor.isBlank() ? SearchCursor.decode(cursor) : null;
+        if (after != null && (after.getSortField() != sortField || after.getDirection() != direction)) {
+            log.warn("Search cursor was issued for sort {} {}, not {} {}",
+                    after.getSortField(), after.getDirection(), sortField, direction);
+            throw new IllegalArgumentException("Cursor does not match the requested sort order");
+        }
+        log.info("Searching property page sorted by {} {} (size={}, cursor={})", sortField, direction, pageSize, after != null);
+
+        String cacheKey = SearchResultCache.key("page", criteria, sortField, direction, cursor, pageSize);
+        long[] stamp = searchResultCache.stamp(criteria);
+        PageIds page = searchResultCache.get(cacheKey, stamp);
+        PropertyQuery query = null;
+        List<PropertyCardDTO> content;
+        if (page != null) {
+            log.debug("Search page served {} ids from the result cache", page.ids().size());
+            content = propertyRepository.findCardsByIds(page.ids());
+        } else {
+            query = buildQuery(criteria, MAX_PAGE_TEXT_CANDIDATES);
+
+            // Fetch one extra row to know whether another page exists without a COUNT query
+            List<PropertyCardDTO> rows = query.getIds() != null && query.getIds().isEmpty()
+                    ? new ArrayList<>()
+                    : propertyRepository.findPageByCriteria(query,
+                            new KeysetPageRequest(sortField, direction, after, pageSize + 1));
+            boolean hasNext = rows.size() > pageSize;
+            content = hasNext ? new ArrayList<>(rows.subList(0, pageSize)) : rows;
+
+            String nextCursor = null;
+            if (hasNext) {
+                PropertyCardDTO last = content.get(content.size() - 1);
+                nextCursor = new SearchCursor(sortField, direction, sortField.valueOf(last), last.getId()).encode();
+            }
+            page = new PageIds(content.stream().map(PropertyCardDTO::getId).toList(), hasNext, nextCursor);
+            searchResultCache.put(cacheKey, stamp, page);
+        }
+
+        log.debug("Search page returned {} results, hasNext={}", content.size(), page.hasNext());
+        return CursorPageDTO.<PropertyCardDTO>builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(page.hasNext())
+                .nextCursor(page.nextCursor())
+                .facets(includeFacets
+                        ? countFacets(query != null ? query : buildQuery(criteria, MAX_PAGE_TEXT_CANDIDATES))
+                        : null)
+                .build();
+    }
+
+    public PropertyFacetsDTO getSearchFacets(PropertySearchCriteriaDTO criteria) {
+        log.info("Computing search facets");
+        return countFacets(buildQuery(criteria, Integer.MAX_VALUE));
+    }
+
+    // Typeahead over the locations of active listings, empty until the indexes are loaded
+    public List<LocationSuggestionDTO> suggestLocations(String query, int limit) {
+        log.info("Suggesting locations for prefix: {}", query);
+        if (!indexMaintainer.isReady()) {
+            log.debug("Indexes still loading, no location suggestions");
+            return new ArrayList<>();
+        }
+        return locationSuggester.suggest(query, Math.max(0, Math.min(limit, LocationSuggester.TOP_K)));
+    }
+
+    // An empty candidate set yields all-zero facets without touching the database
+    private PropertyFacetsDTO countFacets(PropertyQuery query) {
+        PropertyFacetsDTO facets = propertyRepository.countFacets(query);
+        log.debug("Facets computed over {} matching properties", facets.getTotal());
+        return facets;
+    }
+
+    /**
+     * Decides how the text predicates are evaluated according to {@code search.text-mode}. In
+     * INDEX mode they are replaced by the candidate ids of the in-memory index, unless the index
+     * is still loading or matches more than maxCandidates properties. Location filters are
+     * resolved to location ids in every mode.
+     */
+    private PropertyQuery buildQuery(PropertySearchCriteriaDTO criteria, int maxCandidates) {
+        PropertyQuery.PropertyQueryBuilder query = PropertyQuery.builder()
+                .criteria(criteria)
+                .status("ACTIVE");
+        if (textSearchMode == TextSearchMode.TRIGRAM) {
+            return query.locationIds(locationService.resolveFilter(criteria))
+                    .unmappedLocationFallback(locationService.hasUnmappedLocations())
+                    .caseInsensitiveText(true).rankBySimilarity(true).build();
+        }
+        if (textSearchMode == TextSearchMode.LIKE) {
+            return query.locationIds(locationService.resolveFilter(criteria))
+                    .unmappedLocationFallback(locationService.hasUnmappedLocations()).build();
+        }
+
+        Set<Long> candidateIds = matchText(criteria);
+        if (candidateIds == null || candidateIds.size() > maxCandidates) {
+            // Too broad to ship as an IN list or still loading: the database evaluates the text
+            // predicates, with the same token-prefix matching as the index
+            return query.locationIds(locationService.resolveFilter(criteria.toBuilder().location(null).build()))
+                    .unmappedLocationFallback(locationService.hasUnmappedLocations())
+                    .tokenPrefixText(true).build();
+        }
+        // The index already matched the location text, only city and location ids are left
+        PropertySearchCriteriaDTO structured = withoutText(criteria);
+        return query.criteria(structured).locationIds(locationService.resolveFilter(structured))
+                .unmappedLocationFallback(locationService.hasUnmappedLocations()).ids(candidateIds).build();
+    }
+
+    /**
+     * Structured-only criteria are resolved to ids by the columnar snapshot when it is enabled
+     * and loaded. The criteria stay on the query so hydration re-checks the exact bounds.
+     */
+    private PropertyQuery scanSnapshot(PropertySearchCriteriaDTO criteria) {
+        PropertyQuery query = PropertyQuery.builder()
+                .criteria(criteria)
+                .locationIds(locationService.resolveFilter(criteria))
+                .unmappedLocationFallback(locationService.hasUnmappedLocations())
+                .status("ACTIVE")
                 .build();
+        PropertyColumnStore store = columnStore.getIfAvailable();
+        if (store == null || !indexMaintainer.isReady()) {
+            return query;
+        }
+        long[] ids = store.filter(criteria, query.getStatus(), MAX_SNAPSHOT_CANDIDATES);
+        if (ids == null) {
+            log.debug("Snapshot cannot answer within {} properties, searching the database", MAX_SNAPSHOT_CANDIDATES);
+            return query;
+        }
+        log.debug("Snapshot matched {} properties", ids.length);
+        return query.toBuilder().ids(Arrays.stream(ids).boxed().collect(Collectors.toList())).build();
+    }
 
-        // Fetch photos for the property and convert to DTOs
-        List<Photo> photos = photoRepository.findByPropertyIdOrderByOrderAsc(property.getId());
-        List<PhotoDTO> photoDTOs = photos.stream()
-                .map(photo -> PhotoDTO.builder()
-                        .id(photo.getId())
-                        .url(photo.getUrl())
-                        .order(photo.getOrder())
-                        .propertyId(property.getId())
-                        .createdAt(photo.getCreatedAt())
-                        .build())
-                .collect(Collectors.toList());
+    private List<Map<String, Object>> findPropertyFields(PropertyQuery query, Set<String> fields) {
+        List<Map<String, Object>> rows = propertyRepository.searchFieldsByCriteria(query, SparseFieldset.PROPERTY.columns(fields));
+        if (fields.contains("photos")) {
+            for (int from = 0; from < rows.size(); from += ASSEMBLY_BATCH_SIZE) {
+                List<Map<String, Object>> batch = rows.subList(from, Math.min(from + ASSEMBLY_BATCH_SIZE, rows.size()));
+                Set<Long> propertyIds = new HashSet<>();
+                batch.forEach(row -> propertyIds.add((Long) row.get("id")));
+                Map<Long, List<PhotoDTO>> photosByProperty = photoRepository.findDTOsByPropertyIdIn(propertyIds).stream()
+                        .collect(Collectors.groupingBy(PhotoDTO::getPropertyId));
+                batch.forEach(row -> row.put("photos", photosByProperty.getOrDefault((Long) row.get("id"), new ArrayList<>())));
+            }
+        }
+        log.debug("Projected {} fields of {} properties", fields.size(), rows.size());
+        return rows;
+    }
 
-        dto.setPhotos(photoDTOs);
+    // Hydrates cached search results, keeping the order they were cached in
+    private List<PropertyDTO> findByIdsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, PropertyDTO> byId = new HashMap<>();
+        for (PropertyDTO property : propertyRepository.searchDTOsByCriteria(PropertyQuery.builder()
+                .criteria(new PropertySearchCriteriaDTO())
+                .ids(ids)
+                .build())) {
+            byId.put(property.getId(), property);
+        }
+        List<PropertyDTO> properties = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            PropertyDTO property = byId.get(id);
+            if (property != null) {
+                properties.add(property);
+            }
+        }
+        return properties;
+    }
+
+    private static boolean hasText(PropertySearchCriteriaDTO criteria) {
+        return criteria.getTitle() != null || criteria.getLocation() != null || criteria.getKeywords() != null;
+    }
 
-        return dto;
+    /**
+     * Resolves the text predicates of the criteria to candidate ids through the in-memory index.
+     * Returns {@code null} when there is nothing to resolve or the index is not loaded yet, in
+     * which case the text predicates are left to the database.
+     */
+    private Set<Long> matchText(PropertySearchCriteriaDTO criteria) {
+        if (!indexMaintainer.isReady()) {
+            return null;
+        }
+        Set<Long> candidates = null;
+        candidates = intersect(candidates, textIndex.search(criteria.getTitle(), PropertyTextIndex.Field.TITLE));
+        candidates = intersect(candidates, textIndex.search(criteria.getLocation(), PropertyTextIndex.Field.LOCATION));
+        candidates = intersect(candidates, textIndex.search(criteria.getKeywords(), PropertyTextIndex.Field.values()));
+        return candidates;
+    }
+
+    // A null side means "unrestricted"
+    private static Set<Long> intersect(Set<Long> candidates, Set<Long> matches) {
+        if (matches == null) {
+            return candidates;
+        }
+        if (candidates == null) {
+            return new HashSet<>(matches);
+        }
+        candidates.retainAll(matches);
+        return candidates;
+    }
+
+    private static PropertySearchCriteriaDTO withoutText(PropertySearchCriteriaDTO criteria) {
+        return criteria.toBuilder()
+                .title(null)
+                .location(null)
+                .keywords(null)
+                .build();
+    }
+
+    private PropertyDTO convertToDTO(Property property) {
+        return convertToDTOs(List.of(property)).get(0);
+    }
+
+    // Projected DTOs only lack their photos, loaded with one set-based query per batch
+    private List<PropertyDTO> withPhotos(List<PropertyDTO> properties) {
+        for (int from = 0; from < properties.size(); from += ASSEMBLY_BATCH_SIZE) {
+            List<PropertyDTO> batch = properties.subList(from, Math.min(from + ASSEMBLY_BATCH_SIZE, properties.size()));
+            Set<Long> propertyIds = new HashSet<>();
+            batch.forEach(property -> propertyIds.add(property.getId()));
+            Map<Long, List<PhotoDTO>> photosByProperty = photoRepository.findDTOsByPropertyIdIn(propertyIds).stream()
+                    .collect(Collectors.groupingBy(PhotoDTO::getPropertyId));
+            batch.forEach(property -> property.setPhotos(photosByProperty.getOrDefault(property.getId(), new ArrayList<>())));
+        }
+        return properties;
+    }
+
+    // Photos and admin usernames are loaded with one set-based query per batch instead of once per property
+    private List<PropertyDTO> convertToDTOs(List<Property> properties) {
+        List<PropertyDTO> dtos = new ArrayList<>(properties.size());
+        for (int from = 0; from < properties.size(); from += ASSEMBLY_BATCH_SIZE) {
+            List<Property> batch = properties.subList(from, Math.min(from + ASSEMBLY_BATCH_SIZE, properties.size()));
+
+            Set<Long> propertyIds = new HashSet<>();
+            Set<Long> adminIds = new HashSet<>();
+            for (Property property : batch) {
+                propertyIds.add(property.getId());
+                if (property.getAdmin() != null) {
+                    // Reading the id of a lazy proxy does not initialize it
+                    adminIds.add(property.getAdmin().getId());
+                }
+            }
+
+            Map<Long, List<PhotoDTO>> photosByProperty = photoRepository.findDTOsByPropertyIdIn(propertyIds).stream()
+                    .collect(Collectors.groupingBy(PhotoDTO::getPropertyId));
+
+            Map<Long, String> adminUsernames = new HashMap<>();
+            if (!adminIds.isEmpty()) {
+                for (Admin admin : adminRepository.findAllById(adminIds)) {
+                    adminUsernames.put(admin.getId(), admin.getUsername());
+                }
+            }
+
+            for (Property property : batch) {
+                Long adminId = property.getAdmin() != null ? property.getAdmin().getId() : null;
+                PropertyDTO dto = PropertyDTO.builder()
+                        .id(property.getId())
+                        .title(property.getTitle())
+                        .area(property.getArea())
+                        .rooms(property.getRooms())
+                        .location(property.getLocation())
+                        .locationId(property.getLocationId())
+                        .latitude(property.getLatitude())
+                        .longitude(property.getLongitude())
+                        .price(property.getPrice())
+                        .description(property.getDescription())
+                        .contact(property.getContact())
+                        .status(property.getStatus())
+                        .type(property.getType())
+                        .listingType(property.getListingType())
+                        .adminId(adminId)
+                        .adminUsername(adminId != null ? adminUsernames.get(adminId) : null)
+                        .publicationDate(property.getPublicationDate())
+                        .createdAt(property.getCreatedAt())
+                        .updatedAt(property.getUpdatedAt())
+                        .photos(photosByProperty.getOrDefault(property.getId(), new ArrayList<>()))
+                        .build();
+                dtos.add(dto);
+            }
+        }
+        return dtos;
     }
 
     private Property convertToEntity(PropertyDTO dto) {
@@ -239,6 +701,8 @@ public class PropertyService {
                 .area(dto.getArea())
                 .rooms(dto.getRooms())
                 .location(dto.getLocation())
+                .latitude(dto.getLatitude())
+                .longitude(dto.getLongitude())
                 .price(dto.getPrice())
                 .description(dto.getDescription())
                 .contact(dto.getContact())
@@ -247,4 +711,8 @@ public class PropertyService {
                 .listingType(dto.getListingType())
                 .build();
     }
-}
\ No newline at end of file
+
+    // Cached form of a search page, the cards are read again on every hit
+    private record PageIds(List<Long> ids, boolean hasNext, String nextCursor) {
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.realestateagency_back.service;
+
+import com.example.realestateagency_back.dto.PropertyDTO;
+import com.example.realestateagency_back.event.PropertyChangedEvent;
+import com.example.realestateagency_back.search.PropertyRankings;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Listing view counters. A view only increments a {@link LongAdder} (striped, so concurrent
+ * viewers of the same listing do not contend); the counts are added to {@code property_views}
+ * in one batched upsert per flush interval. Every batch carries an id recorded in the same
+ * transaction, so a batch retried after an unclear failure is never applied twice. Pending
+ * counts are flushed on shutdown; a crash loses at most one interval of views.
+ *
+ * <p>Views shown to clients are the persisted counts, which only move once per flush. They are
+ * left out of the detail ETag, so a revalidated copy may show an older count.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PropertyViewService {
+
+    static final int FLUSH_CHUNK_SIZE = 1000;
+    // Persisted counts kept in memory, the least recently used ones are read again on demand
+    static final int MAX_CACHED_VIEWS = 100_000;
+
+    private static final String RECORD_FLUSH =
+            "INSERT INTO view_flushes (flush_id, flushed_at) VALUES (?, ?) ON CONFLICT (flush_id) DO NOTHING";
+    // Views of listings deleted meanwhile are dropped
+    private static final String ADD_VIEWS = "INSERT INTO property_views (property_id, view_count, updated_at) " +
+            "SELECT p.id, ?, ? FROM properties p WHERE p.id = ? " +
+            "ON CONFLICT (property_id) DO UPDATE SET view_count = property_views.view_count + EXCLUDED.view_count, " +
+            "updated_at = EXCLUDED.updated_at";
+    private static final String SELECT_VIEWS = "SELECT view_count, updated_at FROM property_views WHERE property_id = ?";
+    private static final String SELECT_VIEWS_IN =
+            "SELECT property_id, view_count, updated_at FROM property_views WHERE property_id IN (%s)";
+    private static final String PRUNE_FLUSHES = "DELETE FROM view_flushes WHERE flushed_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PropertyRankings propertyRankings;
+
+    private final Map<Long, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Cache<Long, PersistedViews> persisted = Caffeine.newBuilder()
+            .maximumSize(MAX_CACHED_VIEWS)
+            .build();
+    private ViewBatch pendingBatch; // Drained but not known to be applied, guarded by this
+
+    public void recordView(Long propertyId) {
+        counters.computeIfAbsent(propertyId, id -> new LongAdder()).increment();
+    }
+
+    // Count as of the last flush, the DTO may come from the shared details cache so it is copied
+    public PropertyDTO withViewCount(PropertyDTO property) {
+        return property.toBuilder().viewCount(getPersistedViews(property.getId()).count()).build();
+    }
+
+    // Loaded outside the map so the query holds no lock; a flush overwrites what a slow reader left
+    public PersistedViews getPersistedViews(Long propertyId) {
+        PersistedViews cached = persisted.getIfPresent(propertyId);
+        if (cached != null) {
+            return cached;
+        }
+        List<PersistedViews> rows = jdbcTemplate.query(SELECT_VIEWS, (rs, rowNum) -> new PersistedViews(
+                rs.getLong(1), toLocalDateTime(rs.getTimestamp(2))), propertyId);
+        PersistedViews loaded = rows.isEmpty() ? new PersistedViews(0, null) : rows.get(0);
+        PersistedViews raced = persisted.asMap().putIfAbsent(propertyId, loaded);
+        return raced != null ? raced : loaded;
+    }
+
+    @EventListener
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        if (event.getChangeType() == PropertyChangedEvent.ChangeType.DELETED) {
+            counters.remove(event.getPropertyId());
+            persisted.invalidate(event.getPropertyId());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${views.flush-interval-ms:10000}")
+    public synchronized void flush() {
+        if (pendingBatch == null) {
+            pendingBatch = drain();
+            if (pendingBatch == null) {
+                return;
+            }
+        }
+        try {
+            apply(pendingBatch);
+        } catch (DataAccessException ex) {
+            // Kept as is: the retry reuses the batch id, so it cannot be counted twice
+            log.warn("View batch {} not flushed, will retry: {}", pendingBatch.id, ex.getMessage());
+            return;
+        }
+        refreshPersisted(pendingBatch.counts.keySet());
+        pendingBatch = null;
+    }
+
+    /**
+     * Re-reads the committed counts of the flushed listings. Put rather than evicted: a reader
+     * that loaded before the flush committed may still store its count, and only a later write
+     * of the map can replace it.
+     */
+    private void refreshPersisted(Collection<Long> propertyIds) {
+        List<Long> ids = new ArrayList<>(propertyIds);
+        for (int from = 0; from < ids.size(); from += FLUSH_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + FLUSH_CHUNK_SIZE, ids.size()));
+            Map<Long, PersistedViews> fresh = new HashMap<>();
+            String sql = SELECT_VIEWS_IN.formatted(String.join(",", Collections.nCopies(chunk.size(), "?")));
+            jdbcTemplate.query(sql, rs -> {
+                fresh.put(rs.getLong(1), new PersistedViews(rs.getLong(2), toLocalDateTime(rs.getTimestamp(3))));
+            }, chunk.toArray());
+            for (Long id : chunk) {
+                PersistedViews views = fresh.get(id);
+                if (views != null) {
+                    persisted.put(id, views);
+                } else {
+                    // Deleted meanwhile, its views were dropped with it
+                    persisted.invalidate(id);
+                }
+            }
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.info("Flushing view counters before shutdown");
+        flush();
+        if (pendingBatch == null) {
+            // A second pass picks up whatever was left behind a retried batch
+            flush();
+        }
+    }
+
+    private ViewBatch drain() {
+        Map<Long, Long> counts = new TreeMap<>(); // Sorted, concurrent flushers lock rows in the same order
+        for (Map.Entry<Long, LongAdder> entry : counters.entrySet()) {
+            // Per-cell get-and-set: increments racing with the drain land in this batch or the next one
+            long views = entry.getValue().sumThenReset();
+            if (views > 0) {
+                counts.put(entry.getKey(), views);
+                // Trending takes the views once per drain, not once per request
+                propertyRankings.viewed(entry.getKey(), views);
+            }
+        }
+        return counts.isEmpty() ? null : new ViewBatch(UUID.randomUUID().toString(), counts);
+    }
+
+    private void apply(ViewBatch batch) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        boolean applied = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            if (jdbcTemplate.update(RECORD_FLUSH, batch.id, timestamp) == 0) {
+                return false;
+            }
+            List<Map.Entry<Long, Long>> entries = new ArrayList<>(batch.counts.entrySet());
+            jdbcTemplate.batchUpdate(ADD_VIEWS, entries, FLUSH_CHUNK_SIZE, (ps, entry) -> {
+                ps.setLong(1, entry.getValue());
+                ps.setTimestamp(2, timestamp);
+                ps.setLong(3, entry.getKey());
+            });
+            jdbcTemplate.update(PRUNE_FLUSHES, Timestamp.valueOf(now.minusDays(1)));
+            return true;
+        }));
+        if (applied) {
+            log.debug("Flushed views of {} properties in batch {}", batch.counts.size(), batch.id);
+        } else {
+            log.info("View batch {} was already applied, skipped", batch.id);
+        }
+    }
+
+    public record PersistedViews(long count, LocalDateTime updatedAt) {
+    }
+
+    private record ViewBatch(String id, Map<Long, Long> counts) {
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.realestateagency_back.service;
+
+import com.example.realestateagency_back.dto.PropertySearchCriteriaDTO;
+import com.example.realestateagency_back.dto.SavedSearchDTO;
+import com.example.realestateagency_back.dto.SearchNotificationDTO;
+import com.example.realestateagency_back.entity.Location;
+import com.example.realestateagency_back.entity.Property;
+import com.example.realestateagency_back.entity.SavedSearch;
+import com.example.realestateagency_back.entity.User;
+import com.example.realestateagency_back.event.PropertyChangedEvent;
+import com.example.realestateagency_back.exception.ResourceNotFoundException;
+import com.example.realestateagency_back.repository.LocationRepository;
+import com.example.realestateagency_back.repository.SavedSearchRepository;
+import com.example.realestateagency_back.repository.SearchNotificationRepository;
+import com.example.realestateagency_back.repository.UserRepository;
+import com.example.realestateagency_back.search.SavedSearchPercolator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Saved searches and their alerts. Instead of re-running every saved search on a schedule,
+ * each written listing is matched against all saved searches at once through the
+ * {@link SavedSearchPercolator}, and a notification row is queued per match in the
+ * transaction of the write.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SavedSearchService {
+
+    // Skips searches deleted meanwhile, and pairs that were already notified
+    private static final String QUEUE_NOTIFICATION = "INSERT INTO search_notifications " +
+            "(saved_search_id, user_id, property_id, created_at) " +
+            "SELECT s.id, s.user_id, ?, ? FROM saved_searches s WHERE s.id = ? " +
+            "ON CONFLICT (saved_search_id, property_id) DO NOTHING";
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final SearchNotificationRepository notificationRepository;
+    private final UserRepository userRepository;
+    private final LocationRepository locationRepository;
+    private final SavedSearchPercolator percolator;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPercolator() {
+        log.info("Loading saved searches into the percolator");
+        percolator.clear();
+        for (Object[] row : savedSearchRepository.findAllCriteria()) {
+            Long id = (Long) row[0];
+            try {
+                percolator.register(id, objectMapper.readValue((String) row[1], PropertySearchCriteriaDTO.class));
+            } catch (JsonProcessingException ex) {
+                log.warn("Skipping saved search {} with unreadable criteria: {}", id, ex.getOriginalMessage());
+            }
+        }
+        log.debug("Percolator loaded with {} saved searches", percolator.size());
+    }
+
+    public List<SavedSearchDTO> getSavedSearchesByUserId(Long userId) {
+        log.info("Fetching saved searches for user with id: {}", userId);
+        return savedSearchRepository.findByUserIdOrderByIdAsc(userId).stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public SavedSearchDTO createSavedSearch(Long userId, SavedSearchDTO savedSearchDTO) {
+        log.info("Saving search for user with id: {}", userId);
+        if (savedSearchDTO.getCriteria() == null) {
+            throw new IllegalArgumentException("Search criteria are required");
+        }
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> {
+                    log.error("User not found with id: {}", userId);
+                    return new ResourceNotFoundException("User not found with id " + userId);
+                });
+
+        SavedSearch savedSearch = savedSearchRepository.save(SavedSearch.builder()
+                .user(user)
+                .name(savedSearchDTO.getName())
+                .criteria(toJson(savedSearchDTO.getCriteria()))
+                .build());
+        Long id = savedSearch.getId();
+        PropertySearchCriteriaDTO criteria = savedSearchDTO.getCriteria();
+        afterCommit(() -> percolator.register(id, criteria));
+        log.debug("Saved search created with id: {}", id);
+        return convertToDTO(savedSearch);
+    }
+
+    @Transactional
+    public void deleteSavedSearch(Long id) {
+        log.info("Deleting saved search with id: {}", id);
+        if (!savedSearchRepository.existsById(id)) {
+            log.error("Saved search not found with id: {}", id);
+            throw new ResourceNotFoundException("Saved search not found with id " + id);
+        }
+        savedSearchRepository.deleteById(id);
+        afterCommit(() -> percolator.unregister(id));
+        log.debug("Saved search deleted with id: {}", id);
+    }
+
+    // The rows go with the user through the FK cascade, only the percolator needs telling
+    public void forgetUser(Long userId) {
+        List<Long> ids = savedSearchRepository.findIdsByUserId(userId);
+        afterCommit(() -> ids.forEach(percolator::unregister));
+    }
+
+    public List<SearchNotificationDTO> getNotifications(Long userId, boolean unreadOnly) {
+        log.info("Fetching {} search notifications for user with id: {}", unreadOnly ? "unread" : "all", userId);
+        return unreadOnly
+                ? notificationRepository.findUnreadDTOsByUserId(userId)
+                : notificationRepository.findDTOsByUserId(userId);
+    }
+
+    @Transactional
+    public int markNotificationsRead(Long userId) {
+        log.info("Marking search notifications read for user with id: {}", userId);
+        return notificationRepository.markAllRead(userId, LocalDateTime.now());
+    }
+
+    // Runs inside the transaction of the write, so alerts and listing commit or roll back together
+    @EventListener
+    public void onPropertyChanged(PropertyChangedEvent event) {
+        Property property = event.getProperty();
+        if (property == null || !"ACTIVE".equals(property.getStatus())) {
+            return;
+        }
+        List<Long> matches = percolator.match(property, () -> cityOf(property));
+        if (matches.isEmpty()) {
+            return;
+        }
+        log.debug("Property {} matches {} saved searches", property.getId(), matches.size());
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // The listing row must exist before notifications can reference it
+            entityManager.flush();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(QUEUE_NOTIFICATION, matches, matches.size(), (ps, searchId) -> {
+            ps.setLong(1, property.getId());
+            ps.setTimestamp(2, now);
+            ps.setLong(3, searchId);
+        });
+    }
+
+    private String cityOf(Property property) {
+        if (property.getLocationId() == null) {
+            return null;
+        }
+        return locationRepository.findById(property.getLocationId()).map(Location::getCity).orElse(null);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private String toJson(PropertySearchCriteriaDTO criteria) {
+        try {
+            return objectMapper.writeValueAsString(criteria);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Invalid search criteria: " + ex.getOriginalMessage());
+        }
+    }
+
+    private SavedSearchDTO convertToDTO(SavedSearch savedSearch) {
+        PropertySearchCriteriaDTO criteria;
+        try {
+            criteria = objectMapper.readValue(savedSearch.getCriteria(), PropertySearchCriteriaDTO.class);
+        } catch (JsonProcessingException ex) {
+            log.warn("Saved search {} has unreadable criteria: {}", savedSearch.getId(), ex.getOriginalMessage());
+            criteria = null;
+        }
+        return SavedSearchDTO.builder()
+                .id(savedSearch.getId())
+                // Reading the id of a lazy proxy does not initialize it
+                .userId(savedSearch.getUser().getId())
+                .name(savedSearch.getName())
+                .criteria(criteria)
+                .createdAt(savedSearch.getCreatedAt())
+                .build();
+    }
+}
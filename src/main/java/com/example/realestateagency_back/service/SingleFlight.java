@@ -0,0 +1,117 @@
+package com.example.realestateagency_back.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Request coalescing: while a load for a key is in flight, identical calls wait for its
+ * result instead of issuing their own query. The first caller runs the load on its own thread;
+ * the others wait at most the configured timeout and then load for themselves, so a slow
+ * leader never stalls its followers for longer than that. Nothing is kept once the load
+ * completes, caching stays the job of the caches.
+ *
+ * <p>Metrics per operation: {@code singleflight.calls} by outcome (leader, shared, timeout)
+ * and {@code singleflight.followers}, the number of calls each load served besides its
+ * leader. Keys are not used as tags since they are unbounded; loads shared by several calls
+ * are logged with their key at debug level.
+ */
+@Component
+@Slf4j
+public class SingleFlight {
+
+    private final Map<FlightKey, Flight> flights = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final long timeoutMillis;
+
+    public SingleFlight(MeterRegistry meterRegistry,
+                        @Value("${singleflight.timeout-ms:5000}") long timeoutMillis) {
+        this.meterRegistry = meterRegistry;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <V> V execute(String operation, Object key, Supplier<V> loader) {
+        FlightKey flightKey = new FlightKey(operation, key);
+        Flight flight = new Flight();
+        Flight inFlight = flights.putIfAbsent(flightKey, flight);
+        if (inFlight == null) {
+            return lead(flightKey, flight, (Supplier<Object>) loader);
+        }
+
+        inFlight.followers.incrementAndGet();
+        try {
+            V value = (V) inFlight.result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            calls(operation, "shared").increment();
+            return value;
+        } catch (TimeoutException ex) {
+            calls(operation, "timeout").increment();
+            log.warn("{} of {} still in flight after {} ms, loading separately", operation, key, timeoutMillis);
+            return loader.get();
+        } catch (ExecutionException ex) {
+            calls(operation, "shared").increment();
+            // The leader's exception, so a missing entity is a 404 for every caller
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + operation + " of " + key, ex);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <V> V lead(FlightKey flightKey, Flight flight, Supplier<Object> loader) {
+        calls(flightKey.operation(), "leader").increment();
+        try {
+            Object value = loader.get();
+            flight.result.complete(value);
+            return (V) value;
+        } catch (RuntimeException | Error ex) {
+            flight.result.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            // Calls arriving from now on start a new load and see the latest data
+            flights.remove(flightKey, flight);
+            int followers = flight.followers.get();
+            DistributionSummary.builder("singleflight.followers")
+                    .tag("operation", flightKey.operation())
+                    .register(meterRegistry)
+                    .record(followers);
+            if (followers > 0) {
+                log.debug("{} of {} served {} coalesced calls", flightKey.operation(), flightKey.key(), followers);
+            }
+        }
+    }
+
+    private Counter calls(String operation, String outcome) {
+        return Counter.builder("singleflight.calls")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record FlightKey(String operation, Object key) {
+    }
+
+    private static final class Flight {
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private final AtomicInteger followers = new AtomicInteger();
+    }
+}
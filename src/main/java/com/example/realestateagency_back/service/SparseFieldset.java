@@ -0,0 +1,98 @@
+package com.example.realestateagency_back.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fields a list endpoint accepts in {@code fields=}, each mapped to the attribute path it is
+ * read from, such as {@code user.username}. Extra fields are accepted without a path and
+ * assembled by the service (the photos of a property).
+ */
+public final class SparseFieldset {
+
+    public static final SparseFieldset PROPERTY = new SparseFieldset(Map.ofEntries(
+            Map.entry("id", "id"),
+            Map.entry("title", "title"),
+            Map.entry("price", "price"),
+            Map.entry("area", "area"),
+            Map.entry("rooms", "rooms"),
+            Map.entry("location", "location"),
+            Map.entry("locationId", "locationId"),
+            Map.entry("latitude", "latitude"),
+            Map.entry("longitude", "longitude"),
+            Map.entry("description", "description"),
+            Map.entry("contact", "contact"),
+            Map.entry("status", "status"),
+            Map.entry("type", "type"),
+            Map.entry("listingType", "listingType"),
+            Map.entry("adminId", "admin.id"),
+            Map.entry("adminUsername", "admin.username"),
+            Map.entry("publicationDate", "publicationDate"),
+            Map.entry("createdAt", "createdAt"),
+            Map.entry("updatedAt", "updatedAt")), Set.of("photos"));
+
+    public static final SparseFieldset MESSAGE = new SparseFieldset(Map.of(
+            "id", "id",
+            "content", "content",
+            "userId", "user.id",
+            "username", "user.username",
+            "propertyId", "property.id",
+            "propertyLocation", "property.location",
+            "sentDate", "sentDate",
+            "createdAt", "createdAt"), Set.of());
+
+    public static final SparseFieldset FAVORITE = new SparseFieldset(Map.of(
+            "id", "id",
+            "userId", "user.id",
+            "username", "user.username",
+            "propertyId", "property.id",
+            "propertyLocation", "property.location",
+            "dateAdded", "dateAdded",
+            "createdAt", "createdAt"), Set.of());
+
+    private final Map<String, String> paths;
+    private final Set<String> available;
+
+    private SparseFieldset(Map<String, String> paths, Set<String> extras) {
+        this.paths = paths;
+        Set<String> available = new LinkedHashSet<>(paths.keySet());
+        available.addAll(extras);
+        this.available = Collections.unmodifiableSet(available);
+    }
+
+    // Parses "id,title,price", the id is always included; a blank list selects every field
+    public Set<String> parse(String fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        if (fields == null || fields.isBlank()) {
+            selected.addAll(available);
+            return selected;
+        }
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!available.contains(name)) {
+                throw new IllegalArgumentException("Unknown field: " + name + ", expected one of " + available);
+            }
+            selected.add(name);
+        }
+        return selected;
+    }
+
+    // Field -> attribute path of the selected fields that are columns, in the order given
+    public Map<String, String> columns(Set<String> selected) {
+        Map<String, String> columns = new LinkedHashMap<>();
+        for (String field : selected) {
+            String path = paths.get(field);
+            if (path != null) {
+                columns.put(field, path);
+            }
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.realestateagency_back.service;
+
+import com.example.realestateagency_back.dto.PropertyCardDTO;
+import com.example.realestateagency_back.event.FavoriteChangedEvent;
+import com.example.realestateagency_back.repository.FavoriteRepository;
+import com.example.realestateagency_back.repository.PropertyRepository;
+import com.example.realestateagency_back.search.PropertyIndexMaintainer;
+import com.example.realestateagency_back.search.PropertyRankings;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Trending and most favorited listings for the home page, answered from
+ * {@link PropertyRankings}. The rankings are seeded from the favorites table once at startup
+ * and then follow committed favorite changes and flushed view counts.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrendingService {
+
+    public static final int MAX_LIMIT = 100;
+    // Older favorites have decayed below the pruning threshold of the ranking
+    private static final int SEED_HALF_LIVES = 10;
+
+    private final FavoriteRepository favoriteRepository;
+    private final PropertyRepository propertyRepository;
+    private final PropertyRankings rankings;
+    private final PropertyIndexMaintainer indexMaintainer;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadRankings() {
+        log.info("Loading favorites into the trending rankings");
+        rankings.clearScores();
+        List<Object[]> recent = favoriteRepository.findAdditionsSince(
+                LocalDateTime.now().minus(rankings.getHalfLife().multipliedBy(SEED_HALF_LIVES)));
+        for (Object[] row : recent) {
+            rankings.trendingFavorite((Long) row[0], (LocalDateTime) row[1]);
+        }
+        List<Object[]> counts = favoriteRepository.countByProperty();
+        for (Object[] row : counts) {
+            rankings.favoriteCount((Long) row[0], (Long) row[1]);
+        }
+        log.debug("Rankings loaded with {} recent favorites over {} favorited properties", recent.size(), counts.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFavoriteChanged(FavoriteChangedEvent event) {
+        log.debug("Applying favorite {} of property {} to the rankings", event.getChangeType(), event.getPropertyId());
+        if (event.getChangeType() == FavoriteChangedEvent.ChangeType.ADDED) {
+            rankings.favoriteAdded(event.getPropertyId(), event.getDateAdded());
+        } else {
+            rankings.favoriteRemoved(event.getPropertyId(), event.getDateAdded());
+        }
+    }
+
+    public List<PropertyCardDTO> getTrending(int limit) {
+        log.info("Fetching top {} trending properties", limit);
+        if (!indexMaintainer.isReady()) {
+            log.debug("Indexes still loading, no trending properties");
+            return new ArrayList<>();
+        }
+        return propertyRepository.findCardsByIds(rankings.topTrending(Math.max(1, Math.min(limit, MAX_LIMIT))));
+    }
+
+    public List<PropertyCardDTO> getMostFavorited(int limit) {
+        log.info("Fetching top {} most favorited properties", limit);
+        if (!indexMaintainer.isReady()) {
+            log.debug("Indexes still loading, no most favorited properties");
+            return new ArrayList<>();
+        }
+        return propertyRepository.findCardsByIds(rankings.topFavorited(Math.max(1, Math.min(limit, MAX_LIMIT))));
+    }
+}
@@ -2,14 +2,18 @@ package com.example.realestateagency_back.service;
 
 import com.example.realestateagency_back.dto.UserDTO;
 import com.example.realestateagency_back.entity.User;
+import com.example.realestateagency_back.event.FavoriteChangedEvent;
 import com.example.realestateagency_back.exception.ResourceNotFoundException;
+import com.example.realestateagency_back.repository.FavoriteRepository;
 import com.example.realestateagency_back.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -19,6 +23,10 @@ import java.util.stream.Collectors;
 public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final FavoriteRepository favoriteRepository;
+    private final ListingCardService listingCardService;
+    private final SavedSearchService savedSearchService;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<UserDTO> getAllUsers() {
         log.info("Fetching all users");
@@ -81,6 +89,12 @@ public class UserService {
             log.error("User not found with id: {}", id);
             throw new ResourceNotFoundException("User not found with id " + id);
         }
+        // Favorites go with the user, their listings lose a favorite
+        listingCardService.markDirty(favoriteRepository.findPropertyIdsByUserId(id));
+        for (Object[] row : favoriteRepository.findAdditionsByUserId(id)) {
+            eventPublisher.publishEvent(FavoriteChangedEvent.removed((Long) row[0], (LocalDateTime) row[1]));
+        }
+        savedSearchService.forgetUser(id);
         userRepository.deleteById(id);
         log.debug("User deleted successfully with id: {}", id);
     }
@@ -0,0 +1,3 @@
+-- Accent folding for the database fallback of the in-memory text index
+-- (search.text-mode=INDEX). Creating the extension needs a role allowed to do so.
+CREATE EXTENSION IF NOT EXISTS unaccent;
@@ -0,0 +1,22 @@
+-- Word form of a text column for the database fallback of the in-memory text index
+-- (search.text-mode=INDEX): lower-cased, accents folded, every run of non alphanumerics
+-- turned into one space, behind a leading space so that LIKE '% token%' is a word prefix.
+-- unaccent() is only STABLE since its dictionary could change; pinning the dictionary makes
+-- the wrapper safe to declare IMMUTABLE, which expression indexes require.
+CREATE OR REPLACE FUNCTION search_words(value text) RETURNS text
+    LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT AS
+$$
+SELECT ' ' || regexp_replace(public.unaccent('public.unaccent'::regdictionary, lower(value)), '[^[:alnum:]]+', ' ', 'g')
+$$;
+
+-- Trigram indexes on exactly the expression the fallback filters on
+CREATE INDEX IF NOT EXISTS idx_properties_title_words_trgm
+    ON properties USING gin (search_words(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_properties_location_words_trgm
+    ON properties USING gin (search_words(location) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_properties_description_words_trgm
+    ON properties USING gin (search_words(description) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_listing_cards_title_words_trgm
+    ON listing_cards USING gin (search_words(title) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_listing_cards_location_words_trgm
+    ON listing_cards USING gin (search_words(location) gin_trgm_ops);
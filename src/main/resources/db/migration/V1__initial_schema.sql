@@ -0,0 +1,64 @@
+-- Schema as previously generated by ddl-auto=update. Databases created that way are
+-- baselined at this version by spring.flyway.baseline-on-migrate and skip this script.
+
+CREATE TABLE admins (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email      VARCHAR(255) NOT NULL UNIQUE,
+    password   VARCHAR(255) NOT NULL,
+    username   VARCHAR(255),
+    status     VARCHAR(255),
+    created_at TIMESTAMP(6)
+);
+
+CREATE TABLE users (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email      VARCHAR(255) NOT NULL UNIQUE,
+    password   VARCHAR(255) NOT NULL,
+    username   VARCHAR(255),
+    full_name  VARCHAR(255),
+    telephone  VARCHAR(255),
+    created_at TIMESTAMP(6)
+);
+
+CREATE TABLE properties (
+    id               BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    area             DOUBLE PRECISION,
+    rooms            INTEGER,
+    location         VARCHAR(255),
+    price            NUMERIC(38, 2),
+    title            VARCHAR(255),
+    description      TEXT,
+    contact          VARCHAR(255),
+    status           VARCHAR(255),
+    type             VARCHAR(255) CHECK (type IN ('HOUSE', 'LAND')),
+    listing_type     VARCHAR(255) CHECK (listing_type IN ('SALE', 'RENT')),
+    admin_id         BIGINT REFERENCES admins (id),
+    created_at       TIMESTAMP(6),
+    publication_date TIMESTAMP(6),
+    updated_at       TIMESTAMP(6)
+);
+
+CREATE TABLE photos (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    url         VARCHAR(255),
+    order_num   INTEGER,
+    property_id BIGINT REFERENCES properties (id),
+    created_at  TIMESTAMP(6)
+);
+
+CREATE TABLE messages (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    content     TEXT,
+    user_id     BIGINT REFERENCES users (id),
+    property_id BIGINT REFERENCES properties (id),
+    sent_date   TIMESTAMP(6),
+    created_at  TIMESTAMP(6)
+);
+
+CREATE TABLE favorites (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id     BIGINT REFERENCES users (id),
+    property_id BIGINT REFERENCES properties (id),
+    date_added  TIMESTAMP(6),
+    created_at  TIMESTAMP(6)
+);
@@ -0,0 +1,13 @@
+-- Keyset pagination of public searches: every page filters on status and seeks on (sort column, id)
+CREATE INDEX IF NOT EXISTS idx_properties_status_price_id ON properties (status, price, id);
+CREATE INDEX IF NOT EXISTS idx_properties_status_area_id ON properties (status, area, id);
+CREATE INDEX IF NOT EXISTS idx_properties_status_rooms_id ON properties (status, rooms, id);
+CREATE INDEX IF NOT EXISTS idx_properties_status_publication_date_id ON properties (status, publication_date, id);
+
+-- Foreign keys used by the batched DTO assembly and the per-user / per-property lists
+CREATE INDEX IF NOT EXISTS idx_properties_admin_id ON properties (admin_id);
+CREATE INDEX IF NOT EXISTS idx_photos_property_id ON photos (property_id, order_num);
+CREATE INDEX IF NOT EXISTS idx_messages_user_id ON messages (user_id);
+CREATE INDEX IF NOT EXISTS idx_messages_property_id ON messages (property_id, sent_date);
+CREATE INDEX IF NOT EXISTS idx_favorites_user_id ON favorites (user_id);
+CREATE INDEX IF NOT EXISTS idx_favorites_property_id ON favorites (property_id);
@@ -0,0 +1,7 @@
+-- Trigram indexes let PostgreSQL answer LIKE/ILIKE '%x%' without a sequential scan
+-- (search.text-mode=TRIGRAM). Creating the extension needs a role allowed to do so.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_properties_title_trgm ON properties USING gin (title gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_properties_location_trgm ON properties USING gin (location gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_properties_description_trgm ON properties USING gin (description gin_trgm_ops);
@@ -0,0 +1,6 @@
+ALTER TABLE properties ADD COLUMN IF NOT EXISTS latitude DOUBLE PRECISION;
+ALTER TABLE properties ADD COLUMN IF NOT EXISTS longitude DOUBLE PRECISION;
+
+-- Range scans for bounding-box searches while the in-memory grid is still loading
+CREATE INDEX IF NOT EXISTS idx_properties_latitude_longitude ON properties (latitude, longitude)
+    WHERE latitude IS NOT NULL AND longitude IS NOT NULL;
@@ -0,0 +1,18 @@
+-- Properties and photos switch from IDENTITY to pooled sequences so that Hibernate and the
+-- bulk importer can batch inserts. INCREMENT BY must match allocationSize in the entities:
+-- with the pooled-lo optimizer each nextval reserves the block [value, value + 49].
+
+CREATE SEQUENCE properties_seq INCREMENT BY 50;
+SELECT setval('properties_seq', COALESCE((SELECT MAX(id) FROM properties), 0) + 1, false);
+
+CREATE SEQUENCE photos_seq INCREMENT BY 50;
+SELECT setval('photos_seq', COALESCE((SELECT MAX(id) FROM photos), 0) + 1, false);
+
+-- Inserts that do not supply an id draw from the same sequences, so they cannot collide
+ALTER TABLE properties ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE properties ALTER COLUMN id SET DEFAULT nextval('properties_seq');
+ALTER SEQUENCE properties_seq OWNED BY properties.id;
+
+ALTER TABLE photos ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE photos ALTER COLUMN id SET DEFAULT nextval('photos_seq');
+ALTER SEQUENCE photos_seq OWNED BY photos.id;
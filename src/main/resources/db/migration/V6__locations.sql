@@ -0,0 +1,21 @@
+-- Location dimension: each distinct location is stored once and referenced by id. The
+-- normalized name (accents stripped, lower case, single spaces) is the interning key.
+CREATE TABLE locations (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name            VARCHAR(255) NOT NULL,
+    normalized_name VARCHAR(255) NOT NULL UNIQUE,
+    city            VARCHAR(255),
+    district        VARCHAR(255)
+);
+
+CREATE INDEX IF NOT EXISTS idx_locations_city ON locations (lower(city));
+CREATE INDEX IF NOT EXISTS idx_locations_normalized_name_trgm ON locations USING gin (normalized_name gin_trgm_ops);
+
+ALTER TABLE properties ADD COLUMN IF NOT EXISTS location_id BIGINT REFERENCES locations (id);
+
+-- Location filters are equality / IN lookups on the id, within the public status
+CREATE INDEX IF NOT EXISTS idx_properties_location_id_status ON properties (location_id, status);
+
+-- Rows still waiting for the backfill, empty once every location string is mapped
+CREATE INDEX IF NOT EXISTS idx_properties_location_pending ON properties (location)
+    WHERE location_id IS NULL AND location IS NOT NULL;
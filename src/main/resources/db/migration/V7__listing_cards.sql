@@ -0,0 +1,44 @@
+-- Read model of the result cards: one row per listing with everything a card shows, so
+-- paged searches are a single index scan without joins. Kept in step by ListingCardService
+-- in the transaction of every write; rows go away with their property.
+CREATE TABLE listing_cards (
+    property_id      BIGINT PRIMARY KEY REFERENCES properties (id) ON DELETE CASCADE,
+    title            VARCHAR(255),
+    price            NUMERIC(38, 2),
+    area             DOUBLE PRECISION,
+    rooms            INTEGER,
+    location         VARCHAR(255),
+    location_id      BIGINT,
+    latitude         DOUBLE PRECISION,
+    longitude        DOUBLE PRECISION,
+    status           VARCHAR(255),
+    type             VARCHAR(255),
+    listing_type     VARCHAR(255),
+    publication_date TIMESTAMP(6),
+    thumbnail_url    VARCHAR(255),
+    admin_username   VARCHAR(255),
+    favorite_count   BIGINT NOT NULL DEFAULT 0,
+    updated_at       TIMESTAMP(6)
+);
+
+-- Same keyset layouts as the properties table (V2)
+CREATE INDEX IF NOT EXISTS idx_listing_cards_status_price_id ON listing_cards (status, price, property_id);
+CREATE INDEX IF NOT EXISTS idx_listing_cards_status_area_id ON listing_cards (status, area, property_id);
+CREATE INDEX IF NOT EXISTS idx_listing_cards_status_rooms_id ON listing_cards (status, rooms, property_id);
+CREATE INDEX IF NOT EXISTS idx_listing_cards_status_publication_date_id
+    ON listing_cards (status, publication_date, property_id);
+CREATE INDEX IF NOT EXISTS idx_listing_cards_location_id_status ON listing_cards (location_id, status);
+CREATE INDEX IF NOT EXISTS idx_listing_cards_title_trgm ON listing_cards USING gin (title gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_listing_cards_location_trgm ON listing_cards USING gin (location gin_trgm_ops);
+
+INSERT INTO listing_cards (property_id, title, price, area, rooms, location, location_id, latitude, longitude,
+                           status, type, listing_type, publication_date, thumbnail_url, admin_username,
+                           favorite_count, updated_at)
+SELECT p.id, p.title, p.price, p.area, p.rooms, p.location, p.location_id, p.latitude, p.longitude,
+       p.status, p.type, p.listing_type, p.publication_date,
+       (SELECT ph.url FROM photos ph WHERE ph.property_id = p.id ORDER BY ph.order_num, ph.id LIMIT 1),
+       a.username,
+       (SELECT COUNT(*) FROM favorites f WHERE f.property_id = p.id),
+       p.updated_at
+FROM properties p
+         LEFT JOIN admins a ON a.id = p.admin_id;
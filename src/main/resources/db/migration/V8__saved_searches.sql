@@ -0,0 +1,24 @@
+-- Saved searches, the criteria are the JSON form of PropertySearchCriteriaDTO
+CREATE TABLE saved_searches (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id    BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    name       VARCHAR(255),
+    criteria   TEXT NOT NULL,
+    created_at TIMESTAMP(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_saved_searches_user_id ON saved_searches (user_id);
+
+-- Alerts queued when a written listing matches a saved search, at most one per pair
+CREATE TABLE search_notifications (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    saved_search_id BIGINT NOT NULL REFERENCES saved_searches (id) ON DELETE CASCADE,
+    user_id         BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    property_id     BIGINT NOT NULL REFERENCES properties (id) ON DELETE CASCADE,
+    created_at      TIMESTAMP(6),
+    read_at         TIMESTAMP(6),
+    UNIQUE (saved_search_id, property_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_search_notifications_user_id ON search_notifications (user_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_search_notifications_property_id ON search_notifications (property_id);
@@ -0,0 +1,13 @@
+-- View counters, accumulated in memory and added here in periodic batches
+CREATE TABLE property_views (
+    property_id BIGINT PRIMARY KEY REFERENCES properties (id) ON DELETE CASCADE,
+    view_count  BIGINT NOT NULL DEFAULT 0,
+    updated_at  TIMESTAMP(6)
+);
+
+-- Ids of the batches already applied: a batch retried after an unclear failure is skipped
+-- instead of being counted twice. Old rows are pruned by the flusher.
+CREATE TABLE view_flushes (
+    flush_id   VARCHAR(36) PRIMARY KEY,
+    flushed_at TIMESTAMP(6) NOT NULL
+);
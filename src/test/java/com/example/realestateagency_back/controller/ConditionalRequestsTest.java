@@ -0,0 +1,21 @@
+package com.example.realestateagency_back.controller;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class ConditionalRequestsTest {
+
+    @Test
+    void writesWithinOneMillisecondHaveDistinctEtags() {
+        LocalDateTime first = LocalDateTime.of(2024, 5, 1, 10, 0, 0, 123_000_000);
+        LocalDateTime second = first.plusNanos(1_000);
+
+        assertEquals(ConditionalRequests.lastModified(first), ConditionalRequests.lastModified(second));
+        assertNotEquals(ConditionalRequests.etag(1L, ConditionalRequests.versionOf(first)),
+                ConditionalRequests.etag(1L, ConditionalRequests.versionOf(second)));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.realestateagency_back.controller;
+
+import com.example.realestateagency_back.config.SecurityConfig;
+import com.example.realestateagency_back.dto.BulkOperationResultDTO;
+import com.example.realestateagency_back.search.CatalogVersion;
+import com.example.realestateagency_back.security.JwtUtils;
+import com.example.realestateagency_back.service.CatalogSnapshotService;
+import com.example.realestateagency_back.service.CustomUserDetailsService;
+import com.example.realestateagency_back.service.LocationBackfillService;
+import com.example.realestateagency_back.service.PropertyBulkService;
+import com.example.realestateagency_back.service.PropertyImportService;
+import com.example.realestateagency_back.service.PropertyService;
+import com.example.realestateagency_back.service.PropertyViewService;
+import com.example.realestateagency_back.service.TrendingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(PropertyController.class)
+@Import(SecurityConfig.class)
+class PropertyControllerSecurityTest {
+
+    private static final String BULK_BODY = "{\"ids\":[1,2],\"status\":\"EXPIRED\"}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private PropertyService propertyService;
+
+    @MockitoBean
+    private PropertyImportService propertyImportService;
+
+    @MockitoBean
+    private PropertyBulkService propertyBulkService;
+
+    @MockitoBean
+    private LocationBackfillService locationBackfillService;
+
+    @MockitoBean
+    private PropertyViewService propertyViewService;
+
+    @MockitoBean
+    private TrendingService trendingService;
+
+    @MockitoBean
+    private CatalogVersion catalogVersion;
+
+    @MockitoBean
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @MockitoBean
+    private JwtUtils jwtUtils;
+
+    @MockitoBean
+    private CustomUserDetailsService customUserDetailsService;
+
+    @Test
+    @WithMockUser(authorities = "USER")
+    void bulkOperationsAreForbiddenToUsers() throws Exception {
+        mockMvc.perform(post("/api/annonces/bulk/status").contentType(MediaType.APPLICATION_JSON).content(BULK_BODY))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/api/annonces/bulk/delete").contentType(MediaType.APPLICATION_JSON).content(BULK_BODY))
+                .andExpect(status().isForbidden());
+        verify(propertyBulkService, never()).updateStatus(any());
+        verify(propertyBulkService, never()).delete(any());
+    }
+
+    @Test
+    @WithMockUser(authorities = "USER")
+    void importIsForbiddenToUsers() throws Exception {
+        mockMvc.perform(post("/api/annonces/import").contentType("text/csv").content("title,price\n"))
+                .andExpect(status().isForbidden());
+        verify(propertyImportService, never()).importCsv(any());
+    }
+
+    @Test
+    @WithMockUser(authorities = "USER")
+    void locationBackfillIsForbiddenToUsers() throws Exception {
+        mockMvc.perform(post("/api/annonces/locations/backfill")).andExpect(status().isForbidden());
+        verify(locationBackfillService, never()).backfill();
+    }
+
+    @Test
+    @WithMockUser(authorities = "ADMIN")
+    void bulkOperationsAreAllowedToAdmins() throws Exception {
+        when(propertyBulkService.updateStatus(any())).thenReturn(BulkOperationResultDTO.builder().build());
+        mockMvc.perform(post("/api/annonces/bulk/status").contentType(MediaType.APPLICATION_JSON).content(BULK_BODY))
+                .andExpect(status().isOk());
+    }
+}
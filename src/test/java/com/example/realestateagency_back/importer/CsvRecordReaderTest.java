@@ -0,0 +1,34 @@
+package com.example.realestateagency_back.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void readsQuotedFieldsAndTracksLines() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(
+                "title,price\r\n\"Villa, \"\"vue mer\"\"\",250000\n\"Ligne 1\nLigne 2\",\n3,4"));
+
+        assertEquals(List.of("title", "price"), reader.next());
+        assertEquals(2, reader.getLine());
+        assertEquals(List.of("Villa, \"vue mer\"", "250000"), reader.next());
+        assertEquals(List.of("Ligne 1\nLigne 2", ""), reader.next());
+        assertEquals(5, reader.getLine());
+        assertEquals(List.of("3", "4"), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader("\"open,1\n"));
+        assertThrows(IOException.class, reader::next);
+    }
+}
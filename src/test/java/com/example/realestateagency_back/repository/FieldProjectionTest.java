@@ -0,0 +1,81 @@
+package com.example.realestateagency_back.repository;
+
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Selection;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FieldProjectionTest {
+
+    @Mock
+    private From<Object, Object> root;
+
+    @Mock
+    private Join<Object, Object> userJoin;
+
+    @Mock
+    private Path<Object> userPath;
+
+    @Mock
+    private Path<Object> idPath;
+
+    @Mock
+    private Path<Object> contentPath;
+
+    @Mock
+    private Path<Object> usernamePath;
+
+    @Test
+    void selectsOnlyTheRequestedColumns() {
+        doReturn(idPath).when(root).get("id");
+        doReturn(contentPath).when(root).get("content");
+        doReturn(userJoin).when(root).join("user", JoinType.LEFT);
+        doReturn(usernamePath).when(userJoin).get("username");
+        when(idPath.alias(anyString())).thenReturn(idPath);
+        when(contentPath.alias(anyString())).thenReturn(contentPath);
+        when(usernamePath.alias(anyString())).thenReturn(usernamePath);
+        Map<String, String> columns = new LinkedHashMap<>();
+        columns.put("id", "id");
+        columns.put("username", "user.username");
+        columns.put("content", "content");
+
+        List<Selection<?>> selections = FieldProjection.selections(root, columns, new HashMap<>());
+
+        assertEquals(List.of(idPath, usernamePath, contentPath), selections);
+        verify(idPath).alias("id");
+        verify(usernamePath).alias("username");
+        verify(contentPath).alias("content");
+        verify(root, never()).get("sentDate");
+        verify(root, never()).get("createdAt");
+    }
+
+    @Test
+    void readsForeignKeysWithoutJoining() {
+        doReturn(userPath).when(root).get("user");
+        doReturn(idPath).when(userPath).get("id");
+        when(idPath.alias(anyString())).thenReturn(idPath);
+
+        FieldProjection.selections(root, Map.of("userId", "user.id"), new HashMap<>());
+
+        verify(root, never()).join(anyString(), any(JoinType.class));
+    }
+}
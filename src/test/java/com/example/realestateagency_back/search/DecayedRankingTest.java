@@ -0,0 +1,52 @@
+package com.example.realestateagency_back.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DecayedRankingTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    void olderActivityDecaysBelowRecentActivity() {
+        DecayedRanking ranking = new DecayedRanking(24 * HOUR, 0);
+        ranking.add(1, 3, 0);
+        ranking.add(2, 2, 48 * HOUR); // Two half-lives later, each unit outweighs four of the first ones
+        ranking.add(3, 1, 48 * HOUR);
+
+        assertEquals(List.of(2L, 3L, 1L), ranking.top(10, id -> true));
+        assertEquals(0.75, ranking.score(1, 48 * HOUR), 1e-9);
+    }
+
+    @Test
+    void withdrawnEventsAndIneligibleEntriesAreLeftOut() {
+        DecayedRanking ranking = new DecayedRanking(0, 0);
+        ranking.add(1, 1, 0);
+        ranking.add(1, 1, 0);
+        ranking.add(2, 3, 0);
+        ranking.add(3, 1, 0);
+        ranking.add(3, -1, 0);
+
+        assertEquals(List.of(2L, 1L), ranking.top(10, id -> true));
+        assertEquals(List.of(1L), ranking.top(1, id -> id != 2));
+        assertEquals(2, ranking.size());
+    }
+
+    @Test
+    void rebasingKeepsTheOrderAndDropsDecayedEntries() {
+        DecayedRanking ranking = new DecayedRanking(HOUR, 0);
+        ranking.add(1, 1, 0);
+        long later = (long) (DecayedRanking.MAX_EXPONENT - 1) * HOUR;
+        ranking.add(2, 1, later);
+        ranking.add(3, 2, later);
+
+        long afterRebase = (long) (DecayedRanking.MAX_EXPONENT + 1) * HOUR;
+        ranking.add(4, 1, afterRebase);
+
+        assertEquals(List.of(4L, 3L, 2L), ranking.top(10, id -> true));
+        assertEquals(0.5, ranking.score(3, afterRebase), 1e-9);
+    }
+}
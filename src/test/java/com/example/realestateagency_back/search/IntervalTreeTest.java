@@ -0,0 +1,47 @@
+package com.example.realestateagency_back.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IntervalTreeTest {
+
+    @Test
+    void stabbingMatchesABruteForceScan() {
+        Random random = new Random(42);
+        IntervalTree tree = new IntervalTree();
+        double[][] intervals = new double[2_000][];
+        for (int id = 0; id < intervals.length; id++) {
+            double low = random.nextInt(1_000);
+            double high = low + random.nextInt(200);
+            if (id % 10 == 0) {
+                low = Double.NEGATIVE_INFINITY;
+            }
+            if (id % 15 == 0) {
+                high = Double.POSITIVE_INFINITY;
+            }
+            intervals[id] = new double[]{low, high};
+            tree.add(id, low, high);
+        }
+        for (int id = 0; id < intervals.length; id += 3) {
+            tree.remove(id);
+            intervals[id] = null;
+        }
+
+        for (double point = -10; point < 1_300; point += 7.5) {
+            Set<Long> expected = new HashSet<>();
+            for (int id = 0; id < intervals.length; id++) {
+                if (intervals[id] != null && intervals[id][0] <= point && point <= intervals[id][1]) {
+                    expected.add((long) id);
+                }
+            }
+            Set<Long> actual = new HashSet<>();
+            tree.stab(point, actual::add);
+            assertEquals(expected, actual, "point " + point);
+        }
+    }
+}
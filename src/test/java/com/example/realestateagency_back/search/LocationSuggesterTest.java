@@ -0,0 +1,68 @@
+package com.example.realestateagency_back.search;
+
+import com.example.realestateagency_back.dto.LocationSuggestionDTO;
+import com.example.realestateagency_back.entity.Property;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocationSuggesterTest {
+
+    private LocationSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        suggester = new LocationSuggester();
+        suggester.index(property(1L, "Paris", "ACTIVE"));
+        suggester.index(property(2L, "paris", "ACTIVE"));
+        suggester.index(property(3L, "Pau", "ACTIVE"));
+        suggester.index(property(4L, "Saint-Étienne", "ACTIVE"));
+        suggester.index(property(5L, "Pantin", "SOLD"));
+    }
+
+    @Test
+    void ranksByActiveListingCount() {
+        assertEquals(List.of("Paris", "Pau"), locations(suggester.suggest("pa", 10)));
+        assertEquals(2L, suggester.suggest("PAR", 10).get(0).getCount());
+        assertEquals(List.of("Paris"), locations(suggester.suggest("p", 1)));
+    }
+
+    @Test
+    void nonPositiveLimitSuggestsNothing() {
+        assertEquals(List.of(), suggester.suggest("pa", 0));
+        assertEquals(List.of(), suggester.suggest("pa", -5));
+    }
+
+    @Test
+    void matchesLaterWordsWithoutAccents() {
+        assertEquals(List.of("Saint-Étienne"), locations(suggester.suggest("eti", 10)));
+        assertEquals(List.of("Saint-Étienne"), locations(suggester.suggest("saint e", 10)));
+    }
+
+    @Test
+    void followsUpdatesAndRemovals() {
+        suggester.index(property(3L, "Pau", "SOLD"));
+        suggester.index(property(6L, "Pau", "ACTIVE"));
+        suggester.index(property(7L, "Pau", "ACTIVE"));
+        suggester.index(property(8L, "Pau", "ACTIVE"));
+        assertEquals(List.of("Pau", "Paris"), locations(suggester.suggest("pa", 10)));
+
+        suggester.remove(6L);
+        suggester.remove(7L);
+        suggester.remove(8L);
+        assertEquals(List.of("Paris"), locations(suggester.suggest("pa", 10)));
+        assertTrue(suggester.suggest("pau", 10).isEmpty());
+    }
+
+    private static List<String> locations(List<LocationSuggestionDTO> suggestions) {
+        return suggestions.stream().map(LocationSuggestionDTO::getLocation).toList();
+    }
+
+    private static Property property(Long id, String location, String status) {
+        return Property.builder().id(id).location(location).status(status).build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.realestateagency_back.search;
+
+import com.example.realestateagency_back.dto.PropertySearchCriteriaDTO;
+import com.example.realestateagency_back.entity.Property;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PropertyColumnStoreTest {
+
+    private PropertyColumnStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new PropertyColumnStore();
+        store.index(property(1L, "250000.50", 120.0, 5, Property.PropertyType.HOUSE, Property.ListingType.SALE, "ACTIVE"));
+        store.index(property(2L, "900.00", 45.5, 2, Property.PropertyType.HOUSE, Property.ListingType.RENT, "ACTIVE"));
+        store.index(property(3L, "80000.00", null, null, Property.PropertyType.LAND, Property.ListingType.SALE, "ACTIVE"));
+        store.index(property(4L, "1200.00", 60.0, 3, Property.PropertyType.HOUSE, Property.ListingType.RENT, "SOLD"));
+    }
+
+    @Test
+    void filtersOnRangesAndEnums() {
+        PropertySearchCriteriaDTO houses = PropertySearchCriteriaDTO.builder().type(Property.PropertyType.HOUSE).build();
+        assertArrayEquals(new long[]{1L, 2L}, store.filter(houses, "ACTIVE", 100));
+
+        PropertySearchCriteriaDTO priced = PropertySearchCriteriaDTO.builder()
+                .minPrice(new BigDecimal("900")).maxPrice(new BigDecimal("250000.50")).build();
+        assertArrayEquals(new long[]{1L, 2L, 3L}, store.filter(priced, "ACTIVE", 100));
+        assertArrayEquals(new long[]{4L}, store.filter(priced, "SOLD", 100));
+    }
+
+    @Test
+    void unknownValuesNeverMatchARange() {
+        PropertySearchCriteriaDTO sized = PropertySearchCriteriaDTO.builder().minArea(0.0).build();
+        assertArrayEquals(new long[]{1L, 2L}, store.filter(sized, "ACTIVE", 100));
+
+        PropertySearchCriteriaDTO rooms = PropertySearchCriteriaDTO.builder().maxRooms(10).build();
+        assertArrayEquals(new long[]{1L, 2L}, store.filter(rooms, "ACTIVE", 100));
+    }
+
+    @Test
+    void combinesValueSets() {
+        store.index(property(6L, "500.00", 20.0, 1, Property.PropertyType.LAND, Property.ListingType.RENT, "ACTIVE"));
+        PropertySearchCriteriaDTO criteria = PropertySearchCriteriaDTO.builder()
+                .types(Set.of(Property.PropertyType.HOUSE, Property.PropertyType.LAND))
+                .listingTypes(Set.of(Property.ListingType.RENT))
+                .minRooms(1).maxRooms(4)
+                .build();
+        assertArrayEquals(new long[]{2L, 6L}, store.filter(criteria, "ACTIVE", 100));
+
+        criteria.setRoomCounts(Set.of(2, 5));
+        assertArrayEquals(new long[]{2L}, store.filter(criteria, "ACTIVE", 100));
+
+        criteria.setType(Property.PropertyType.LAND);
+        criteria.setRoomCounts(null);
+        assertArrayEquals(new long[]{6L}, store.filter(criteria, "ACTIVE", 100));
+    }
+
+    @Test
+    void reusesSlotsAndReportsOverflow() {
+        store.remove(2L);
+        store.index(property(5L, "700.00", 30.0, 1, Property.PropertyType.HOUSE, Property.ListingType.RENT, "ACTIVE"));
+        PropertySearchCriteriaDTO rentals = PropertySearchCriteriaDTO.builder().listingType(Property.ListingType.RENT).build();
+        assertArrayEquals(new long[]{5L}, store.filter(rentals, "ACTIVE", 100));
+
+        assertNull(store.filter(new PropertySearchCriteriaDTO(), "ACTIVE", 2));
+    }
+
+    private static Property property(Long id, String price, Double area, Integer rooms, Property.PropertyType type,
+                                     Property.ListingType listingType, String status) {
+        return Property.builder().id(id).price(new BigDecimal(price)).area(area).rooms(rooms)
+                .type(type).listingType(listingType).status(status).build();
+    }
+
+    @Test
+    void statusesPastTheCodeLimitAreLeftToTheDatabase() {
+        for (int i = 0; i < PropertyColumnStore.MAX_STATUS_CODES + 5; i++) {
+            store.index(property(100L + i, "1000.00", 50.0, 2, Property.PropertyType.LAND, Property.ListingType.RENT, "STATUS_" + i));
+        }
+        String overflow = "STATUS_" + (PropertyColumnStore.MAX_STATUS_CODES + 4);
+        PropertySearchCriteriaDTO lands = PropertySearchCriteriaDTO.builder().type(Property.PropertyType.LAND).build();
+
+        assertNull(store.filter(lands, overflow, 100));
+        assertEquals(PropertyColumnStore.MAX_STATUS_CODES + 6, store.filter(lands, null, 100).length);
+        assertArrayEquals(new long[]{3L}, store.filter(lands, "ACTIVE", 100));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.realestateagency_back.search;
+
+import com.example.realestateagency_back.entity.Property;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PropertyTextIndexTest {
+
+    private PropertyTextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PropertyTextIndex();
+        index.index(property(1L, "Maison de village", "Saint-Étienne", "Jardin arboré"));
+        index.index(property(2L, "Appartement lumineux", "Lyon 3e", "Proche du métro"));
+        index.index(property(3L, "Maison contemporaine", "Lyon 7e", "Piscine et jardin"));
+    }
+
+    @Test
+    void matchesAccentFoldedPrefixes() {
+        assertEquals(Set.of(1L), index.search("saint-et", PropertyTextIndex.Field.LOCATION));
+        assertEquals(Set.of(2L, 3L), index.search("LYO", PropertyTextIndex.Field.LOCATION));
+        assertEquals(Set.of(1L, 3L), index.search("jard", PropertyTextIndex.Field.values()));
+    }
+
+    @Test
+    void requiresEveryTerm() {
+        assertEquals(Set.of(3L), index.search("maison lyon", PropertyTextIndex.Field.values()));
+        assertTrue(index.search("maison metro", PropertyTextIndex.Field.TITLE).isEmpty());
+    }
+
+    @Test
+    void blankQueryDoesNotRestrict() {
+        assertNull(index.search("  ", PropertyTextIndex.Field.TITLE));
+    }
+
+    @Test
+    void reindexingReplacesStaleTerms() {
+        index.index(property(1L, "Loft", "Paris", null));
+        assertEquals(Set.of(3L), index.search("maison", PropertyTextIndex.Field.TITLE));
+        assertEquals(Set.of(1L), index.search("paris", PropertyTextIndex.Field.LOCATION));
+
+        index.remove(1L);
+        assertTrue(index.search("paris", PropertyTextIndex.Field.LOCATION).isEmpty());
+    }
+
+    private static Property property(Long id, String title, String location, String description) {
+        return Property.builder().id(id).title(title).location(location).description(description).build();
+    }
+}
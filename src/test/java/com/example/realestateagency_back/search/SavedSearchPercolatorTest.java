@@ -0,0 +1,65 @@
+package com.example.realestateagency_back.search;
+
+import com.example.realestateagency_back.dto.PropertySearchCriteriaDTO;
+import com.example.realestateagency_back.entity.Property;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SavedSearchPercolatorTest {
+
+    private SavedSearchPercolator percolator;
+
+    @BeforeEach
+    void setUp() {
+        percolator = new SavedSearchPercolator();
+        percolator.register(1L, PropertySearchCriteriaDTO.builder()
+                .type(Property.PropertyType.HOUSE).maxPrice(new BigDecimal("300000")).minRooms(3).build());
+        percolator.register(2L, PropertySearchCriteriaDTO.builder()
+                .listingType(Property.ListingType.RENT).maxPrice(new BigDecimal("1000")).build());
+        percolator.register(3L, PropertySearchCriteriaDTO.builder()
+                .location("etienne").minArea(50.0).build());
+        percolator.register(4L, PropertySearchCriteriaDTO.builder()
+                .types(Set.of(Property.PropertyType.LAND)).city("Lyon").build());
+    }
+
+    @Test
+    void matchesOnlyTheSearchesWhoseCriteriaHold() {
+        Property house = property("250000", 120.0, 4, Property.PropertyType.HOUSE, Property.ListingType.SALE,
+                "Saint-Étienne");
+        assertEquals(List.of(1L, 3L), sorted(percolator.match(house, () -> null)));
+
+        Property rental = property("900", 40.0, 2, Property.PropertyType.HOUSE, Property.ListingType.RENT, "Paris");
+        assertEquals(List.of(2L), percolator.match(rental, () -> null));
+
+        Property land = property("50000", null, null, Property.PropertyType.LAND, Property.ListingType.SALE, "Lyon 3e");
+        assertEquals(List.of(4L), percolator.match(land, () -> "lyon"));
+        assertTrue(percolator.match(land, () -> "Paris").isEmpty());
+    }
+
+    @Test
+    void unregisteredSearchesNoLongerMatch() {
+        percolator.register(1L, PropertySearchCriteriaDTO.builder().minPrice(new BigDecimal("1000000")).build());
+        percolator.unregister(3L);
+        Property house = property("250000", 120.0, 4, Property.PropertyType.HOUSE, Property.ListingType.SALE,
+                "Saint-Étienne");
+        assertTrue(percolator.match(house, () -> null).isEmpty());
+        assertEquals(3, percolator.size());
+    }
+
+    private static List<Long> sorted(List<Long> ids) {
+        return ids.stream().sorted().toList();
+    }
+
+    private static Property property(String price, Double area, Integer rooms, Property.PropertyType type,
+                                     Property.ListingType listingType, String location) {
+        return Property.builder().id(10L).price(new BigDecimal(price)).area(area).rooms(rooms)
+                .type(type).listingType(listingType).location(location).status("ACTIVE").build();
+    }
+}
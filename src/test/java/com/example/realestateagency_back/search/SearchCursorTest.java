@@ -0,0 +1,57 @@
+package com.example.realestateagency_back.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SearchCursorTest {
+
+    @Test
+    void roundTripsEverySortValue() {
+        assertRoundTrip(new SearchCursor(PropertySortField.PRICE, Sort.Direction.ASC, new BigDecimal("250000.50"), 12L));
+        assertRoundTrip(new SearchCursor(PropertySortField.AREA, Sort.Direction.DESC, 72.5, 3L));
+        assertRoundTrip(new SearchCursor(PropertySortField.ROOMS, Sort.Direction.ASC, 4, 99L));
+        assertRoundTrip(new SearchCursor(PropertySortField.PUBLICATION_DATE, Sort.Direction.DESC,
+                LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_000_000), 7L));
+    }
+
+    @Test
+    void nullValuePointsIntoTheTrailingNullBlock() {
+        SearchCursor decoded = SearchCursor.decode(
+                new SearchCursor(PropertySortField.PRICE, Sort.Direction.ASC, null, 41L).encode());
+
+        assertNull(decoded.getLastValue());
+        assertEquals(41L, decoded.getLastId());
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode("not base64!"));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(raw("PRICE|ASC|100")));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(raw("PRICE|ASC|100|12|extra")));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(raw("TITLE|ASC|100|12")));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(raw("PRICE|UP|100|12")));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(raw("ROOMS|ASC|many|12")));
+        assertThrows(IllegalArgumentException.class, () -> SearchCursor.decode(raw("PRICE|ASC|100|")));
+    }
+
+    private static void assertRoundTrip(SearchCursor cursor) {
+        SearchCursor decoded = SearchCursor.decode(cursor.encode());
+        assertEquals(cursor.getSortField(), decoded.getSortField());
+        assertEquals(cursor.getDirection(), decoded.getDirection());
+        assertEquals(cursor.getLastValue(), decoded.getLastValue());
+        assertEquals(cursor.getLastId(), decoded.getLastId());
+    }
+
+    private static String raw(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.realestateagency_back.search;
+
+import com.example.realestateagency_back.config.CacheConfig;
+import com.example.realestateagency_back.dto.PropertySearchCriteriaDTO;
+import com.example.realestateagency_back.entity.Property;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SearchResultCacheTest {
+
+    private SearchResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SearchResultCache(new ConcurrentMapCacheManager(CacheConfig.SEARCH_RESULTS));
+        cache.index(property(1L, Property.PropertyType.HOUSE));
+        cache.index(property(2L, Property.PropertyType.LAND));
+    }
+
+    @Test
+    void equivalentCriteriaShareAKey() {
+        PropertySearchCriteriaDTO first = PropertySearchCriteriaDTO.builder()
+                .minPrice(new BigDecimal("100000.00"))
+                .roomCounts(Set.of(3, 1, 2))
+                .types(Set.of())
+                .build();
+        PropertySearchCriteriaDTO second = PropertySearchCriteriaDTO.builder()
+                .minPrice(new BigDecimal("1E+5"))
+                .roomCounts(Set.of(2, 3, 1))
+                .build();
+
+        assertEquals(SearchResultCache.key("list", first), SearchResultCache.key("list", second));
+        assertNotEquals(SearchResultCache.key("page", first, "a", null), SearchResultCache.key("page", first, null, "a"));
+        assertNotEquals(SearchResultCache.key("list", first.toBuilder().title("Paris").build()),
+                SearchResultCache.key("list", first.toBuilder().title("paris").build()));
+    }
+
+    @Test
+    void writesOnlyInvalidateSearchesOverTheirType() {
+        PropertySearchCriteriaDTO land = PropertySearchCriteriaDTO.builder().type(Property.PropertyType.LAND).build();
+        PropertySearchCriteriaDTO any = new PropertySearchCriteriaDTO();
+        cache.put("land", cache.stamp(land), List.of(2L));
+        cache.put("any", cache.stamp(any), List.of(1L, 2L));
+
+        cache.index(property(1L, Property.PropertyType.HOUSE));
+        assertEquals(List.of(2L), cache.get("land", cache.stamp(land)));
+        assertNull(cache.get("any", cache.stamp(any)));
+
+        // Moving a house to land changes land results
+        cache.index(property(1L, Property.PropertyType.LAND));
+        assertNull(cache.get("land", cache.stamp(land)));
+    }
+
+    private static Property property(Long id, Property.PropertyType type) {
+        return Property.builder().id(id).type(type).status("ACTIVE").build();
+    }
+}
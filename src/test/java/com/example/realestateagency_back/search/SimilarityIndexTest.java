@@ -0,0 +1,93 @@
+package com.example.realestateagency_back.search;
+
+import com.example.realestateagency_back.entity.Property;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimilarityIndexTest {
+
+    @Test
+    void nearestNeighboursMatchABruteForceScanThroughUpdatesAndDeletes() {
+        Random random = new Random(7);
+        SimilarityIndex index = new SimilarityIndex();
+        Map<Long, Property> active = new HashMap<>();
+        for (long id = 1; id <= 3_000; id++) {
+            Property property = randomProperty(random, id);
+            index.index(property);
+            active.put(id, property);
+        }
+        // Moves and deletes go through the insert buffer and the tombstones
+        for (long id = 1; id <= 3_000; id += 7) {
+            Property property = randomProperty(random, id);
+            index.index(property);
+            active.put(id, property);
+        }
+        for (long id = 3; id <= 3_000; id += 11) {
+            index.remove(id);
+            active.remove(id);
+        }
+
+        for (long id = 2; id <= 3_000; id += 97) {
+            Property query = active.containsKey(id) ? active.get(id) : randomProperty(random, id);
+            List<Long> similar = index.similarTo(query, 10);
+            assertEquals(bruteForceDistances(active, query, 10), distances(similar, active, query));
+            assertTrue(similar.stream().allMatch(other -> active.get(other).getType() == query.getType()));
+        }
+    }
+
+    @Test
+    void inactiveListingsAreNotSuggested() {
+        SimilarityIndex index = new SimilarityIndex();
+        Property sold = property(1L, "SOLD", 200_000, 50.0, 2);
+        Property active = property(2L, "ACTIVE", 210_000, 52.0, 2);
+        index.index(sold);
+        index.index(active);
+
+        assertEquals(List.of(2L), index.similarTo(sold, 5));
+        assertEquals(List.of(), index.similarTo(active, 5));
+    }
+
+    private static List<Double> bruteForceDistances(Map<Long, Property> active, Property query, int k) {
+        List<Double> distances = new ArrayList<>();
+        for (Property other : active.values()) {
+            if (!other.getId().equals(query.getId()) && other.getType() == query.getType()
+                    && other.getListingType() == query.getListingType()) {
+                distances.add(distance(query, other));
+            }
+        }
+        distances.sort(Comparator.naturalOrder());
+        return distances.subList(0, Math.min(k, distances.size()));
+    }
+
+    private static List<Double> distances(List<Long> ids, Map<Long, Property> active, Property query) {
+        return ids.stream().map(id -> distance(query, active.get(id))).toList();
+    }
+
+    private static double distance(Property a, Property b) {
+        return VantagePointTree.distance(SimilarityIndex.features(a), SimilarityIndex.features(b));
+    }
+
+    private static Property randomProperty(Random random, long id) {
+        Property property = property(id, "ACTIVE", 50_000 + random.nextInt(900_000),
+                20 + random.nextDouble() * 200, 1 + random.nextInt(6));
+        property.setType(random.nextBoolean() ? Property.PropertyType.HOUSE : Property.PropertyType.LAND);
+        property.setLatitude(48.5 + random.nextDouble());
+        property.setLongitude(2 + random.nextDouble());
+        return property;
+    }
+
+    private static Property property(Long id, String status, int price, double area, int rooms) {
+        return Property.builder().id(id).status(status).price(BigDecimal.valueOf(price)).area(area).rooms(rooms)
+                .type(Property.PropertyType.HOUSE).listingType(Property.ListingType.SALE).build();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.realestateagency_back.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SlotBitmapTest {
+
+    @Test
+    void switchesBetweenSparseAndDenseContainers() {
+        SlotBitmap bitmap = new SlotBitmap();
+        IntStream.range(0, 10_000).forEach(bitmap::add);
+        bitmap.add(70_000);
+        assertEquals(10_001, bitmap.cardinality());
+
+        IntStream.range(0, 9_000).forEach(bitmap::remove);
+        assertEquals(1_001, bitmap.cardinality());
+        assertFalse(bitmap.contains(8_999));
+        assertTrue(bitmap.contains(9_000));
+        assertTrue(bitmap.contains(70_000));
+    }
+
+    @Test
+    void intersectsAndUnites() {
+        SlotBitmap evens = new SlotBitmap();
+        SlotBitmap small = new SlotBitmap();
+        SlotBitmap far = new SlotBitmap();
+        IntStream.range(0, 20_000).filter(i -> i % 2 == 0).forEach(evens::add);
+        IntStream.range(0, 10).forEach(small::add);
+        far.add(200_000);
+
+        assertArrayEquals(new int[]{0, 2, 4, 6, 8}, SlotBitmap.and(evens, small).toArray());
+        SlotBitmap union = SlotBitmap.or(List.of(small, far, evens));
+        assertEquals(10_000 + 5 + 1, union.cardinality());
+        assertTrue(union.contains(200_000));
+        assertEquals(0, SlotBitmap.and(far, small).cardinality());
+    }
+
+    @Test
+    void inPlaceOperationsMatchTheAllocatingOnes() {
+        Random random = new Random(7);
+        SlotBitmap result = new SlotBitmap();
+        SlotBitmap union = new SlotBitmap();
+        for (int round = 0; round < 20; round++) {
+            SlotBitmap left = randomBitmap(random);
+            SlotBitmap middle = randomBitmap(random);
+            SlotBitmap right = randomBitmap(random);
+            int[] leftValues = left.toArray();
+
+            // Reused across rounds, like the scratch bitmaps of the column store
+            union.clear();
+            union.orInPlace(middle);
+            union.orInPlace(right);
+            assertArrayEquals(SlotBitmap.or(List.of(middle, right)).toArray(), union.toArray());
+
+            result.copyFrom(left);
+            result.andInPlace(union);
+            assertArrayEquals(SlotBitmap.and(left, union).toArray(), result.toArray());
+            // The sources are left untouched
+            assertArrayEquals(leftValues, left.toArray());
+        }
+    }
+
+    // Dense and sparse containers over a few chunks, so every container pairing shows up
+    private static SlotBitmap randomBitmap(Random random) {
+        SlotBitmap bitmap = new SlotBitmap();
+        for (int chunk = 0; chunk < 4; chunk++) {
+            int count = random.nextBoolean() ? random.nextInt(200) : 5_000 + random.nextInt(20_000);
+            for (int i = 0; i < count; i++) {
+                bitmap.add((chunk << 16) | random.nextInt(1 << 16));
+            }
+        }
+        return bitmap;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.realestateagency_back.service;
+
+import com.example.realestateagency_back.dto.PropertyDTO;
+import com.example.realestateagency_back.dto.PropertySearchCriteriaDTO;
+import com.example.realestateagency_back.search.SearchResultCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogSnapshotServiceTest {
+
+    @Mock
+    private PropertyService propertyService;
+
+    @Mock
+    private SearchResultCache searchResultCache;
+
+    private CatalogSnapshotService snapshotService;
+
+    @BeforeEach
+    void setUp() {
+        snapshotService = snapshotService(1 << 20);
+    }
+
+    private CatalogSnapshotService snapshotService(long maxBytes) {
+        return new CatalogSnapshotService(propertyService, searchResultCache,
+                new SingleFlight(new SimpleMeterRegistry(), 5_000), new ObjectMapper(), maxBytes);
+    }
+
+    @Test
+    void snapshotIsReusedUntilTheEpochMoves() {
+        when(searchResultCache.stamp(any(PropertySearchCriteriaDTO.class)))
+                .thenReturn(new long[]{1}, new long[]{1}, new long[]{1}, new long[]{2});
+        streamCatalog(List.of(PropertyDTO.builder().id(1L).title("Loft").build()),
+                List.of(PropertyDTO.builder().id(1L).title("Villa").build()));
+
+        CatalogSnapshotService.Snapshot first = snapshotService.getAllProperties().orElseThrow();
+        assertSame(first, snapshotService.getAllProperties().orElseThrow());
+
+        CatalogSnapshotService.Snapshot rebuilt = snapshotService.getAllProperties().orElseThrow();
+        assertNotEquals(first.etag(false), rebuilt.etag(false));
+        verify(propertyService, times(2)).streamAllProperties(any());
+    }
+
+    @Test
+    void gzipBodyInflatesToTheJsonBody() throws IOException {
+        when(searchResultCache.stamp(any(PropertySearchCriteriaDTO.class))).thenReturn(new long[]{7});
+        streamCatalog(List.of(PropertyDTO.builder().id(1L).title("Loft").build()));
+
+        CatalogSnapshotService.Snapshot snapshot = snapshotService.getAllProperties().orElseThrow();
+
+        assertNotEquals(snapshot.etag(false), snapshot.etag(true));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(snapshot.gzip()))) {
+            assertArrayEquals(snapshot.json(), in.readAllBytes());
+        }
+        assertEquals(1L, new ObjectMapper().readTree(snapshot.json()).get(0).get("id").asLong());
+    }
+
+    @Test
+    void searchIsSnapshottedFromItsSecondHit() {
+        PropertySearchCriteriaDTO criteria = new PropertySearchCriteriaDTO();
+        criteria.setTitle("loft");
+        when(searchResultCache.stamp(any(PropertySearchCriteriaDTO.class))).thenReturn(new long[]{3});
+        when(propertyService.searchProperties(criteria))
+                .thenReturn(List.of(PropertyDTO.builder().id(1L).title("Loft").build()));
+
+        assertTrue(snapshotService.searchProperties(criteria).isEmpty());
+        assertTrue(snapshotService.searchProperties(criteria).isPresent());
+        assertTrue(snapshotService.searchProperties(criteria).isPresent());
+        verify(propertyService, times(1)).searchProperties(criteria);
+    }
+
+    @Test
+    void oversizedBodyIsNotSnapshottedAgainUntilTheEpochMoves() {
+        CatalogSnapshotService smallService = snapshotService(64);
+        when(searchResultCache.stamp(any(PropertySearchCriteriaDTO.class)))
+                .thenReturn(new long[]{1}, new long[]{1}, new long[]{1}, new long[]{2});
+        streamCatalog(List.of(PropertyDTO.builder().id(1L).title("A title long enough to outgrow the bound").build()));
+
+        assertTrue(smallService.getAllProperties().isEmpty());
+        assertTrue(smallService.getAllProperties().isEmpty());
+        verify(propertyService, times(1)).streamAllProperties(any());
+
+        assertTrue(smallService.getAllProperties().isEmpty());
+        verify(propertyService, times(2)).streamAllProperties(any());
+        verify(propertyService, times(0)).getAllProperties();
+    }
+
+    @Test
+    void oversizedCatalogStopsStreamingAtTheLimit() {
+        CatalogSnapshotService smallService = snapshotService(16 * 1024);
+        when(searchResultCache.stamp(any(PropertySearchCriteriaDTO.class))).thenReturn(new long[]{1});
+        AtomicInteger consumed = new AtomicInteger();
+        doAnswer(invocation -> {
+            Consumer<List<PropertyDTO>> sink = invocation.getArgument(0);
+            for (long chunk = 0; chunk < 1_000; chunk++) {
+                List<PropertyDTO> properties = new ArrayList<>();
+                for (long id = chunk * 100; id < (chunk + 1) * 100; id++) {
+                    properties.add(PropertyDTO.builder().id(id).title("Listing " + id).build());
+                }
+                sink.accept(properties);
+                consumed.incrementAndGet();
+            }
+            return null;
+        }).when(propertyService).streamAllProperties(any());
+
+        assertTrue(smallService.getAllProperties().isEmpty());
+        assertTrue(consumed.get() < 10, "streamed " + consumed.get() + " chunks past the limit");
+    }
+
+    @Test
+    void otherStreamingFailuresPropagate() {
+        when(searchResultCache.stamp(any(PropertySearchCriteriaDTO.class))).thenReturn(new long[]{1});
+        doAnswer(invocation -> {
+            throw new IllegalStateException("connection lost");
+        }).when(propertyService).streamAllProperties(any());
+
+        assertThrows(IllegalStateException.class, () -> snapshotService.getAllProperties());
+    }
+
+    @SafeVarargs
+    private void streamCatalog(List<PropertyDTO>... catalogs) {
+        AtomicInteger calls = new AtomicInteger();
+        doAnswer(invocation -> {
+            Consumer<List<PropertyDTO>> sink = invocation.getArgument(0);
+            sink.accept(catalogs[Math.min(calls.getAndIncrement(), catalogs.length - 1)]);
+            return null;
+        }).when(propertyService).streamAllProperties(any());
+    }
+}
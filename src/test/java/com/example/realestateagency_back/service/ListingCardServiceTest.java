@@ -0,0 +1,130 @@
+package com.example.realestateagency_back.service;
+
+import com.example.realestateagency_back.entity.Property;
+import com.example.realestateagency_back.event.PropertyChangedEvent;
+import com.example.realestateagency_back.search.CatalogVersion;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class ListingCardServiceTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    @InjectMocks
+    private ListingCardService listingCardService;
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.unbindResourceIfPossible(listingCardService);
+    }
+
+    @Test
+    void refreshesRightAwayWithoutTransaction() {
+        listingCardService.markDirty(List.of(1L, 2L));
+
+        assertEquals(List.of(List.of(1L, 2L)), upsertedChunks(1));
+        verify(catalogVersion).bump();
+    }
+
+    @Test
+    void batchesTheWritesOfATransactionIntoOneUpsertBeforeCommit() {
+        beginTransaction();
+
+        listingCardService.markDirty(List.of(3L, 1L));
+        listingCardService.onPropertyChanged(PropertyChangedEvent.updated(Property.builder().id(2L).build()));
+        listingCardService.markDirty(List.of(1L));
+        listingCardService.onPropertyChanged(PropertyChangedEvent.deleted(9L));
+
+        verifyNoInteractions(jdbcTemplate, catalogVersion);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, synchronizations.size());
+
+        TransactionSynchronization synchronization = synchronizations.get(0);
+        synchronization.beforeCommit(false);
+        // Pending entity changes are flushed before the cards are read back from the tables
+        InOrder order = inOrder(entityManager, jdbcTemplate);
+        order.verify(entityManager).flush();
+        order.verify(jdbcTemplate).update(anyString(), anyMap());
+        assertEquals(List.of(List.of(3L, 1L, 2L)), upsertedChunks(1));
+        verify(catalogVersion, never()).bump();
+
+        synchronization.afterCommit();
+        verify(catalogVersion).bump();
+
+        synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        assertFalse(TransactionSynchronizationManager.hasResource(listingCardService));
+    }
+
+    @Test
+    void upsertsLargeBatchesInChunks() {
+        List<Long> ids = LongStream.rangeClosed(1, ListingCardService.REFRESH_CHUNK_SIZE * 2L + 5).boxed().toList();
+
+        listingCardService.markDirty(ids);
+
+        List<List<Long>> chunks = upsertedChunks(3);
+        assertEquals(ListingCardService.REFRESH_CHUNK_SIZE, chunks.get(0).size());
+        assertEquals(ListingCardService.REFRESH_CHUNK_SIZE, chunks.get(1).size());
+        assertEquals(5, chunks.get(2).size());
+        List<Long> all = new ArrayList<>();
+        chunks.forEach(all::addAll);
+        assertEquals(ids, all);
+    }
+
+    @Test
+    void ignoresEmptyBatches() {
+        listingCardService.markDirty(List.of());
+
+        verifyNoInteractions(jdbcTemplate, catalogVersion);
+    }
+
+    private static void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<List<Long>> upsertedChunks(int expected) {
+        ArgumentCaptor<Map<String, ?>> params = ArgumentCaptor.forClass(Map.class);
+        verify(jdbcTemplate, times(expected)).update(anyString(), params.capture());
+        return params.getAllValues().stream()
+                .map(map -> (List<Long>) map.get("ids"))
+                .toList();
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.realestateagency_back.service;
+
+import com.example.realestateagency_back.dto.PropertySearchCriteriaDTO;
+import com.example.realestateagency_back.repository.LocationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LocationServiceTest {
+
+    @Mock
+    private LocationRepository locationRepository;
+
+    @InjectMocks
+    private LocationService locationService;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void cityAndLocationTextResolveToTheCommonLocationIds() {
+        when(locationRepository.findIdsByCity("Lyon")).thenReturn(List.of(1L, 2L, 3L));
+        when(locationRepository.findIdsByNormalizedNameContaining("croix rousse")).thenReturn(List.of(2L, 7L));
+        PropertySearchCriteriaDTO criteria = PropertySearchCriteriaDTO.builder()
+                .city(" Lyon ")
+                .location("Croix-Rousse")
+                .build();
+
+        assertEquals(Set.of(2L), locationService.resolveFilter(criteria));
+    }
+
+    @Test
+    void explicitLocationIdsRestrictTheResolvedIds() {
+        when(locationRepository.findIdsByCity("Lyon")).thenReturn(List.of(1L, 2L));
+        PropertySearchCriteriaDTO criteria = PropertySearchCriteriaDTO.builder()
+                .locationIds(Set.of(2L, 9L))
+                .city("Lyon")
+                .build();
+
+        assertEquals(Set.of(2L), locationService.resolveFilter(criteria));
+    }
+
+    @Test
+    void criteriaWithoutLocationDoNotRestrict() {
+        assertNull(locationService.resolveFilter(PropertySearchCriteriaDTO.builder().title("loft").build()));
+    }
+
+    @Test
+    void spellingsOfOneLocationShareASingleUpsert() {
+        TransactionSynchronizationManager.initSynchronization();
+        when(locationRepository.upsert(eq("Saint-Étienne"), eq("saint etienne"), any(), any())).thenReturn(5L);
+
+        Map<String, Long> ids = locationService.internAll(List.of("Saint-Étienne", "saint etienne", "--"));
+
+        assertEquals(Map.of("Saint-Étienne", 5L, "saint etienne", 5L), ids);
+        verify(locationRepository, times(1)).upsert(any(), eq("saint etienne"), any(), any());
+        assertTrue(locationService.hasUnmappedLocations());
+    }
+}
@@ -0,0 +1,275 @@
+package com.example.realestateagency_back.service;
+
+import com.example.realestateagency_back.dto.CursorPageDTO;
+import com.example.realestateagency_back.dto.PhotoDTO;
+import com.example.realestateagency_back.dto.PropertyCardDTO;
+import com.example.realestateagency_back.dto.PropertyDTO;
+import com.example.realestateagency_back.dto.PropertySearchCriteriaDTO;
+import com.example.realestateagency_back.entity.Admin;
+import com.example.realestateagency_back.repository.AdminRepository;
+import com.example.realestateagency_back.repository.PhotoRepository;
+import com.example.realestateagency_back.repository.PropertyRepository;
+import com.example.realestateagency_back.search.GeoBoundingBox;
+import com.example.realestateagency_back.search.KeysetPageRequest;
+import com.example.realestateagency_back.search.LocationSuggester;
+import com.example.realestateagency_back.search.PropertyIndexMaintainer;
+import com.example.realestateagency_back.search.PropertyQuery;
+import com.example.realestateagency_back.search.PropertySortField;
+import com.example.realestateagency_back.search.SearchCursor;
+import com.example.realestateagency_back.search.SearchResultCache;
+import com.example.realestateagency_back.search.TextSearchMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PropertyServiceTest {
+
+    @Mock
+    private PropertyRepository propertyRepository;
+
+    @Mock
+    private AdminRepository adminRepository;
+
+    @Mock
+    private PhotoRepository photoRepository;
+
+    @Mock
+    private FileStorageService fileStorageService;
+
+    @Mock
+    private LocationService locationService;
+
+    @Mock
+    private SearchResultCache searchResultCache;
+
+    @Mock
+    private PropertyIndexMaintainer indexMaintainer;
+
+    @Mock
+    private LocationSuggester locationSuggester;
+
+    @Mock
+    private SingleFlight singleFlight;
+
+    @InjectMocks
+    private PropertyService propertyService;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 20, 100})
+    void getAllPropertiesIssuesConstantQueryCountPerPage(int pageSize) {
+        List<Admin> admins = List.of(admin(1L, "alice"), admin(2L, "bob"), admin(3L, "carol"));
+        List<PropertyDTO> properties = new ArrayList<>();
+        List<PhotoDTO> photos = new ArrayList<>();
+        for (long id = 1; id <= pageSize; id++) {
+            Admin admin = admins.get((int) (id % 3));
+            properties.add(PropertyDTO.builder().id(id).title("Listing " + id)
+                    .adminId(admin.getId()).adminUsername(admin.getUsername()).build());
+            photos.add(PhotoDTO.builder().id(id * 10).url("/p/" + id + "-1.jpg").order(1).propertyId(id).build());
+            photos.add(PhotoDTO.builder().id(id * 10 + 1).url("/p/" + id + "-2.jpg").order(2).propertyId(id).build());
+        }
+        when(propertyRepository.findAllDTOs()).thenReturn(properties);
+        when(photoRepository.findDTOsByPropertyIdIn(anyCollection())).thenReturn(photos);
+
+        List<PropertyDTO> result = propertyService.getAllProperties();
+
+        assertEquals(pageSize, result.size());
+        for (PropertyDTO dto : result) {
+            assertEquals(2, dto.getPhotos().size());
+            assertEquals(admins.get((int) (dto.getId() % 3)).getUsername(), dto.getAdminUsername());
+        }
+        verify(propertyRepository, times(1)).findAllDTOs();
+        verify(propertyRepository, never()).findAll();
+        verify(photoRepository, times(1)).findDTOsByPropertyIdIn(anyCollection());
+        verify(adminRepository, never()).findAllById(any());
+        verify(photoRepository, never()).findByPropertyIdOrderByOrderAsc(anyLong());
+        verify(adminRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getAllPropertiesWithoutAdminsSkipsAdminLookup() {
+        when(propertyRepository.findAllDTOs()).thenReturn(List.of(PropertyDTO.builder().id(7L).build()));
+        when(photoRepository.findDTOsByPropertyIdIn(anyCollection())).thenReturn(List.of());
+
+        List<PropertyDTO> result = propertyService.getAllProperties();
+
+        assertEquals(1, result.size());
+        assertEquals(0, result.get(0).getPhotos().size());
+        verify(adminRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void adminListReadsProjectedDtos() {
+        when(propertyRepository.findDTOsByAdminId(2L)).thenReturn(List.of(
+                PropertyDTO.builder().id(4L).adminId(2L).adminUsername("bob").build()));
+        when(photoRepository.findDTOsByPropertyIdIn(anyCollection())).thenReturn(List.of(
+                PhotoDTO.builder().id(40L).url("/p/4.jpg").order(1).propertyId(4L).build()));
+
+        List<PropertyDTO> result = propertyService.getPropertiesByAdminId(2L);
+
+        assertEquals(1, result.get(0).getPhotos().size());
+        assertEquals("bob", result.get(0).getAdminUsername());
+        verify(adminRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void cachedSearchKeepsTheCachedOrder() {
+        when(searchResultCache.get(any(), any())).thenReturn(List.of(9L, 3L));
+        when(singleFlight.execute(any(), any(), any())).thenAnswer(invocation ->
+                invocation.<Supplier<?>>getArgument(2).get());
+        when(propertyRepository.searchDTOsByCriteria(any())).thenReturn(List.of(
+                PropertyDTO.builder().id(3L).build(), PropertyDTO.builder().id(9L).build()));
+
+        List<PropertyDTO> result = propertyService.searchProperties(new PropertySearchCriteriaDTO());
+
+        assertEquals(List.of(9L, 3L), result.stream().map(PropertyDTO::getId).toList());
+        verify(propertyRepository, never()).findAll();
+    }
+
+    @Test
+    void searchPageRejectsCursorOfAnotherSort() {
+        String cursor = new SearchCursor(PropertySortField.PRICE, Sort.Direction.ASC, new BigDecimal("100"), 5L).encode();
+
+        assertThrows(IllegalArgumentException.class, () -> propertyService.searchPropertiesPage(
+                new PropertySearchCriteriaDTO(), PropertySortField.PRICE, Sort.Direction.DESC, cursor, 10, false));
+        assertThrows(IllegalArgumentException.class, () -> propertyService.searchPropertiesPage(
+                new PropertySearchCriteriaDTO(), PropertySortField.AREA, Sort.Direction.ASC, cursor, 10, false));
+        verify(propertyRepository, never()).findPageByCriteria(any(), any());
+    }
+
+    @Test
+    void searchPageRejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> propertyService.searchPropertiesPage(
+                new PropertySearchCriteriaDTO(), PropertySortField.PRICE, Sort.Direction.ASC, "garbage", 10, false));
+    }
+
+    @Test
+    void nextCursorBreaksPriceTiesOnTheLastId() {
+        ReflectionTestUtils.setField(propertyService, "textSearchMode", TextSearchMode.LIKE);
+        BigDecimal price = new BigDecimal("200000");
+        when(propertyRepository.findPageByCriteria(any(), any())).thenReturn(List.of(
+                card(3L, price), card(8L, price), card(9L, price)));
+
+        CursorPageDTO<PropertyCardDTO> page = propertyService.searchPropertiesPage(
+                new PropertySearchCriteriaDTO(), PropertySortField.PRICE, Sort.Direction.ASC, null, 2, false);
+
+        assertEquals(List.of(3L, 8L), page.getContent().stream().map(PropertyCardDTO::getId).toList());
+        assertTrue(page.isHasNext());
+        SearchCursor next = SearchCursor.decode(page.getNextCursor());
+        assertEquals(price, next.getLastValue());
+        assertEquals(8L, next.getLastId());
+
+        // The follow-up page seeks past (200000, 8), so id 9 with the same price is not skipped
+        propertyService.searchPropertiesPage(new PropertySearchCriteriaDTO(), PropertySortField.PRICE,
+                Sort.Direction.ASC, page.getNextCursor(), 2, false);
+        ArgumentCaptor<KeysetPageRequest> request = ArgumentCaptor.forClass(KeysetPageRequest.class);
+        verify(propertyRepository, times(2)).findPageByCriteria(any(), request.capture());
+        assertNull(request.getAllValues().get(0).getAfter());
+        assertEquals(8L, request.getAllValues().get(1).getAfter().getLastId());
+        assertEquals(price, request.getAllValues().get(1).getAfter().getLastValue());
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        ReflectionTestUtils.setField(propertyService, "textSearchMode", TextSearchMode.LIKE);
+        when(propertyRepository.findPageByCriteria(any(), any())).thenReturn(List.of(card(4L, null)));
+
+        CursorPageDTO<PropertyCardDTO> page = propertyService.searchPropertiesPage(
+                new PropertySearchCriteriaDTO(), PropertySortField.PRICE, Sort.Direction.ASC, null, 2, false);
+
+        assertFalse(page.isHasNext());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void boundingBoxSearchCapsTheResultCount() {
+        ReflectionTestUtils.setField(propertyService, "textSearchMode", TextSearchMode.LIKE);
+        GeoBoundingBox world = new GeoBoundingBox(-90, -180, 90, 180);
+        when(propertyRepository.findIdsByCriteria(any(), eq(PropertyService.MAX_AREA_RESULTS))).thenReturn(List.of(1L, 2L));
+        when(propertyRepository.findCardsByIds(List.of(1L, 2L))).thenReturn(List.of(card(1L, null), card(2L, null)));
+
+        List<PropertyCardDTO> cards = propertyService.searchWithinBounds(null, world, 1_000_000);
+
+        assertEquals(2, cards.size());
+        ArgumentCaptor<PropertyQuery> query = ArgumentCaptor.forClass(PropertyQuery.class);
+        verify(propertyRepository).findIdsByCriteria(query.capture(), eq(PropertyService.MAX_AREA_RESULTS));
+        assertSame(world, query.getValue().getBoundingBox());
+        verify(propertyRepository, never()).searchDTOsByCriteria(any());
+    }
+
+    @Test
+    void suggestionLimitIsClamped() {
+        when(indexMaintainer.isReady()).thenReturn(true);
+
+        propertyService.suggestLocations("pa", -3);
+        propertyService.suggestLocations("pa", 1_000);
+
+        verify(locationSuggester).suggest("pa", 0);
+        verify(locationSuggester).suggest("pa", LocationSuggester.TOP_K);
+    }
+
+    @Test
+    void radiusSearchReturnsTheNearestCardsWithinTheLimit() {
+        ReflectionTestUtils.setField(propertyService, "textSearchMode", TextSearchMode.LIKE);
+        when(propertyRepository.searchFieldsByCriteria(any(), any())).thenReturn(List.of(
+                coordinates(1L, 48.90, 2.35),
+                coordinates(2L, 48.86, 2.35),
+                coordinates(3L, 48.87, 2.35),
+                coordinates(4L, null, null),
+                coordinates(5L, 49.50, 2.35)));
+        when(propertyRepository.findCardsByIds(List.of(2L, 3L))).thenReturn(List.of(card(2L, null), card(3L, null)));
+
+        List<PropertyCardDTO> cards = propertyService.searchNearby(null, 48.86, 2.35, 10, 2);
+
+        assertEquals(List.of(2L, 3L), cards.stream().map(PropertyCardDTO::getId).toList());
+        assertEquals(0.0, cards.get(0).getDistanceKm(), 1e-9);
+        assertEquals(1.11, cards.get(1).getDistanceKm(), 0.01);
+        verify(propertyRepository, never()).searchDTOsByCriteria(any());
+        verify(propertyRepository, never()).findAll();
+    }
+
+    private static Map<String, Object> coordinates(Long id, Double latitude, Double longitude) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("latitude", latitude);
+        row.put("longitude", longitude);
+        return row;
+    }
+
+    private static PropertyCardDTO card(Long id, BigDecimal price) {
+        return PropertyCardDTO.builder().id(id).price(price).build();
+    }
+
+    private static Admin admin(Long id, String username) {
+        return Admin.builder().id(id).username(username).build();
+    }
+}
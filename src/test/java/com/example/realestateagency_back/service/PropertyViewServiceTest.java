@@ -0,0 +1,166 @@
+package com.example.realestateagency_back.service;
+
+import com.example.realestateagency_back.event.PropertyChangedEvent;
+import com.example.realestateagency_back.search.PropertyRankings;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PropertyViewServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private PropertyRankings propertyRankings;
+
+    private PropertyViewService viewService;
+
+    // State of the fake database: applied batch ids and the committed view counts
+    private final Set<Object> appliedBatches = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Long> storedViews = new ConcurrentHashMap<>();
+    private final List<Object> attemptedBatches = new ArrayList<>();
+    private final AtomicBoolean failAfterCommit = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() {
+        viewService = new PropertyViewService(jdbcTemplate, transactionTemplate, propertyRankings);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            Object result = invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+            if (failAfterCommit.getAndSet(false)) {
+                throw new QueryTimeoutException("connection reset after commit");
+            }
+            return result;
+        });
+        doAnswer(invocation -> {
+            Object batchId = invocation.getArgument(1);
+            attemptedBatches.add(batchId);
+            return appliedBatches.add(batchId) ? 1 : 0;
+        }).when(jdbcTemplate).update(startsWith("INSERT INTO view_flushes"), any(Object[].class));
+        doAnswer(invocation -> {
+            Collection<Map.Entry<Long, Long>> entries = invocation.getArgument(1);
+            entries.forEach(entry -> storedViews.merge(entry.getKey(), entry.getValue(), Long::sum));
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(startsWith("INSERT INTO property_views"), anyCollection(), anyInt(), any());
+    }
+
+    @Test
+    void retriedFlushIsNotCountedTwice() {
+        // The first attempt commits, but the failure reaches the flusher as if it had not
+        failAfterCommit.set(true);
+        viewService.recordView(1L);
+        viewService.recordView(1L);
+
+        viewService.flush();
+        viewService.recordView(1L);
+        viewService.flush();
+
+        assertEquals(2L, storedViews.get(1L));
+        assertEquals(2, attemptedBatches.size());
+        assertEquals(attemptedBatches.get(0), attemptedBatches.get(1));
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), anyCollection(), anyInt(), any());
+
+        // The view recorded during the retry goes out with the next batch
+        viewService.flush();
+        assertEquals(3L, storedViews.get(1L));
+        assertEquals(2, appliedBatches.size());
+    }
+
+    @Test
+    void viewsOfADeletedListingAreDropped() {
+        when(jdbcTemplate.query(startsWith("SELECT view_count"), any(RowMapper.class), eq(5L)))
+                .thenReturn(List.of(new PropertyViewService.PersistedViews(3, null)));
+        assertEquals(3, viewService.getPersistedViews(5L).count());
+        viewService.recordView(5L);
+        viewService.recordView(6L);
+
+        viewService.onPropertyChanged(PropertyChangedEvent.deleted(5L));
+        viewService.flush();
+
+        assertEquals(Map.of(6L, 1L), storedViews);
+        verify(propertyRankings, never()).viewed(eq(5L), any(Long.class));
+        // The cached count went with the listing, it is read again instead of served stale
+        viewService.getPersistedViews(5L);
+        verify(jdbcTemplate, times(2)).query(startsWith("SELECT view_count"), any(RowMapper.class), eq(5L));
+    }
+
+    @Test
+    void concurrentViewsAreAllCounted() throws InterruptedException {
+        int threads = 8;
+        int viewsPerThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                awaitQuietly(start);
+                for (int i = 0; i < viewsPerThread; i++) {
+                    viewService.recordView(1L + i % 3);
+                }
+                running.decrementAndGet();
+            });
+        }
+        // Flushes race with the increments, none of them may be lost or counted twice
+        executor.execute(() -> {
+            awaitQuietly(start);
+            while (running.get() > 0) {
+                viewService.flush();
+            }
+        });
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        viewService.flush();
+
+        long total = storedViews.values().stream().mapToLong(Long::longValue).sum();
+        assertEquals((long) threads * viewsPerThread, total);
+        assertEquals(new HashSet<>(List.of(1L, 2L, 3L)), storedViews.keySet());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
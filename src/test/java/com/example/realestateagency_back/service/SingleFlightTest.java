@@ -0,0 +1,84 @@
+package com.example.realestateagency_back.service;
+
+import com.example.realestateagency_back.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void concurrentCallsForTheSameKeyShareOneLoad() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(registry, 5_000);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("load", 42L, () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "value";
+                })));
+            }
+            // Let every caller reach the flight before the leader completes
+            while (registry.find("singleflight.calls").counters().isEmpty()) {
+                Thread.sleep(5);
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertEquals("value", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(7, registry.counter("singleflight.calls", "operation", "load", "outcome", "shared").count());
+    }
+
+    @Test
+    void followersGetTheLeadersExceptionOrLoadThemselvesAfterTheTimeout() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(registry, 50);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Object> leader = executor.submit(() -> singleFlight.execute("load", 1L, () -> {
+                await(release);
+                throw new ResourceNotFoundException("Property not found with id 1");
+            }));
+            while (registry.find("singleflight.calls").counters().isEmpty()) {
+                Thread.sleep(5);
+            }
+            assertEquals("own", singleFlight.execute("load", 1L, () -> "own"));
+            assertEquals(1, registry.counter("singleflight.calls", "operation", "load", "outcome", "timeout").count());
+            release.countDown();
+            Exception ex = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            assertEquals(ResourceNotFoundException.class, ex.getCause().getClass());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.realestateagency_back.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SparseFieldsetTest {
+
+    @Test
+    void rejectsUnknownFields() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> SparseFieldset.MESSAGE.parse("content,password"));
+        assertTrue(ex.getMessage().contains("password"));
+        assertThrows(IllegalArgumentException.class, () -> SparseFieldset.PROPERTY.parse("title,admin.password"));
+        assertThrows(IllegalArgumentException.class, () -> SparseFieldset.FAVORITE.parse("content"));
+    }
+
+    @Test
+    void selectsOnlyTheRequestedColumnsPlusTheId() {
+        Set<String> selected = SparseFieldset.MESSAGE.parse(" username , content,,username");
+
+        assertEquals(List.of("id", "username", "content"), List.copyOf(selected));
+        assertEquals(Map.of("id", "id", "username", "user.username", "content", "content"),
+                SparseFieldset.MESSAGE.columns(selected));
+        assertEquals(List.of("id", "username", "content"), List.copyOf(SparseFieldset.MESSAGE.columns(selected).keySet()));
+    }
+
+    @Test
+    void extraFieldsAreNotColumns() {
+        Set<String> selected = SparseFieldset.PROPERTY.parse("title,photos");
+
+        assertEquals(Set.of("id", "title", "photos"), selected);
+        assertEquals(Map.of("id", "id", "title", "title"), SparseFieldset.PROPERTY.columns(selected));
+    }
+
+    @Test
+    void blankListSelectsEveryField() {
+        Set<String> selected = SparseFieldset.FAVORITE.parse(" ");
+
+        assertEquals(7, selected.size());
+        assertEquals(7, SparseFieldset.FAVORITE.columns(selected).size());
+    }
+}